@@ -0,0 +1,110 @@
+package com.edutest.service;
+
+import com.edutest.entity.Question;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-answer cost of grading against {@link AnswerKeyIndex}: index lookup plus comparison,
+ * for option-id answers, option-text answers and typed short answers (Korean, full-width input).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnswerKeyGradingBenchmark {
+
+    private static final int OPTIONS_PER_QUESTION = 5;
+
+    @Param({"10000", "100000"})
+    private int questionCount;
+
+    private AnswerKeyIndex index;
+    private long[] questionIds;
+    private long[] selectedOptionIds;
+    private String[] selectedOptionTexts;
+    private String[] shortAnswers;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new AnswerKeyIndex(null);
+        Random random = new Random(42);
+
+        List<Object[]> rows = new ArrayList<>();
+        questionIds = new long[questionCount];
+        selectedOptionIds = new long[questionCount];
+        selectedOptionTexts = new String[questionCount];
+        shortAnswers = new String[questionCount];
+
+        long optionId = 1;
+        for (int q = 0; q < questionCount; q++) {
+            long questionId = q + 1;
+            questionIds[q] = questionId;
+            boolean choice = q % 2 == 0;
+
+            if (choice) {
+                int correct = random.nextInt(OPTIONS_PER_QUESTION);
+                int picked = random.nextInt(OPTIONS_PER_QUESTION);
+                for (int o = 0; o < OPTIONS_PER_QUESTION; o++) {
+                    String text = "보기 " + questionId + "-" + o;
+                    rows.add(new Object[]{questionId, Question.QuestionType.MULTIPLE_CHOICE, null, 10,
+                            optionId, text, o == correct});
+                    if (o == picked) {
+                        selectedOptionIds[q] = optionId;
+                        selectedOptionTexts[q] = " " + text + " ";
+                    }
+                    optionId++;
+                }
+            } else {
+                rows.add(new Object[]{questionId, Question.QuestionType.SHORT_ANSWER, "피타고라스 정리 " + questionId, 10,
+                        null, null, null});
+                // Full-width digits, ideographic space and different spacing still match
+                shortAnswers[q] = "피타고라스　정리" + toFullWidth(String.valueOf(questionId));
+            }
+        }
+        AnswerKeyIndex.toKeys(rows, 1).forEach(index::put);
+    }
+
+    @Benchmark
+    public boolean gradeByOptionId() {
+        int q = next() & ~1;
+        return index.get(questionIds[q]).isCorrect(selectedOptionIds[q], null);
+    }
+
+    @Benchmark
+    public boolean gradeByOptionText() {
+        int q = next() & ~1;
+        return index.get(questionIds[q]).isCorrect(null, selectedOptionTexts[q]);
+    }
+
+    @Benchmark
+    public boolean gradeShortAnswer() {
+        int q = next() | 1;
+        return index.get(questionIds[q]).isCorrect(null, shortAnswers[q]);
+    }
+
+    private int next() {
+        cursor = (cursor + 1) % (questionCount - 1);
+        return cursor;
+    }
+
+    private static String toFullWidth(String digits) {
+        StringBuilder sb = new StringBuilder(digits.length());
+        for (char c : digits.toCharArray()) {
+            sb.append((char) (c - '0' + '０'));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,107 @@
+package com.edutest.service;
+
+import com.edutest.dto.RecommendationDto;
+import com.edutest.entity.Question;
+import com.edutest.repository.QuestionRepository;
+import com.edutest.repository.StudentProfileRepository;
+import com.edutest.repository.StudentQuestionAttemptRepository;
+import com.edutest.repository.StudentStatsRepository;
+import com.edutest.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link NextQuestionRecommender#recommend} once the student's context is loaded (the target is
+ * p99 under 5 ms; see the p0.99 line of the sample-time output). Concept ranking, difficulty fallback and
+ * the recent-seen checks run in memory; the database only serves context loads, which are not measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NextQuestionRecommenderBenchmark {
+
+    private static final int SUB_UNITS = 20;
+    private static final int CONCEPTS_PER_SUB_UNIT = 10;
+    private static final int RECENT_WINDOW = 200;
+
+    @Param({"10000", "100000"})
+    private int questionCount;
+
+    @Param({"1000"})
+    private int studentCount;
+
+    private NextQuestionRecommender recommender;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<Object[]> placements = new ArrayList<>(questionCount);
+        for (int q = 0; q < questionCount; q++) {
+            long subUnitId = q % SUB_UNITS + 1;
+            long conceptId = (subUnitId - 1) * CONCEPTS_PER_SUB_UNIT + (q / SUB_UNITS) % CONCEPTS_PER_SUB_UNIT + 1;
+            String difficulty = NextQuestionRecommender.DIFFICULTIES.get(q % NextQuestionRecommender.DIFFICULTIES.size());
+            placements.add(new Object[]{q + 1L, Question.QuestionType.MULTIPLE_CHOICE, difficulty, 1L, conceptId,
+                    subUnitId, 1L, 1L});
+        }
+        QuestionPoolIndex questionPoolIndex = new QuestionPoolIndex(
+                repository(QuestionRepository.class, Map.of("findAllPlacements", placements)));
+        questionPoolIndex.load();
+
+        recommender = new NextQuestionRecommender(
+                repository(UserRepository.class, Map.of()),
+                repository(StudentProfileRepository.class, Map.of()),
+                repository(StudentStatsRepository.class, Map.of()),
+                repository(StudentQuestionAttemptRepository.class, Map.of()),
+                new LiveStatsAccumulator(null, null, null, null),
+                questionPoolIndex,
+                new AttemptPartitionManager(null));
+        Field window = NextQuestionRecommender.class.getDeclaredField("recentWindow");
+        window.setAccessible(true);
+        window.setInt(recommender, RECENT_WINDOW);
+
+        // Load every context, then fill each recent-seen window
+        for (int i = 0; i < RECENT_WINDOW; i++) {
+            for (int s = 0; s < studentCount; s++) {
+                recommend();
+            }
+        }
+    }
+
+    @Benchmark
+    public RecommendationDto recommend() {
+        cursor = (cursor + 1) % studentCount;
+        return recommender.recommend(cursor + 1L, (long) (cursor % SUB_UNITS + 1));
+    }
+
+    // Stub repository: canned results by method name, otherwise nothing found
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Map<String, Object> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (results.containsKey(method.getName())) {
+                return results.get(method.getName());
+            }
+            if (method.getReturnType() == Optional.class) {
+                return Optional.empty();
+            }
+            if (List.class.isAssignableFrom(method.getReturnType())) {
+                return List.of();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+}
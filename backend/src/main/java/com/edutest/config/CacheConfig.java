@@ -0,0 +1,42 @@
+package com.edutest.config;
+
+import com.edutest.service.StudentStatsService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Enables Spring's cache abstraction with bounded in-process Caffeine caches.
+ * Cache names are declared next to the services that use them; caches without settings of their own
+ * hold at most cache.max-size entries.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Value("${cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${cache.breakdown.max-size:5000}")
+    private long breakdownMaxSize;
+
+    @Value("${cache.breakdown.ttl-seconds:60}")
+    private long breakdownTtlSeconds;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(maxSize));
+        cacheManager.registerCustomCache(StudentStatsService.BREAKDOWN_CACHE, Caffeine.newBuilder()
+                .maximumSize(breakdownMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(breakdownTtlSeconds))
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,81 @@
+package com.edutest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Splits reads and writes between the primary (spring.datasource) and a read replica (replica.datasource)
+ * when replica.enabled is set; otherwise Spring Boot's single data source is used unchanged.
+ *
+ * Read-only transactions go to the replica, everything else to the primary (see {@link ReplicaRoutingDataSource}).
+ * The router sits behind a {@link LazyConnectionDataSourceProxy}: JPA asks for a connection before the
+ * transaction is marked read-only, so the physical connection is only picked at the first statement.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Value("${replica.read-your-writes-ms:5000}")
+    private long readYourWritesMs;
+
+    @Value("${replica.max-lag-seconds:10}")
+    private long maxLagSeconds;
+
+    @Value("${replica.lag-check:true}")
+    private boolean lagCheck;
+
+    @Value("${replica.cookie.same-site:None}")
+    private String cookieSameSite;
+
+    @Value("${replica.cookie.secure:true}")
+    private boolean cookieSecure;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // replica.datasource.jdbc-url, username, password, driver-class-name and any other Hikari setting
+    @Bean
+    @ConfigurationProperties("replica.datasource")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaHealthMonitor replicaHealthMonitor(HikariDataSource replicaDataSource) {
+        return new ReplicaHealthMonitor(replicaDataSource, maxLagSeconds, lagCheck);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaHealthMonitor replicaHealthMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicaHealthMonitor, readYourWritesMs, cookieSameSite, cookieSecure);
+        routing.afterPropertiesSet();
+
+        // Defaults of a fresh connection, so the proxy does not open one just to read them
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        return proxy;
+    }
+}
@@ -0,0 +1,100 @@
+package com.edutest.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Periodically checks that the replica answers and how far it lags behind the primary.
+ *
+ * The lag comes from SHOW REPLICA STATUS; set replica.lag-check=false for replicas that are not MySQL
+ * replicas (e.g. two local embedded databases), which are then only checked for a valid connection.
+ */
+@Slf4j
+public class ReplicaHealthMonitor {
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final boolean lagCheck;
+
+    private volatile boolean healthy = true;
+    private volatile long lagSeconds;
+    private volatile String lastError;
+
+    public ReplicaHealthMonitor(DataSource replica, long maxLagSeconds, boolean lagCheck) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagCheck = lagCheck;
+    }
+
+    /**
+     * Whether read-only transactions may go to the replica
+     */
+    public boolean isUsable() {
+        return healthy && lagSeconds <= maxLagSeconds;
+    }
+
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    void markDown(SQLException e) {
+        if (healthy) {
+            log.warn("Replica unavailable, reading from the primary: {}", e.getMessage());
+        }
+        healthy = false;
+        lastError = e.getMessage();
+    }
+
+    @Scheduled(fixedDelayString = "${replica.health-check-ms:5000}")
+    public void check() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(2)) {
+                throw new SQLException("Replica connection is not valid");
+            }
+            long lag = lagCheck ? readLag(connection) : 0;
+            if (!healthy) {
+                log.info("Replica is back (lag {} s)", lag);
+            } else if (lag > maxLagSeconds && lagSeconds <= maxLagSeconds) {
+                log.warn("Replica lags {} s (max {} s), reading from the primary", lag, maxLagSeconds);
+            }
+            lagSeconds = lag;
+            healthy = true;
+            lastError = null;
+        } catch (SQLException e) {
+            markDown(e);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("healthy", healthy);
+        status.put("usable", isUsable());
+        status.put("lagSeconds", lagSeconds);
+        status.put("maxLagSeconds", maxLagSeconds);
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    long readLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                throw new SQLException("Replication is not configured on the replica");
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            if (rs.wasNull()) {
+                // Replication threads are stopped
+                throw new SQLException("Replication is not running on the replica");
+            }
+            return lag;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.edutest.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Routes read-only transactions to the replica and everything else to the primary.
+ *
+ * Reads stay on the primary when the replica is unhealthy or lagging beyond replica.max-lag-seconds, and
+ * for a client that wrote within the read-your-writes window (at least the replica's current lag), so a
+ * user never reads a replica that has not caught up with their own change. The time of the client's last
+ * write travels in the {@value #LAST_WRITE_COOKIE} cookie, so the next request sees it whichever node serves
+ * it (node clocks are assumed to be in sync). The SPA and the API are on different sites in production, so the
+ * cookie is SameSite=None and Secure by default (replica.cookie.*). A replica connection that cannot be opened
+ * marks the replica down and falls back to the primary.
+ *
+ * Only writes made in a read-write transaction are marked: an autocommit statement outside any transaction
+ * goes to the primary but cannot be told apart from a read, so code that writes and then reads must open
+ * a transaction (@Transactional or TransactionTemplate) for the write.
+ *
+ * Reads whose result outlives the request (e.g. a cached value) can be sent to the primary with
+ * {@link #onPrimary}, so a lagging replica is never cached; they do not count as a write.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY, REPLICA
+    }
+
+    static final String LAST_WRITE_COOKIE = "last_write_at";
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final ReplicaHealthMonitor healthMonitor;
+    private final long readYourWritesMs;
+    private final String cookieSameSite;
+    private final boolean cookieSecure;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthMonitor healthMonitor,
+                                    long readYourWritesMs, String cookieSameSite, boolean cookieSecure) {
+        this.primary = primary;
+        this.healthMonitor = healthMonitor;
+        this.readYourWritesMs = readYourWritesMs;
+        this.cookieSameSite = cookieSameSite;
+        this.cookieSecure = cookieSecure;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        long now = System.currentTimeMillis();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                markWrite(now);
+            }
+            return Target.PRIMARY;
+        }
+        if (PRIMARY_READS.get() != null || !healthMonitor.isUsable()) {
+            return Target.PRIMARY;
+        }
+        Long wroteAt = lastWriteAt();
+        if (wroteAt != null && now - wroteAt < stickyWindowMs()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return target.getConnection();
+        }
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            healthMonitor.markDown(e);
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target == primary) {
+            return target.getConnection(username, password);
+        }
+        try {
+            return target.getConnection(username, password);
+        } catch (SQLException e) {
+            healthMonitor.markDown(e);
+            return primary.getConnection(username, password);
+        }
+    }
+
+    /**
+     * Run {@code read} with its reads sent to the primary. Without a replica this just runs {@code read}.
+     * An enclosing transaction that already ran a statement keeps the connection it picked.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (PRIMARY_READS.get() != null) {
+            return read.get();
+        }
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_READS.remove();
+        }
+    }
+
+    private long stickyWindowMs() {
+        return Math.max(readYourWritesMs, healthMonitor.getLagSeconds() * 1000L);
+    }
+
+    /**
+     * Remember the write for the rest of the request and, through the cookie, for the client's next requests
+     */
+    private void markWrite(long now) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        boolean first = request.getAttribute(LAST_WRITE_COOKIE) == null;
+        request.setAttribute(LAST_WRITE_COOKIE, now);
+
+        // One cookie per request is enough; the window is far longer than a request
+        HttpServletResponse response = attributes.getResponse();
+        if (first && response != null && !response.isCommitted()) {
+            ResponseCookie cookie = ResponseCookie.from(LAST_WRITE_COOKIE, Long.toString(now))
+                    .path("/")
+                    .httpOnly(true)
+                    .secure(cookieSecure)
+                    .sameSite(cookieSameSite)
+                    .maxAge(Math.max(60, stickyWindowMs() / 1000 + 1))
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+    }
+
+    private static Long lastWriteAt() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(LAST_WRITE_COOKIE) instanceof Long wroteAt) {
+            return wroteAt;
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -66,4 +66,21 @@ public class ConceptController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    /**
+     * Move before/after a sibling (beforeId / afterId) or to a zero-based index among the siblings
+     */
+    @PutMapping("/{id}/move")
+    public ResponseEntity<?> moveConcept(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer index) {
+        try {
+            conceptService.moveConcept(id, beforeId, afterId, index);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
@@ -52,11 +52,13 @@ public class GradeController {
         }
     }
 
+    /**
+     * Delete the grade and everything below it; dryRun=true returns the counts without deleting
+     */
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteGrade(@PathVariable Long id) {
+    public ResponseEntity<?> deleteGrade(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean dryRun) {
         try {
-            gradeService.deleteGrade(id);
-            return ResponseEntity.ok().build();
+            return ResponseEntity.ok(gradeService.deleteGrade(id, dryRun));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -71,4 +73,21 @@ public class GradeController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    /**
+     * Move before/after a sibling (beforeId / afterId) or to a zero-based index among the siblings
+     */
+    @PutMapping("/{id}/move")
+    public ResponseEntity<?> moveGrade(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer index) {
+        try {
+            gradeService.moveGrade(id, beforeId, afterId, index);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
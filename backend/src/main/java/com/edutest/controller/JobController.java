@@ -0,0 +1,79 @@
+package com.edutest.controller;
+
+import com.edutest.entity.Job;
+import com.edutest.service.JobQueueService;
+import com.edutest.service.JobWorker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class JobController {
+
+    private final JobQueueService jobQueueService;
+    private final JobWorker jobWorker;
+
+    /**
+     * Queue a background job (stats-rebuild, daily-progress-backfill, item-analysis, attempt-archive);
+     * the body is the job payload, e.g. {"reset": true} for item-analysis.
+     * A stats-rebuild job fails without retrying once attempts have been archived.
+     */
+    @PostMapping("/{jobType}")
+    public ResponseEntity<?> enqueue(
+            @PathVariable String jobType,
+            @RequestBody(required = false) Map<String, Object> payload,
+            @RequestParam(required = false) String dedupeKey,
+            Authentication authentication) {
+        try {
+            return ResponseEntity.ok(jobQueueService.submit(jobType, payload, dedupeKey, authentication.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> listJobs(
+            @RequestParam(required = false) String jobType,
+            @RequestParam(required = false) Job.State state,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(jobQueueService.listJobs(jobType, state, limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(jobQueueService.getJob(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Cancel a queued job, or ask the worker running it to stop
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(jobQueueService.cancel(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Worker threads, job types and counters of the node serving the request
+     */
+    @GetMapping("/worker")
+    public ResponseEntity<Map<String, Object>> getWorkerStatus() {
+        return ResponseEntity.ok(jobWorker.getStatus());
+    }
+}
@@ -0,0 +1,49 @@
+package com.edutest.controller;
+
+import com.edutest.entity.StudentStats.StatsType;
+import com.edutest.service.LeaderboardService;
+import com.edutest.service.StudentStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+    private final StudentStatsService studentStatsService;
+
+    /**
+     * Top students of a grade or concept by correct rate
+     */
+    @GetMapping("/{statsType}/{entityId}")
+    public ResponseEntity<?> getTop(
+            @PathVariable StatsType statsType,
+            @PathVariable Long entityId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(leaderboardService.getTop(statsType, entityId, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * The current student's rank on a grade or concept board
+     */
+    @GetMapping("/{statsType}/{entityId}/me")
+    public ResponseEntity<?> getMyRank(
+            @PathVariable StatsType statsType,
+            @PathVariable Long entityId,
+            Authentication authentication) {
+        try {
+            Long studentId = studentStatsService.getStudentId(authentication.getName());
+            return ResponseEntity.ok(leaderboardService.getRank(statsType, entityId, studentId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
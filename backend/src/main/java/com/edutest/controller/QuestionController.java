@@ -2,12 +2,23 @@ package com.edutest.controller;
 
 import com.edutest.dto.AIQuestionGenerationRequest;
 import com.edutest.dto.AIQuestionGenerationResponse;
+import com.edutest.dto.QuestionBulkFilter;
+import com.edutest.dto.QuestionBulkUpdateRequest;
 import com.edutest.dto.QuestionCreateRequest;
 import com.edutest.dto.QuestionDto;
+import com.edutest.dto.QuestionImportRow;
+import com.edutest.dto.QuestionImportSummaryDto;
+import com.edutest.dto.TestBlueprintRequest;
 import com.edutest.service.AIQuestionGenerationService;
+import com.edutest.service.AttemptHistoryService;
 import com.edutest.service.FileStorageService;
+import com.edutest.service.ItemAnalysisService;
+import com.edutest.service.QuestionBulkService;
+import com.edutest.service.QuestionImportReader;
+import com.edutest.service.QuestionImportService;
 import com.edutest.service.QuestionService;
 import com.edutest.service.SecretService;
+import com.edutest.service.TestAssemblyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,9 +28,14 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -31,6 +47,11 @@ public class QuestionController {
     private final FileStorageService fileStorageService;
     private final AIQuestionGenerationService aiQuestionGenerationService;
     private final SecretService secretService;
+    private final AttemptHistoryService attemptHistoryService;
+    private final TestAssemblyService testAssemblyService;
+    private final ItemAnalysisService itemAnalysisService;
+    private final QuestionImportService questionImportService;
+    private final QuestionBulkService questionBulkService;
     private final ObjectMapper objectMapper;
 
     @Value("${file.upload-dir}")
@@ -129,6 +150,107 @@ public class QuestionController {
         }
     }
 
+    /**
+     * Move or retag every question matched by the filter in one statement
+     */
+    @PostMapping("/bulk-update")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> bulkUpdateQuestions(@RequestBody QuestionBulkUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(questionBulkService.update(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Delete every question matched by the filter with its options and files.
+     * Questions that already have answers are skipped and counted.
+     */
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> bulkDeleteQuestions(@RequestBody QuestionBulkFilter filter) {
+        try {
+            return ResponseEntity.ok(questionBulkService.delete(filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Bulk import questions from a CSV or JSON file (see QuestionImportReader for the layout).
+     * The response is NDJSON: one {row, message} line per rejected row as it is found, then a summary line.
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> importQuestions(
+            @RequestPart("file") MultipartFile file,
+            Authentication authentication) {
+        List<QuestionImportRow> rows;
+        try (InputStream in = file.getInputStream()) {
+            rows = QuestionImportReader.read(file.getOriginalFilename(), in, objectMapper);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        }
+
+        String username = authentication.getName();
+        StreamingResponseBody body = out -> {
+            QuestionImportSummaryDto summary = questionImportService.importQuestions(rows, username, error -> {
+                try {
+                    out.write(objectMapper.writeValueAsString(error).getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    // Client went away; finish the import regardless
+                }
+            });
+            out.write(objectMapper.writeValueAsString(summary).getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    /**
+     * Assemble a randomized practice test from a blueprint (scope, count per difficulty, question types)
+     */
+    @PostMapping("/assemble")
+    public ResponseEntity<?> assembleTest(@RequestBody TestBlueprintRequest blueprint) {
+        try {
+            return ResponseEntity.ok(testAssemblyService.assemble(blueprint));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Attempts on a question by all students, newest first; follow nextCursor for older pages
+     */
+    @GetMapping("/{id}/attempts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> getQuestionAttempts(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(attemptHistoryService.getQuestionHistory(id, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Difficulty, discrimination and distractor statistics from the latest item analysis run
+     */
+    @GetMapping("/{id}/analysis")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> getQuestionAnalysis(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(itemAnalysisService.getAnalysis(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping("/generate-ai")
     @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
     public ResponseEntity<?> generateQuestionWithAI(
@@ -0,0 +1,153 @@
+package com.edutest.controller;
+
+import com.edutest.config.ReplicaHealthMonitor;
+import com.edutest.service.AttemptArchiveService;
+import com.edutest.service.AttemptPartitionManager;
+import com.edutest.service.ChangeLogService;
+import com.edutest.service.DailyProgressService;
+import com.edutest.service.ItemAnalysisService;
+import com.edutest.service.LiveStatsAccumulator;
+import com.edutest.service.StatsRebuildService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/stats")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class StatsAdminController {
+
+    private final LiveStatsAccumulator liveStatsAccumulator;
+    private final StatsRebuildService statsRebuildService;
+    private final DailyProgressService dailyProgressService;
+    private final ItemAnalysisService itemAnalysisService;
+    private final AttemptPartitionManager attemptPartitionManager;
+    private final AttemptArchiveService attemptArchiveService;
+    private final ObjectProvider<ReplicaHealthMonitor> replicaHealthMonitor;
+    private final ChangeLogService changeLogService;
+
+    /**
+     * Flush lag and queue sizes of the attempt buffer and live stats accumulator
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(liveStatsAccumulator.getMetrics());
+    }
+
+    /**
+     * Recompute student_stats from the attempt log in the background.
+     * Refused with 409 once attempts have been archived, since their history is no longer in the log.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> startRebuild() {
+        try {
+            return ResponseEntity.ok(statsRebuildService.start());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/rebuild")
+    public ResponseEntity<?> getRebuildStatus() {
+        try {
+            return ResponseEntity.ok(statsRebuildService.getStatus());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/rebuild")
+    public ResponseEntity<?> cancelRebuild() {
+        try {
+            return ResponseEntity.ok(statsRebuildService.cancel());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Recompute student_daily_progress from the attempt log in the background
+     */
+    @PostMapping("/daily-backfill")
+    public ResponseEntity<?> startDailyBackfill() {
+        try {
+            return ResponseEntity.ok(dailyProgressService.startBackfill());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/daily-backfill")
+    public ResponseEntity<Map<String, Object>> getDailyBackfillStatus() {
+        return ResponseEntity.ok(dailyProgressService.getBackfillStatus());
+    }
+
+    /**
+     * Fold answers added since the last run into the item analysis tables; reset=true rebuilds them
+     */
+    @PostMapping("/item-analysis")
+    public ResponseEntity<?> startItemAnalysis(@RequestParam(defaultValue = "false") boolean reset) {
+        try {
+            return ResponseEntity.ok(itemAnalysisService.start(reset));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/item-analysis")
+    public ResponseEntity<Map<String, Object>> getItemAnalysisStatus() {
+        return ResponseEntity.ok(itemAnalysisService.getStatus());
+    }
+
+    /**
+     * Month partitions currently in student_question_attempts
+     */
+    @GetMapping("/partitions")
+    public ResponseEntity<?> getPartitions() {
+        return ResponseEntity.ok(attemptPartitionManager.listMonthPartitions().stream()
+                .map(AttemptPartitionManager::partitionName)
+                .toList());
+    }
+
+    /**
+     * Move attempt partitions older than the archive horizon to object storage in the background
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<?> startArchive() {
+        try {
+            return ResponseEntity.ok(attemptArchiveService.start());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveStatus() {
+        return ResponseEntity.ok(attemptArchiveService.getStatus());
+    }
+
+    /**
+     * Health and lag of the read replica (replica.enabled)
+     */
+    @GetMapping("/replica")
+    public ResponseEntity<?> getReplicaStatus() {
+        ReplicaHealthMonitor monitor = replicaHealthMonitor.getIfAvailable();
+        if (monitor == null) {
+            return ResponseEntity.badRequest().body("Read replica is not enabled");
+        }
+        return ResponseEntity.ok(monitor.getStatus());
+    }
+
+    /**
+     * This node's position in the cross-node change log
+     */
+    @GetMapping("/change-log")
+    public ResponseEntity<Map<String, Object>> getChangeLogStatus() {
+        return ResponseEntity.ok(changeLogService.getStatus());
+    }
+}
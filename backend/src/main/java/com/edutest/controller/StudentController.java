@@ -0,0 +1,193 @@
+package com.edutest.controller;
+
+import com.edutest.dto.AttemptSubmitRequest;
+import com.edutest.dto.TestSubmitRequest;
+import com.edutest.entity.StudentStats.StatsType;
+import com.edutest.service.AttemptHistoryService;
+import com.edutest.service.AttemptIngestionService;
+import com.edutest.service.DailyProgressService;
+import com.edutest.service.NextQuestionRecommender;
+import com.edutest.service.ReviewQueue;
+import com.edutest.service.StudentStatsService;
+import com.edutest.service.TestSubmissionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/students")
+@RequiredArgsConstructor
+public class StudentController {
+
+    private final AttemptIngestionService attemptIngestionService;
+    private final AttemptHistoryService attemptHistoryService;
+    private final TestSubmissionService testSubmissionService;
+    private final StudentStatsService studentStatsService;
+    private final DailyProgressService dailyProgressService;
+    private final NextQuestionRecommender nextQuestionRecommender;
+    private final ReviewQueue reviewQueue;
+
+    /**
+     * Grade and record answers of the current student.
+     * Attempts are persisted asynchronously in batches; the response carries the grading result only.
+     */
+    @PostMapping("/me/attempts")
+    public ResponseEntity<?> submitAttempts(
+            @RequestBody List<AttemptSubmitRequest> requests,
+            Authentication authentication) {
+        try {
+            return ResponseEntity.ok(attemptIngestionService.submitAttempts(authentication.getName(), requests));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Grade a whole test of the current student and store it as a UserAttempt with its answers
+     */
+    @PostMapping("/me/tests")
+    public ResponseEntity<?> submitTest(
+            @RequestBody TestSubmitRequest request,
+            Authentication authentication) {
+        try {
+            return ResponseEntity.ok(testSubmissionService.submitTest(authentication.getName(), request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Next practice question for the current student from their weakest concepts
+     */
+    @GetMapping("/me/next-question")
+    public ResponseEntity<?> getNextQuestion(
+            @RequestParam(required = false) Long subUnitId,
+            Authentication authentication) {
+        try {
+            Long studentId = studentStatsService.getStudentId(authentication.getName());
+            return ResponseEntity.ok(nextQuestionRecommender.recommend(studentId, subUnitId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Questions the current student should review now (spaced repetition of wrong answers)
+     */
+    @GetMapping("/me/reviews")
+    public ResponseEntity<?> getMyDueReviews(
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        try {
+            if (limit < 1 || limit > 100) {
+                throw new IllegalArgumentException("limit must be between 1 and 100");
+            }
+            Long studentId = studentStatsService.getStudentId(authentication.getName());
+            return ResponseEntity.ok(reviewQueue.getDue(studentId, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Attempt history of the current student, newest first; follow nextCursor for older pages
+     */
+    @GetMapping("/me/attempts")
+    public ResponseEntity<?> getMyAttempts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        try {
+            Long studentId = studentStatsService.getStudentId(authentication.getName());
+            return ResponseEntity.ok(attemptHistoryService.getStudentHistory(studentId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{userId}/attempts")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> getStudentAttempts(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(attemptHistoryService.getStudentHistory(userId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Live stats of the current student, including attempts not yet flushed to student_stats
+     */
+    @GetMapping("/me/stats")
+    public ResponseEntity<?> getMyStats(Authentication authentication) {
+        try {
+            Long studentId = studentStatsService.getStudentId(authentication.getName());
+            return ResponseEntity.ok(studentStatsService.getLiveStats(studentId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{userId}/stats")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> getStudentStats(@PathVariable Long userId) {
+        return ResponseEntity.ok(studentStatsService.getLiveStats(userId));
+    }
+
+    /**
+     * Breakdown of the current student's attempts across every hierarchy level in one response
+     */
+    @GetMapping("/me/stats/breakdown")
+    public ResponseEntity<?> getMyStatsBreakdown(Authentication authentication) {
+        try {
+            Long studentId = studentStatsService.getStudentId(authentication.getName());
+            return ResponseEntity.ok(studentStatsService.getBreakdown(studentId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{userId}/stats/breakdown")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> getStudentStatsBreakdown(@PathVariable Long userId) {
+        return ResponseEntity.ok(studentStatsService.getBreakdown(userId));
+    }
+
+    /**
+     * Daily attempts, accuracy and time spent of the current student on one hierarchy node
+     */
+    @GetMapping("/me/progress")
+    public ResponseEntity<?> getMyProgress(
+            @RequestParam(defaultValue = "OVERALL") StatsType statsType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(defaultValue = "90") int days,
+            Authentication authentication) {
+        try {
+            Long studentId = studentStatsService.getStudentId(authentication.getName());
+            return ResponseEntity.ok(dailyProgressService.getProgress(studentId, statsType, entityId, days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{userId}/progress")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<?> getStudentProgress(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "OVERALL") StatsType statsType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(defaultValue = "90") int days) {
+        try {
+            return ResponseEntity.ok(dailyProgressService.getProgress(userId, statsType, entityId, days));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
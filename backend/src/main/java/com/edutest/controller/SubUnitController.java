@@ -71,4 +71,21 @@ public class SubUnitController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    /**
+     * Move before/after a sibling (beforeId / afterId) or to a zero-based index among the siblings
+     */
+    @PutMapping("/{id}/move")
+    public ResponseEntity<?> moveSubUnit(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer index) {
+        try {
+            subUnitService.moveSubUnit(id, beforeId, afterId, index);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 }
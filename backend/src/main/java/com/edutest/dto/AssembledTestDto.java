@@ -0,0 +1,18 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssembledTestDto {
+    private Long seed;
+    private Integer totalQuestions;
+    private List<QuestionDto> questions; // 보기 순서는 섞여 있음, 정답은 포함하지 않음
+}
@@ -0,0 +1,28 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of an attempt history view, projected straight from student_question_attempts.
+ * Field order matches the JPQL constructor expressions in StudentQuestionAttemptRepository.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptHistoryDto {
+    private Long id;
+    private Long studentId;
+    private Long questionId;
+    private Boolean isCorrect;
+    private String userAnswer;
+    private Integer timeSpentSeconds;
+    private LocalDateTime attemptedAt;
+    private Long conceptId;
+    private String difficulty;
+}
@@ -0,0 +1,18 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptHistoryPageDto {
+    private List<AttemptHistoryDto> items;
+    private String nextCursor; // null on the last page; pass back as ?cursor= for the next page
+    private Boolean hasMore;
+}
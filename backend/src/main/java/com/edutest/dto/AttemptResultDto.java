@@ -0,0 +1,16 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptResultDto {
+    private Long questionId;
+    private Boolean isCorrect;
+    private String correctAnswer;
+}
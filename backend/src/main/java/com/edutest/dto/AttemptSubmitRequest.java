@@ -0,0 +1,11 @@
+package com.edutest.dto;
+
+import lombok.Data;
+
+@Data
+public class AttemptSubmitRequest {
+    private Long questionId;
+    private Long selectedOptionId; // 객관식/O,X: 선택한 보기 ID (없으면 answerText로 채점)
+    private String answerText; // 주관식 답안 또는 선택한 보기 텍스트
+    private Integer timeSpentSeconds;
+}
@@ -0,0 +1,59 @@
+package com.edutest.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout of the curriculum file (resources/curriculum/curriculum.json or .yml).
+ * Sibling order follows the order in the file; displayName defaults to name.
+ */
+@Data
+public class CurriculumDefinition {
+    private Integer version;
+    private String defaultSubject; // 단원에 subject가 없을 때 사용할 과목 이름
+    private List<SubjectDef> subjects = new ArrayList<>();
+    private List<LevelDef> levels = new ArrayList<>();
+
+    @Data
+    public static class SubjectDef {
+        private String name;
+        private String displayName;
+        private String description;
+    }
+
+    @Data
+    public static class LevelDef {
+        private String name;
+        private String displayName;
+        private String description;
+        private Integer rank; // 난이도 순위 (levels.order_index)
+        private List<GradeDef> grades = new ArrayList<>();
+    }
+
+    @Data
+    public static class GradeDef {
+        private String name;
+        private String displayName;
+        private String description;
+        private List<UnitDef> units = new ArrayList<>();
+    }
+
+    @Data
+    public static class UnitDef {
+        private String name;
+        private String displayName;
+        private String description;
+        private String subject;
+        private List<SubUnitDef> subUnits = new ArrayList<>();
+    }
+
+    @Data
+    public static class SubUnitDef {
+        private String name;
+        private String displayName;
+        private String description;
+        private List<String> concepts = new ArrayList<>();
+    }
+}
@@ -0,0 +1,22 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurriculumDeleteResultDto {
+    private Boolean dryRun; // true면 삭제하지 않고 영향 범위만 계산
+    private Integer grades;
+    private Integer units;
+    private Integer subUnits;
+    private Integer concepts;
+    private Integer questionsDeleted;
+    private Integer questionsDetached; // 풀이 기록이 있어 남기고 단원 연결만 해제한 문제 수
+    private Integer optionsDeleted;
+    private Integer filesDeleted;
+}
@@ -0,0 +1,20 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyProgressDto {
+    private LocalDate date;
+    private Integer attemptCount;
+    private Integer correctCount;
+    private Double correctRate; // 정답률 (0.0 ~ 100.0)
+    private Long timeSpentSeconds;
+}
@@ -0,0 +1,18 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DistractorStatsDto {
+    private Long optionId;
+    private String optionText; // 삭제된 보기는 null
+    private Boolean isCorrect;
+    private Long selectionCount;
+    private Double selectionRate; // 선택 비율 (0.0 ~ 100.0)
+}
@@ -0,0 +1,23 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAnalysisDto {
+    private Long questionId;
+    private Long responseCount;
+    private Long correctCount;
+    private Double difficultyIndex; // p-value: 정답 비율 (0.0 ~ 1.0)
+    private Double discriminationIndex; // point-biserial (-1.0 ~ 1.0), 산출 불가 시 null
+    private List<DistractorStatsDto> distractors;
+    private LocalDateTime updatedAt;
+}
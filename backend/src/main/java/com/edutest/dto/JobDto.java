@@ -0,0 +1,32 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobDto {
+    private Long id;
+    private String jobType;
+    private String state; // QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED
+    private Map<String, Object> payload;
+    private Map<String, Object> result;
+    private Integer attempts;
+    private Integer maxAttempts;
+    private LocalDateTime runAfter; // 다음 실행(재시도) 가능 시각
+    private String leaseOwner;
+    private LocalDateTime leaseExpiresAt;
+    private Boolean cancelRequested;
+    private String lastError;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,19 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDto {
+    private String statsType; // GRADE, CONCEPT
+    private Long entityId;
+    private Integer totalRanked;
+    private List<LeaderboardEntryDto> entries;
+}
@@ -0,0 +1,18 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDto {
+    private Integer rank; // 1부터 시작, 순위 대상이 아니면 null
+    private Long studentId;
+    private String fullName;
+    private Long attemptCount;
+    private Double correctRate; // 정답률 (0.0 ~ 100.0)
+}
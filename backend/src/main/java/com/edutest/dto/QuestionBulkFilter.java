@@ -0,0 +1,24 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Selects the questions of a bulk operation; all given criteria must match
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionBulkFilter {
+    private List<Long> questionIds;
+    private Long levelId;
+    private Long subUnitId;
+    private Long conceptId;
+    private String difficulty;
+    private String questionType;
+}
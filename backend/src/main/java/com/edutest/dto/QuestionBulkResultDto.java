@@ -0,0 +1,19 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionBulkResultDto {
+    private Integer matched; // 필터에 해당하는 문제 수
+    private Integer updated;
+    private Integer deleted;
+    private Integer skipped; // 풀이 기록이 있어 삭제하지 않은 문제 수
+    private Integer optionsDeleted;
+    private Integer filesDeleted;
+}
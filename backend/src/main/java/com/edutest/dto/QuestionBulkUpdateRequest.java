@@ -0,0 +1,20 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Moves / retags every question matched by the filter; null targets are left unchanged
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionBulkUpdateRequest {
+    private QuestionBulkFilter filter;
+    private Long subUnitId; // 이동할 소단원
+    private Long conceptId; // 이동할 개념 (소단원도 개념의 소단원으로 바뀜)
+    private String difficulty;
+}
@@ -0,0 +1,38 @@
+package com.edutest.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One question of a bulk import file (CSV row or JSON object).
+ * Hierarchy references can be given by id or by name.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionImportRow {
+    private Integer row; // CSV 줄 번호 또는 JSON 배열 위치 (1부터)
+    private Long levelId;
+    private String levelName;
+    private Long subUnitId;
+    private String subUnitName;
+    private Long conceptId;
+    private String conceptName;
+    private String difficulty; // E (쉬움), M (보통), H (어려움)
+    private String evalDomain;
+    private String questionText;
+    private String questionType; // MULTIPLE_CHOICE, TRUE_FALSE, SHORT_ANSWER, ESSAY
+    private String correctAnswer;
+    private String explanation;
+    private Integer points;
+    private List<String> options; // 보기 (순서대로)
+
+    @JsonIgnore
+    private String parseError; // CSV 값 변환 오류 (검증 단계에서 보고)
+}
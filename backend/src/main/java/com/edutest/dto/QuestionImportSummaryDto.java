@@ -0,0 +1,17 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionImportSummaryDto {
+    private Integer totalRows;
+    private Integer imported;
+    private Integer failed;
+    private Long elapsedMs;
+}
@@ -0,0 +1,18 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationDto {
+    private Long questionId;
+    private Long conceptId;
+    private String difficulty;
+    private Long conceptAttemptCount;
+    private Double conceptCorrectRate; // 정답률 (0.0 ~ 100.0), 풀이 기록이 없으면 null
+}
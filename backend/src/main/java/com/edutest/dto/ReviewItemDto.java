@@ -0,0 +1,24 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Field order matches the JPQL constructor expression in ReviewItemRepository
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewItemDto {
+    private Long questionId;
+    private LocalDateTime dueAt;
+    private Integer repetitions;
+    private Integer intervalDays;
+    private Double easeFactor;
+    private Integer lapses;
+}
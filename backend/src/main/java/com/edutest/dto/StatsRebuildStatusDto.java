@@ -0,0 +1,24 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsRebuildStatusDto {
+    private String state; // RUNNING, COMPLETED, CANCELLED, FAILED
+    private Integer totalPartitions;
+    private Integer completedPartitions;
+    private Long studentsRebuilt;
+    private Long attemptsScanned;
+    private Double attemptsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentStatsBreakdownDto {
+    private Long studentId;
+    private StudentStatsDto overall; // 전체
+    private List<StudentStatsDto> levels; // 교육과정별
+    private List<StudentStatsDto> grades; // 학년별
+    private List<StudentStatsDto> units; // 대단원별
+    private List<StudentStatsDto> subUnits; // 소단원별
+    private List<StudentStatsDto> concepts; // 핵심개념별
+}
@@ -0,0 +1,18 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentStatsDto {
+    private String statsType; // CONCEPT, SUB_UNIT, UNIT, GRADE, LEVEL, OVERALL
+    private Long entityId;
+    private Long attemptCount;
+    private Long correctCount;
+    private Double correctRate; // 정답률 (0.0 ~ 100.0)
+}
@@ -0,0 +1,15 @@
+package com.edutest.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class TestBlueprintRequest {
+    private List<Long> subUnitIds; // 출제 범위: 소단원
+    private List<Long> conceptIds; // 출제 범위: 핵심개념
+    private List<String> questionTypes; // 비어 있으면 모든 유형
+    private Map<String, Integer> difficultyCounts; // 난이도별 문항 수
+    private Long seed; // 같은 seed로 같은 시험지를 다시 만들 수 있음 (선택)
+}
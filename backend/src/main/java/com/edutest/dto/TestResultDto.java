@@ -0,0 +1,21 @@
+package com.edutest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TestResultDto {
+    private Long attemptId;
+    private Integer totalQuestions;
+    private Integer correctAnswers;
+    private Integer totalPoints;
+    private Integer earnedPoints;
+    private List<AttemptResultDto> results;
+}
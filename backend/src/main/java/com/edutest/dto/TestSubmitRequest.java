@@ -0,0 +1,12 @@
+package com.edutest.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TestSubmitRequest {
+    private Long subjectId;
+    private Long levelId;
+    private List<AttemptSubmitRequest> answers; // 문항별 답안 (문항당 1개)
+}
@@ -0,0 +1,42 @@
+package com.edutest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A month of student_question_attempts that was exported to object storage and dropped from the table
+ */
+@Entity
+@Table(name = "attempt_archives", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_attempt_archive_partition", columnNames = {"partition_name"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttemptArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "partition_name", nullable = false, length = 20)
+    private String partitionName; // pYYYYMM
+
+    @Column(name = "storage_key", nullable = false, length = 500)
+    private String storageKey;
+
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+
+    @Column(name = "compressed_bytes", nullable = false)
+    private Long compressedBytes;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
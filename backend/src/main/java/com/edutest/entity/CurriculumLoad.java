@@ -0,0 +1,40 @@
+package com.edutest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One application of the curriculum file; the latest checksum tells whether the file changed since
+ */
+@Entity
+@Table(name = "curriculum_loads")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CurriculumLoad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Integer version;
+
+    @Column(nullable = false, length = 64)
+    private String checksum; // SHA-256 (hex)
+
+    @Column(name = "rows_inserted", nullable = false)
+    private Integer rowsInserted;
+
+    @Column(name = "rows_updated", nullable = false)
+    private Integer rowsUpdated;
+
+    @Column(name = "loaded_at", nullable = false)
+    private LocalDateTime loadedAt;
+}
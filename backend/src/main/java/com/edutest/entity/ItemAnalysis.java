@@ -0,0 +1,59 @@
+package com.edutest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Classical item analysis of a question over all graded test answers.
+ * The raw sums are kept next to the indices so later answers can be merged in without a rescan.
+ * Scores are the attempt's earned points minus this question's points (the "rest score").
+ */
+@Entity
+@Table(name = "item_analysis",
+    uniqueConstraints = @UniqueConstraint(name = "uk_item_analysis_question", columnNames = {"question_id"})
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAnalysis {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "question_id", nullable = false)
+    private Question question;
+
+    @Column(name = "response_count", nullable = false)
+    private Long responseCount;
+
+    @Column(name = "correct_count", nullable = false)
+    private Long correctCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private Double scoreSum;
+
+    @Column(name = "score_sq_sum", nullable = false)
+    private Double scoreSqSum;
+
+    @Column(name = "correct_score_sum", nullable = false)
+    private Double correctScoreSum;
+
+    @Column(name = "p_value")
+    private Double pValue;  // 정답률 (0.0 ~ 1.0), 난이도 지수
+
+    @Column(name = "point_biserial")
+    private Double pointBiserial;  // 변별도 (-1.0 ~ 1.0), 응답 수가 부족하면 null
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.edutest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How often each option of a question was selected in graded test answers.
+ * option_id is a plain column: options are replaced when a question is edited and old counts stay readable.
+ */
+@Entity
+@Table(name = "item_distractor_stats",
+    uniqueConstraints = @UniqueConstraint(name = "uk_item_distractor", columnNames = {"question_id", "option_id"})
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemDistractorStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "option_id", nullable = false)
+    private Long optionId;
+
+    @Column(name = "selection_count", nullable = false)
+    private Long selectionCount;
+}
@@ -0,0 +1,82 @@
+package com.edutest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background job in the database queue; written by JobQueueService and JobWorker with JDBC
+ */
+@Entity
+@Table(name = "jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Job {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_type", nullable = false, length = 50)
+    private String jobType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private State state;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Column(columnDefinition = "TEXT")
+    private String result; // JSON
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "max_attempts", nullable = false)
+    private Integer maxAttempts;
+
+    @Column(name = "run_after", nullable = false)
+    private LocalDateTime runAfter;
+
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner; // Node id of the worker running it
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private Boolean cancelRequested;
+
+    @Column(name = "dedupe_key", length = 100, unique = true)
+    private String dedupeKey;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_by", length = 50)
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum State {
+        QUEUED,     // 대기 (run_after 이후 실행)
+        RUNNING,    // 실행 중 (lease 보유)
+        SUCCEEDED,  // 완료
+        FAILED,     // 재시도 소진 또는 재시도 불가 오류
+        CANCELLED   // 취소
+    }
+}
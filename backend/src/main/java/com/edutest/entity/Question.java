@@ -77,6 +77,7 @@ public class Question {
     private User createdBy;
 
     @OneToMany(mappedBy = "question", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("optionOrder ASC, id ASC")
     @Builder.Default
     private List<QuestionOption> options = new ArrayList<>();
 
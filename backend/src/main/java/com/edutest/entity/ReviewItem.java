@@ -0,0 +1,61 @@
+package com.edutest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Spaced-repetition state (SM-2) of one question for one student.
+ * Created when a student answers a question wrong and rescheduled on every later attempt of it.
+ */
+@Entity
+@Table(name = "review_items",
+    uniqueConstraints = @UniqueConstraint(name = "uk_review_student_question", columnNames = {"student_id", "question_id"}),
+    indexes = {
+        @Index(name = "idx_review_student_due", columnList = "student_id,due_at")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private User student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "question_id", nullable = false)
+    private Question question;
+
+    @Column(name = "repetitions", nullable = false)
+    @Builder.Default
+    private Integer repetitions = 0;  // 연속 정답 횟수
+
+    @Column(name = "interval_days", nullable = false)
+    @Builder.Default
+    private Integer intervalDays = 0;
+
+    @Column(name = "ease_factor", nullable = false)
+    @Builder.Default
+    private Double easeFactor = 2.5;
+
+    @Column(name = "lapses", nullable = false)
+    @Builder.Default
+    private Integer lapses = 0;  // 오답 횟수
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @Column(name = "last_reviewed_at")
+    private LocalDateTime lastReviewedAt;
+}
@@ -0,0 +1,66 @@
+package com.edutest.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Daily roll-up of student attempts per hierarchy node, used for progress charts.
+ * Maintained incrementally by the attempt pipeline, so a 90-day chart reads at most 90 rows per node.
+ */
+@Entity
+@Table(name = "student_daily_progress",
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_student_daily_progress",
+        columnNames = {"student_id", "stats_type", "entity_id", "activity_date"}
+    )
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentDailyProgress {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private User student;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stats_type", nullable = false, length = 20)
+    private StudentStats.StatsType statsType;
+
+    /**
+     * Same meaning as {@link StudentStats#getEntityId()}; OVERALL rows use {@link StudentStats#OVERALL_ENTITY_ID}
+     */
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(name = "attempt_count", nullable = false)
+    @Builder.Default
+    private Integer attemptCount = 0;
+
+    @Column(name = "correct_count", nullable = false)
+    @Builder.Default
+    private Integer correctCount = 0;
+
+    @Column(name = "time_spent_seconds", nullable = false)
+    @Builder.Default
+    private Long timeSpentSeconds = 0L;
+
+    @UpdateTimestamp
+    @Column(name = "last_updated")
+    private LocalDateTime lastUpdated;
+}
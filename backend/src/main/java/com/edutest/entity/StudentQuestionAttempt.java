@@ -12,6 +12,9 @@ import java.time.LocalDateTime;
 /**
  * Records every question attempt by students
  * This is the source of truth for calculating statistics
+ *
+ * Partitioned monthly by attempted_at when attempts.partitioning.enabled is set (see AttemptPartitionManager);
+ * partitioned InnoDB tables cannot have foreign keys, so none are declared here.
  */
 @Entity
 @Table(name = "student_question_attempts", indexes = {
@@ -30,11 +33,11 @@ public class StudentQuestionAttempt {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "student_id", nullable = false)
+    @JoinColumn(name = "student_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User student;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "question_id", nullable = false)
+    @JoinColumn(name = "question_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Question question;
 
     @Column(name = "is_correct", nullable = false)
@@ -29,6 +29,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class StudentStats {
 
+    /**
+     * entity_id used for OVERALL rows. MySQL unique keys treat NULLs as distinct,
+     * so a NULL entity_id would allow duplicate OVERALL rows per student.
+     */
+    public static final long OVERALL_ENTITY_ID = 0L;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -48,7 +54,7 @@ public class StudentStats {
      * - UNIT: unit_id
      * - GRADE: grade_id
      * - LEVEL: level_id
-     * - OVERALL: null (or 0)
+     * - OVERALL: 0 (OVERALL_ENTITY_ID)
      */
     @Column(name = "entity_id")
     private Long entityId;
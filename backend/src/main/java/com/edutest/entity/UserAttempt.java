@@ -68,6 +68,7 @@ public class UserAttempt {
         answer.setAttempt(null);
     }
 
+    // Loads every answer's question lazily; bulk submissions compute totals in TestSubmissionService instead
     public void calculateResults() {
         this.totalQuestions = answers.size();
         this.correctAnswers = (int) answers.stream().filter(UserAnswer::getIsCorrect).count();
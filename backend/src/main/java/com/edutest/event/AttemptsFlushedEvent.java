@@ -0,0 +1,18 @@
+package com.edutest.event;
+
+import com.edutest.service.GradedAttempt;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published by the attempt write buffer inside the transaction that inserts a batch of attempts.
+ * Plain listeners join that transaction; use a transactional listener for work that must run after commit.
+ */
+@Getter
+@RequiredArgsConstructor
+public class AttemptsFlushedEvent {
+
+    private final List<GradedAttempt> attempts;
+}
@@ -0,0 +1,18 @@
+package com.edutest.event;
+
+import com.edutest.service.GradedAttempt;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Published when answers have been graded, inside the submission's transaction.
+ * The attempts enter the write buffer and the in-memory stats only after that transaction commits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class AttemptsGradedEvent {
+
+    private final List<GradedAttempt> attempts;
+}
@@ -0,0 +1,36 @@
+package com.edutest.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Published when curriculum nodes are updated or deleted, so question placements derived from the
+ * hierarchy are rebuilt. {@code ids} null means any node may have changed (e.g. a curriculum load).
+ * {@code remote} events replay a change made on another node (see ChangeLogService).
+ */
+@Getter
+@AllArgsConstructor
+public class CurriculumChangedEvent {
+
+    public enum NodeType {
+        LEVEL, GRADE, UNIT, SUB_UNIT, CONCEPT
+    }
+
+    private final NodeType nodeType;
+    private final Collection<Long> ids;
+    private final boolean remote;
+
+    public CurriculumChangedEvent(NodeType nodeType, Collection<Long> ids) {
+        this(nodeType, ids, false);
+    }
+
+    public static CurriculumChangedEvent all() {
+        return new CurriculumChangedEvent(null, null, false);
+    }
+
+    public boolean isFullReload() {
+        return ids == null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.edutest.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Published when questions are created, updated or deleted.
+ * Components that keep question data in memory refresh the affected ids after commit.
+ * {@code remote} events replay a change made on another node (see ChangeLogService).
+ */
+@Getter
+@AllArgsConstructor
+public class QuestionChangedEvent {
+
+    private final Collection<Long> questionIds;
+    private final boolean remote;
+
+    public QuestionChangedEvent(Collection<Long> questionIds) {
+        this(questionIds, false);
+    }
+}
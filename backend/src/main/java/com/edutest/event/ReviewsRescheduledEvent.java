@@ -0,0 +1,33 @@
+package com.edutest.event;
+
+import com.edutest.service.ReviewSchedule;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Published inside the attempt flush transaction with the review states it wrote.
+ * {@code remote} events replay a reschedule made on another node (see ChangeLogService); they name only
+ * the students and carry no schedules.
+ */
+@Getter
+@AllArgsConstructor
+public class ReviewsRescheduledEvent {
+
+    private final List<ReviewSchedule> schedules;
+    private final Collection<Long> studentIds;
+    private final boolean remote;
+
+    public ReviewsRescheduledEvent(List<ReviewSchedule> schedules) {
+        this(schedules, studentsOf(schedules), false);
+    }
+
+    private static Collection<Long> studentsOf(List<ReviewSchedule> schedules) {
+        Collection<Long> studentIds = new LinkedHashSet<>();
+        schedules.forEach(schedule -> studentIds.add(schedule.getStudentId()));
+        return studentIds;
+    }
+}
@@ -0,0 +1,41 @@
+package com.edutest.event;
+
+import com.edutest.service.StatsKey;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+
+/**
+ * Published when student_stats rows change, in the transaction that changed them.
+ * {@code studentIds} lists the students whose rows changed; null means the table was rewritten (e.g. by a rebuild).
+ * {@code keys} names the changed rows when known; {@code remote} events replay a change made on another node
+ * (see ChangeLogService) and name only the students.
+ */
+@Getter
+@AllArgsConstructor
+public class StudentStatsChangedEvent {
+
+    private final Collection<Long> studentIds;
+    private final Collection<StatsKey> keys;
+    private final boolean remote;
+
+    public StudentStatsChangedEvent(Collection<StatsKey> keys) {
+        this(studentsOf(keys), keys, false);
+    }
+
+    public static StudentStatsChangedEvent all() {
+        return new StudentStatsChangedEvent(null, null, false);
+    }
+
+    public boolean isFullReload() {
+        return studentIds == null;
+    }
+
+    private static Collection<Long> studentsOf(Collection<StatsKey> keys) {
+        Collection<Long> studentIds = new LinkedHashSet<>();
+        keys.forEach(key -> studentIds.add(key.getStudentId()));
+        return studentIds;
+    }
+}
@@ -0,0 +1,22 @@
+package com.edutest.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Published when a user's account or profile changes; cached login details are dropped after commit.
+ * {@code remote} events replay a change made on another node (see ChangeLogService).
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final Collection<Long> userIds;
+    private final boolean remote;
+
+    public UserChangedEvent(Collection<Long> userIds) {
+        this(userIds, false);
+    }
+}
@@ -0,0 +1,15 @@
+package com.edutest.repository;
+
+import com.edutest.entity.AttemptArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AttemptArchiveRepository extends JpaRepository<AttemptArchive, Long> {
+
+    boolean existsByPartitionName(String partitionName);
+
+    List<AttemptArchive> findAllByOrderByPartitionNameAsc();
+}
@@ -17,9 +17,9 @@ public interface ConceptRepository extends JpaRepository<Concept, Long> {
 
     Boolean existsByName(String name);
 
-    List<Concept> findBySubUnitIdOrderByOrderIndexAsc(Long subUnitId);
+    List<Concept> findBySubUnitIdOrderByOrderIndexAscIdAsc(Long subUnitId);
 
-    List<Concept> findBySubUnitIsNullOrderByOrderIndexAsc();
+    List<Concept> findBySubUnitIsNullOrderByOrderIndexAscIdAsc();
 
     // For AI Question Generation: fetch entire hierarchy for context
     @Query("SELECT c FROM Concept c " +
@@ -0,0 +1,13 @@
+package com.edutest.repository;
+
+import com.edutest.entity.CurriculumLoad;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CurriculumLoadRepository extends JpaRepository<CurriculumLoad, Long> {
+
+    Optional<CurriculumLoad> findTopByOrderByIdDesc();
+}
@@ -14,5 +14,5 @@ public interface GradeRepository extends JpaRepository<Grade, Long> {
 
     Boolean existsByName(String name);
 
-    List<Grade> findByLevelIdOrderByOrderIndexAsc(Long levelId);
+    List<Grade> findByLevelIdOrderByOrderIndexAscIdAsc(Long levelId);
 }
@@ -0,0 +1,13 @@
+package com.edutest.repository;
+
+import com.edutest.entity.ItemAnalysis;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ItemAnalysisRepository extends JpaRepository<ItemAnalysis, Long> {
+
+    Optional<ItemAnalysis> findByQuestionId(Long questionId);
+}
@@ -0,0 +1,13 @@
+package com.edutest.repository;
+
+import com.edutest.entity.ItemDistractorStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ItemDistractorStatsRepository extends JpaRepository<ItemDistractorStats, Long> {
+
+    List<ItemDistractorStats> findByQuestionId(Long questionId);
+}
@@ -0,0 +1,18 @@
+package com.edutest.repository;
+
+import com.edutest.entity.Job;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+
+    @Query("SELECT j FROM Job j WHERE (:jobType IS NULL OR j.jobType = :jobType) " +
+           "AND (:state IS NULL OR j.state = :state) ORDER BY j.id DESC")
+    List<Job> search(@Param("jobType") String jobType, @Param("state") Job.State state, Pageable pageable);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,6 +23,15 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     @Query("SELECT q FROM Question q LEFT JOIN FETCH q.concept LEFT JOIN FETCH q.level WHERE q.level.id = :levelId")
     List<Question> findByLevelIdWithConcepts(@Param("levelId") Long levelId);
 
+    // Everything an assembled test renders, in one query
+    @Query("SELECT DISTINCT q FROM Question q " +
+           "JOIN FETCH q.level " +
+           "LEFT JOIN FETCH q.subUnit " +
+           "LEFT JOIN FETCH q.concept " +
+           "LEFT JOIN FETCH q.options " +
+           "WHERE q.id IN :ids")
+    List<Question> findAllWithOptionsByIdIn(@Param("ids") Collection<Long> ids);
+
     Long countByLevelId(Long levelId);
 
     Long countByConceptId(Long conceptId);
@@ -36,4 +46,40 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
            "WHERE c.id IN :conceptIds " +
            "GROUP BY c.id, q.difficulty")
     List<Object[]> countQuestionsGroupedByConceptAndDifficulty(@Param("conceptIds") List<Long> conceptIds);
+
+    // Curriculum placement of questions, used to fill the denormalized columns of student attempts.
+    // Columns: id, questionType, difficulty, levelId, conceptId, subUnitId, unitId, gradeId
+    String PLACEMENT_SELECT = "SELECT q.id, q.questionType, q.difficulty, l.id, c.id, " +
+           "COALESCE(su.id, csu.id), COALESCE(u.id, cu.id), COALESCE(g.id, cg.id) " +
+           "FROM Question q " +
+           "JOIN q.level l " +
+           "LEFT JOIN q.concept c " +
+           "LEFT JOIN q.subUnit su " +
+           "LEFT JOIN su.unit u " +
+           "LEFT JOIN u.grade g " +
+           "LEFT JOIN c.subUnit csu " +
+           "LEFT JOIN csu.unit cu " +
+           "LEFT JOIN cu.grade cg";
+
+    @Query(PLACEMENT_SELECT)
+    List<Object[]> findAllPlacements();
+
+    @Query(PLACEMENT_SELECT + " WHERE q.id IN :ids")
+    List<Object[]> findPlacementsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Answer key for grading: one row per option (or a single row with null option columns)
+    // Columns: questionId, questionType, correctAnswer, points, optionId, optionText, optionIsCorrect
+    @Query("SELECT q.id, q.questionType, q.correctAnswer, q.points, o.id, o.optionText, o.isCorrect " +
+           "FROM Question q " +
+           "LEFT JOIN q.options o " +
+           "WHERE q.id IN :ids " +
+           "ORDER BY q.id, o.optionOrder")
+    List<Object[]> findAnswerKeyRows(@Param("ids") Collection<Long> ids);
+
+    // Same columns for every question, used to warm the in-memory answer-key index
+    @Query("SELECT q.id, q.questionType, q.correctAnswer, q.points, o.id, o.optionText, o.isCorrect " +
+           "FROM Question q " +
+           "LEFT JOIN q.options o " +
+           "ORDER BY q.id, o.optionOrder")
+    List<Object[]> findAllAnswerKeyRows();
 }
@@ -0,0 +1,30 @@
+package com.edutest.repository;
+
+import com.edutest.dto.ReviewItemDto;
+import com.edutest.entity.ReviewItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ReviewItemRepository extends JpaRepository<ReviewItem, Long> {
+
+    // Range scan on idx_review_student_due (student_id, due_at)
+    @Query("SELECT new com.edutest.dto.ReviewItemDto(" +
+           "r.question.id, r.dueAt, r.repetitions, r.intervalDays, r.easeFactor, r.lapses) " +
+           "FROM ReviewItem r " +
+           "WHERE r.student.id = :studentId AND r.dueAt <= :until " +
+           "ORDER BY r.dueAt ASC")
+    List<ReviewItemDto> findDueBefore(
+        @Param("studentId") Long studentId,
+        @Param("until") LocalDateTime until,
+        Pageable limit
+    );
+
+    Long countByStudentIdAndDueAtLessThanEqual(Long studentId, LocalDateTime until);
+}
@@ -0,0 +1,18 @@
+package com.edutest.repository;
+
+import com.edutest.entity.StudentDailyProgress;
+import com.edutest.entity.StudentStats.StatsType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface StudentDailyProgressRepository extends JpaRepository<StudentDailyProgress, Long> {
+
+    // Range scan on uk_student_daily_progress (student_id, stats_type, entity_id, activity_date)
+    List<StudentDailyProgress> findByStudentIdAndStatsTypeAndEntityIdAndActivityDateBetweenOrderByActivityDateAsc(
+        Long studentId, StatsType statsType, Long entityId, LocalDate from, LocalDate to
+    );
+}
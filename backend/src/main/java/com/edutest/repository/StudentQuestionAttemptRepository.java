@@ -1,6 +1,8 @@
 package com.edutest.repository;
 
+import com.edutest.dto.AttemptHistoryDto;
 import com.edutest.entity.StudentQuestionAttempt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -12,9 +14,57 @@ import java.util.List;
 @Repository
 public interface StudentQuestionAttemptRepository extends JpaRepository<StudentQuestionAttempt, Long> {
 
-    List<StudentQuestionAttempt> findByStudentIdOrderByAttemptedAtDesc(Long studentId);
+    String HISTORY_SELECT = "SELECT new com.edutest.dto.AttemptHistoryDto(" +
+           "sqa.id, sqa.student.id, sqa.question.id, sqa.isCorrect, sqa.userAnswer, sqa.timeSpentSeconds, " +
+           "sqa.attemptedAt, sqa.conceptId, sqa.difficulty) " +
+           "FROM StudentQuestionAttempt sqa ";
 
-    List<StudentQuestionAttempt> findByQuestionIdOrderByAttemptedAtDesc(Long questionId);
+    // Keyset predicate: rows strictly older than the cursor (attemptedAt, id) in (attemptedAt DESC, id DESC) order
+    String BEFORE_CURSOR = "AND (sqa.attemptedAt < :attemptedAt OR (sqa.attemptedAt = :attemptedAt AND sqa.id < :id)) ";
+
+    // Attempt history pages. InnoDB secondary indexes carry the primary key, so
+    // idx_student_attempted / idx_question_attempted already serve the (attempted_at, id) order without a sort.
+    // The :since bound lets MySQL prune monthly partitions (see AttemptPartitionManager).
+    // Pass PageRequest.of(0, limit) - the cursor replaces the offset.
+    @Query(HISTORY_SELECT +
+           "WHERE sqa.student.id = :studentId AND sqa.attemptedAt >= :since " +
+           "ORDER BY sqa.attemptedAt DESC, sqa.id DESC")
+    List<AttemptHistoryDto> findStudentHistory(
+        @Param("studentId") Long studentId,
+        @Param("since") LocalDateTime since,
+        Pageable limit
+    );
+
+    @Query(HISTORY_SELECT +
+           "WHERE sqa.student.id = :studentId AND sqa.attemptedAt >= :since " + BEFORE_CURSOR +
+           "ORDER BY sqa.attemptedAt DESC, sqa.id DESC")
+    List<AttemptHistoryDto> findStudentHistoryBefore(
+        @Param("studentId") Long studentId,
+        @Param("since") LocalDateTime since,
+        @Param("attemptedAt") LocalDateTime attemptedAt,
+        @Param("id") Long id,
+        Pageable limit
+    );
+
+    @Query(HISTORY_SELECT +
+           "WHERE sqa.question.id = :questionId AND sqa.attemptedAt >= :since " +
+           "ORDER BY sqa.attemptedAt DESC, sqa.id DESC")
+    List<AttemptHistoryDto> findQuestionHistory(
+        @Param("questionId") Long questionId,
+        @Param("since") LocalDateTime since,
+        Pageable limit
+    );
+
+    @Query(HISTORY_SELECT +
+           "WHERE sqa.question.id = :questionId AND sqa.attemptedAt >= :since " + BEFORE_CURSOR +
+           "ORDER BY sqa.attemptedAt DESC, sqa.id DESC")
+    List<AttemptHistoryDto> findQuestionHistoryBefore(
+        @Param("questionId") Long questionId,
+        @Param("since") LocalDateTime since,
+        @Param("attemptedAt") LocalDateTime attemptedAt,
+        @Param("id") Long id,
+        Pageable limit
+    );
 
     // Real-time statistics calculation from attempts
     @Query("SELECT COUNT(sqa), SUM(CASE WHEN sqa.isCorrect = true THEN 1 ELSE 0 END) " +
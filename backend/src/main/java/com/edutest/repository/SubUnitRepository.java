@@ -9,5 +9,5 @@ import java.util.List;
 @Repository
 public interface SubUnitRepository extends JpaRepository<SubUnit, Long> {
 
-    List<SubUnit> findByUnitIdOrderByOrderIndexAsc(Long unitId);
+    List<SubUnit> findByUnitIdOrderByOrderIndexAscIdAsc(Long unitId);
 }
@@ -9,5 +9,5 @@ import java.util.List;
 @Repository
 public interface UnitRepository extends JpaRepository<Unit, Long> {
 
-    List<Unit> findByGradeIdOrderByOrderIndexAsc(Long gradeId);
+    List<Unit> findByGradeIdOrderByOrderIndexAscIdAsc(Long gradeId);
 }
@@ -19,6 +19,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Boolean existsByEmail(String email);
 
+    // Proficiency from the legacy users column, for students without a profile value
+    @Query("SELECT u.proficiencyLevel FROM User u WHERE u.id = :id")
+    Optional<String> findLegacyProficiencyLevel(@Param("id") Long id);
+
     @Query("SELECT u FROM User u " +
            "LEFT JOIN FETCH u.level " +
            "LEFT JOIN FETCH u.grade " +
@@ -0,0 +1,138 @@
+package com.edutest.service;
+
+import com.edutest.entity.Question;
+import lombok.Getter;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable answer key of a single question, held by {@link AnswerKeyIndex}.
+ * Option texts and the short answer are stored pre-normalized so grading is a lookup plus one
+ * normalization of the submitted text.
+ * Choice questions match on option id (or option text, as the solving page submits text);
+ * text questions compare normalized answers.
+ */
+public class AnswerKey {
+
+    @Getter
+    private final Long questionId;
+    @Getter
+    private final Question.QuestionType questionType;
+    @Getter
+    private final int points;
+    @Getter
+    private final long version;
+
+    private final String correctAnswer;
+    private final String normalizedCorrectAnswer;
+    private final long[] optionIds;              // option order
+    private final String[] optionTexts;
+    private final String[] normalizedOptionTexts;
+    private final long[] correctOptionIds;       // sorted for binary search
+
+    AnswerKey(Long questionId, Question.QuestionType questionType, String correctAnswer, Integer points,
+              long version, List<Long> optionIds, List<String> optionTexts, List<Boolean> optionCorrect) {
+        this.questionId = questionId;
+        this.questionType = questionType;
+        this.points = points != null ? points : 0;
+        this.version = version;
+        this.correctAnswer = correctAnswer;
+        this.normalizedCorrectAnswer = normalize(correctAnswer);
+
+        int n = optionIds.size();
+        this.optionIds = new long[n];
+        this.optionTexts = new String[n];
+        this.normalizedOptionTexts = new String[n];
+        long[] correct = new long[n];
+        int correctCount = 0;
+        for (int i = 0; i < n; i++) {
+            this.optionIds[i] = optionIds.get(i);
+            this.optionTexts[i] = optionTexts.get(i);
+            this.normalizedOptionTexts[i] = normalize(optionTexts.get(i));
+            if (Boolean.TRUE.equals(optionCorrect.get(i))) {
+                correct[correctCount++] = optionIds.get(i);
+            }
+        }
+        this.correctOptionIds = Arrays.copyOf(correct, correctCount);
+        Arrays.sort(this.correctOptionIds);
+    }
+
+    public boolean isChoice() {
+        return questionType == Question.QuestionType.MULTIPLE_CHOICE ||
+                questionType == Question.QuestionType.TRUE_FALSE;
+    }
+
+    public boolean isCorrect(Long selectedOptionId, String answerText) {
+        if (isChoice()) {
+            Long optionId = resolveOptionId(selectedOptionId, answerText);
+            if (optionId != null) {
+                return Arrays.binarySearch(correctOptionIds, optionId) >= 0;
+            }
+        }
+
+        String answer = normalize(answerText);
+        return !answer.isEmpty() && answer.equals(normalizedCorrectAnswer);
+    }
+
+    /**
+     * Option of this question the student picked, by id or by its text; null when it matches none
+     */
+    public Long resolveOptionId(Long selectedOptionId, String answerText) {
+        if (selectedOptionId != null) {
+            for (long optionId : optionIds) {
+                if (optionId == selectedOptionId) {
+                    return selectedOptionId;
+                }
+            }
+            return null;
+        }
+        String answer = normalize(answerText);
+        if (answer.isEmpty()) {
+            return null;
+        }
+        for (int i = 0; i < normalizedOptionTexts.length; i++) {
+            if (answer.equals(normalizedOptionTexts[i])) {
+                return optionIds[i];
+            }
+        }
+        return null;
+    }
+
+    public String displayAnswer() {
+        List<String> correctTexts = new ArrayList<>();
+        for (int i = 0; i < optionIds.length; i++) {
+            if (Arrays.binarySearch(correctOptionIds, optionIds[i]) >= 0) {
+                correctTexts.add(optionTexts[i]);
+            }
+        }
+        if (!correctTexts.isEmpty()) {
+            return String.join(", ", correctTexts);
+        }
+        return correctAnswer != null ? correctAnswer : "";
+    }
+
+    /**
+     * Canonical form for comparing typed answers.
+     * NFKC folds full-width Latin letters, digits and the ideographic space to their half-width forms
+     * and composes Hangul jamo into syllables; all whitespace is dropped (Korean spacing varies between
+     * students) and case is folded.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        StringBuilder sb = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (!Character.isWhitespace(c) && !Character.isSpaceChar(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,165 @@
+package com.edutest.service;
+
+import com.edutest.entity.Question;
+import com.edutest.event.QuestionChangedEvent;
+import com.edutest.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory map of questionId -> {@link AnswerKey}, so grading never reads question_options.
+ * Loaded at startup and refreshed after every committed question write. Every load is stamped with a
+ * new version; an entry is only replaced by a load with a higher version, so a slow load that read
+ * older rows cannot overwrite a fresher key. A load that overlapped the removal of a deleted question
+ * returns what it read but caches none of it, so the deleted key cannot come back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnswerKeyIndex {
+
+    private final QuestionRepository questionRepository;
+
+    private final Map<Long, AnswerKey> keys = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    // Bumped before every removal
+    private final AtomicLong removals = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long removalsBefore = removals.get();
+        long loadVersion = version.incrementAndGet();
+        List<AnswerKey> loaded = toKeys(questionRepository.findAllAnswerKeyRows(), loadVersion);
+        loaded.forEach(key -> put(key, removalsBefore));
+        log.info("Loaded answer keys for {} questions (version {})", loaded.size(), loadVersion);
+    }
+
+    /**
+     * Answer keys by question id; misses are loaded with a single query.
+     * Ids that do not exist are absent from the map.
+     */
+    public Map<Long, AnswerKey> getAll(Collection<Long> questionIds) {
+        Map<Long, AnswerKey> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : questionIds) {
+            AnswerKey key = keys.get(id);
+            if (key != null) {
+                result.put(id, key);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            // Version is taken before the read so a concurrent change event always wins
+            long removalsBefore = removals.get();
+            long loadVersion = version.incrementAndGet();
+            for (AnswerKey key : toKeys(questionRepository.findAnswerKeyRows(missing), loadVersion)) {
+                AnswerKey cached = put(key, removalsBefore);
+                result.put(key.getQuestionId(), cached != null ? cached : key);
+            }
+        }
+        return result;
+    }
+
+    public AnswerKey get(Long questionId) {
+        AnswerKey key = keys.get(questionId);
+        return key != null ? key : getAll(List.of(questionId)).get(questionId);
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        long changeVersion = version.incrementAndGet();
+        Set<Long> remaining = new HashSet<>(event.getQuestionIds());
+        for (AnswerKey key : toKeys(questionRepository.findAnswerKeyRows(event.getQuestionIds()), changeVersion)) {
+            put(key);
+            remaining.remove(key.getQuestionId());
+        }
+        // Deleted questions
+        for (Long id : remaining) {
+            removals.incrementAndGet();
+            keys.remove(id);
+        }
+    }
+
+    /**
+     * Installs the key unless a newer version is already present; returns the key now in the index
+     */
+    AnswerKey put(AnswerKey key) {
+        return keys.merge(key.getQuestionId(), key,
+                (current, candidate) -> candidate.getVersion() >= current.getVersion() ? candidate : current);
+    }
+
+    /**
+     * Same as {@link #put(AnswerKey)}, but caches nothing once a key was removed after {@code removalsBefore}
+     * was read: the removal bumps the counter before it takes the entry, and both run under the entry's lock
+     */
+    private AnswerKey put(AnswerKey key, long removalsBefore) {
+        return keys.compute(key.getQuestionId(), (id, current) -> {
+            if (removals.get() != removalsBefore) {
+                return current;
+            }
+            return current == null || key.getVersion() >= current.getVersion() ? key : current;
+        });
+    }
+
+    // Rows are ordered by question id and option order (see QuestionRepository.findAnswerKeyRows)
+    static List<AnswerKey> toKeys(List<Object[]> rows, long version) {
+        Map<Long, KeyRows> grouped = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            KeyRows key = grouped.computeIfAbsent((Long) row[0], id -> new KeyRows(row));
+            if (row[4] != null) {
+                key.optionIds.add((Long) row[4]);
+                key.optionTexts.add((String) row[5]);
+                key.optionCorrect.add((Boolean) row[6]);
+            }
+        }
+
+        List<AnswerKey> result = new ArrayList<>(grouped.size());
+        for (Map.Entry<Long, KeyRows> entry : grouped.entrySet()) {
+            KeyRows key = entry.getValue();
+            result.add(new AnswerKey(entry.getKey(), key.questionType, key.correctAnswer, key.points,
+                    version, key.optionIds, key.optionTexts, key.optionCorrect));
+        }
+        return result;
+    }
+
+    private static class KeyRows {
+        private final Question.QuestionType questionType;
+        private final String correctAnswer;
+        private final Integer points;
+        private final List<Long> optionIds = new ArrayList<>();
+        private final List<String> optionTexts = new ArrayList<>();
+        private final List<Boolean> optionCorrect = new ArrayList<>();
+
+        KeyRows(Object[] row) {
+            this.questionType = (Question.QuestionType) row[1];
+            this.correctAnswer = (String) row[2];
+            this.points = (Integer) row[3];
+        }
+    }
+}
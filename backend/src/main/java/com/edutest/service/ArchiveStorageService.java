@@ -0,0 +1,102 @@
+package com.edutest.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.ServerSideEncryption;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.file.Path;
+
+/**
+ * Object storage for archived attempt data (S3)
+ */
+@Service
+@Slf4j
+public class ArchiveStorageService {
+
+    @Value("${aws.s3.archive-bucket-name:${aws.s3.bucket-name}}")
+    private String bucketName;
+
+    @Value("${aws.s3.region}")
+    private String region;
+
+    @Value("${aws.s3.access-key}")
+    private String accessKey;
+
+    @Value("${aws.s3.secret-key}")
+    private String secretKey;
+
+    @Value("${aws.s3.archive-folder:archive/}")
+    private String archiveFolder;
+
+    private S3Client s3Client;
+
+    @PostConstruct
+    public void init() {
+        // Skip S3 initialization if credentials are not provided
+        if (accessKey == null || accessKey.trim().isEmpty() ||
+            secretKey == null || secretKey.trim().isEmpty()) {
+            log.warn("AWS credentials not provided. Attempt archiving will be disabled.");
+            return;
+        }
+
+        try {
+            AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKey, secretKey);
+
+            this.s3Client = S3Client.builder()
+                    .region(Region.of(region))
+                    .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
+                    .build();
+
+            log.info("Archive S3 Client initialized for bucket: {}", bucketName);
+        } catch (Exception e) {
+            log.error("Failed to initialize archive S3 Client: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() {
+        if (s3Client != null) {
+            s3Client.close();
+        }
+    }
+
+    public boolean isAvailable() {
+        return s3Client != null;
+    }
+
+    /**
+     * Upload a local file and return its storage key once S3 reports the same size
+     */
+    public String upload(String name, Path file, long size) {
+        if (s3Client == null) {
+            throw new IllegalStateException("S3 is not configured. Please set AWS_ACCESS_KEY_ID and AWS_SECRET_ACCESS_KEY environment variables.");
+        }
+
+        String key = archiveFolder + name;
+        s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType("application/x-ndjson")
+                        .contentEncoding("gzip")
+                        .serverSideEncryption(ServerSideEncryption.AES256)
+                        .build(),
+                RequestBody.fromFile(file));
+
+        HeadObjectResponse head = s3Client.headObject(b -> b.bucket(bucketName).key(key));
+        if (head.contentLength() == null || head.contentLength() != size) {
+            throw new IllegalStateException("Uploaded archive " + key + " has " + head.contentLength() +
+                    " bytes, expected " + size);
+        }
+        return "s3://" + bucketName + "/" + key;
+    }
+}
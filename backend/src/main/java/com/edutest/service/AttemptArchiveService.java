@@ -0,0 +1,259 @@
+package com.edutest.service;
+
+import com.edutest.entity.AttemptArchive;
+import com.edutest.repository.AttemptArchiveRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves month partitions of student_question_attempts older than the horizon to object storage.
+ *
+ * Each partition is streamed to a gzip-compressed NDJSON file (one attempt per line), uploaded, checked
+ * against the partition's row count and recorded in attempt_archives before the partition is dropped, so a
+ * failure at any step leaves the rows in place. Aggregates (student_stats, student_daily_progress) are kept;
+ * the stats rebuild refuses to run from then on, and a daily backfill only sees the attempts still in the table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttemptArchiveService implements JobHandler {
+
+    public static final String JOB_TYPE = "attempt-archive";
+
+    private static final String EXPORT_SQL =
+            "SELECT id, student_id, question_id, is_correct, user_answer, time_spent_seconds, attempted_at, " +
+            "concept_id, sub_unit_id, unit_id, grade_id, level_id, difficulty " +
+            "FROM " + AttemptPartitionManager.TABLE + " PARTITION (%s)";
+
+    private final AttemptPartitionManager partitionManager;
+    private final ArchiveStorageService archiveStorageService;
+    private final AttemptArchiveRepository attemptArchiveRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final JobQueueService jobQueueService;
+
+    @Value("${attempts.archive.horizon-months:12}")
+    private int horizonMonths;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong rowsArchived = new AtomicLong();
+    private volatile String state = "NOT_STARTED";
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    /**
+     * Every node fires the cron; the dedupe key lets only the first one queue the month's run
+     */
+    @Scheduled(cron = "${attempts.archive.cron:0 0 4 1 * *}")
+    public void scheduledRun() {
+        if (!partitionManager.isEnabled() || !archiveStorageService.isAvailable()) {
+            return;
+        }
+        jobQueueService.enqueue(JOB_TYPE, null, JOB_TYPE + ":" + YearMonth.now(), null);
+    }
+
+    /**
+     * Archive every month partition older than the horizon. Runs on the calling thread.
+     */
+    public Map<String, Object> run() {
+        checkConfigured();
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Attempt archive is already running");
+        }
+        rowsArchived.set(0);
+        state = "RUNNING";
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        try {
+            // Never reach into the hot window, whatever the configuration says
+            YearMonth cutoff = YearMonth.from(partitionManager.hotWindowStart());
+            YearMonth horizon = YearMonth.now().minusMonths(horizonMonths);
+            if (horizon.isAfter(cutoff)) {
+                horizon = cutoff;
+            }
+
+            for (YearMonth month : partitionManager.listMonthPartitions()) {
+                if (!month.isBefore(horizon)) {
+                    break;
+                }
+                archive(month);
+            }
+            state = "COMPLETED";
+        } catch (RuntimeException e) {
+            state = "FAILED: " + e.getMessage();
+            log.error("Attempt archive failed: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+        return getStatus();
+    }
+
+    /**
+     * Same as {@link #run} on a background thread
+     */
+    public Map<String, Object> start() {
+        checkConfigured();
+        if (running.get()) {
+            throw new IllegalStateException("Attempt archive is already running");
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                // Already logged and reflected in the status
+            }
+        }, "attempt-archive");
+        worker.setDaemon(true);
+        worker.start();
+        return getStatus();
+    }
+
+    @Override
+    public String type() {
+        return JOB_TYPE;
+    }
+
+    /**
+     * Partitions already uploaded are only dropped on retry (see {@link #archive})
+     */
+    @Override
+    public Map<String, Object> handle(JobContext context) {
+        Map<String, Object> status = run();
+        status.remove("archives");
+        return status;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("rowsArchived", rowsArchived.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("archives", attemptArchiveRepository.findAllByOrderByPartitionNameAsc());
+        return status;
+    }
+
+    private void checkConfigured() {
+        if (!partitionManager.isEnabled()) {
+            throw new IllegalStateException("Attempt partitioning is disabled");
+        }
+        if (!archiveStorageService.isAvailable()) {
+            throw new IllegalStateException("Archive storage is not configured");
+        }
+    }
+
+    private void archive(YearMonth month) {
+        String partition = AttemptPartitionManager.partitionName(month);
+
+        // Uploaded by an earlier run that failed before the drop
+        if (attemptArchiveRepository.existsByPartitionName(partition)) {
+            partitionManager.dropPartition(month);
+            return;
+        }
+
+        Long expected = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + AttemptPartitionManager.TABLE + " PARTITION (" + partition + ")", Long.class);
+        if (expected == null || expected == 0) {
+            partitionManager.dropPartition(month);
+            return;
+        }
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("attempts-" + partition + "-", ".ndjson.gz");
+            long written = export(partition, file);
+            if (written != expected) {
+                throw new IllegalStateException("Exported " + written + " rows from " + partition + ", expected " + expected);
+            }
+
+            long size = Files.size(file);
+            String storageKey = archiveStorageService.upload(
+                    AttemptPartitionManager.TABLE + "/" + partition + ".ndjson.gz", file, size);
+
+            attemptArchiveRepository.save(AttemptArchive.builder()
+                    .partitionName(partition)
+                    .storageKey(storageKey)
+                    .rowCount(written)
+                    .compressedBytes(size)
+                    .archivedAt(LocalDateTime.now())
+                    .build());
+            partitionManager.dropPartition(month);
+
+            rowsArchived.addAndGet(written);
+            log.info("Archived {} attempts of {} to {} ({} bytes)", written, partition, storageKey, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export partition " + partition, e);
+        } finally {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary archive file {}", file);
+                }
+            }
+        }
+    }
+
+    private long export(String partition, Path file) throws IOException {
+        // Stream rows instead of loading the whole partition (MySQL streams with fetch size Integer.MIN_VALUE)
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE);
+
+        long[] count = {0};
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), 1 << 16), StandardCharsets.UTF_8))) {
+            streaming.query(String.format(EXPORT_SQL, partition), (RowCallbackHandler) rs -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("id", rs.getLong(1));
+                row.put("studentId", rs.getLong(2));
+                row.put("questionId", rs.getLong(3));
+                row.put("isCorrect", rs.getBoolean(4));
+                row.put("userAnswer", rs.getString(5));
+                row.put("timeSpentSeconds", rs.getObject(6, Integer.class));
+                Timestamp attemptedAt = rs.getTimestamp(7);
+                row.put("attemptedAt", attemptedAt != null ? attemptedAt.toLocalDateTime().toString() : null);
+                row.put("conceptId", rs.getObject(8, Long.class));
+                row.put("subUnitId", rs.getObject(9, Long.class));
+                row.put("unitId", rs.getObject(10, Long.class));
+                row.put("gradeId", rs.getObject(11, Long.class));
+                row.put("levelId", rs.getObject(12, Long.class));
+                row.put("difficulty", rs.getString(13));
+                try {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,119 @@
+package com.edutest.service;
+
+import com.edutest.dto.AttemptHistoryDto;
+import com.edutest.dto.AttemptHistoryPageDto;
+import com.edutest.repository.StudentQuestionAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Attempt history pages ordered newest first, paginated by an opaque (attemptedAt, id) cursor.
+ * Each page is an index range scan, so deep pages cost the same as the first one.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttemptHistoryService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final StudentQuestionAttemptRepository attemptRepository;
+    private final AttemptPartitionManager partitionManager;
+
+    @Transactional(readOnly = true)
+    public AttemptHistoryPageDto getStudentHistory(Long studentId, String cursor, int size) {
+        return page(cursor, size, (since, c, limit) -> c == null
+                ? attemptRepository.findStudentHistory(studentId, since, limit)
+                : attemptRepository.findStudentHistoryBefore(studentId, since, c.attemptedAt, c.id, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public AttemptHistoryPageDto getQuestionHistory(Long questionId, String cursor, int size) {
+        return page(cursor, size, (since, c, limit) -> c == null
+                ? attemptRepository.findQuestionHistory(questionId, since, limit)
+                : attemptRepository.findQuestionHistoryBefore(questionId, since, c.attemptedAt, c.id, limit));
+    }
+
+    /**
+     * Reads the hot window first so recent pages only touch recent partitions;
+     * a page that runs past the window continues into older partitions from its last row.
+     */
+    private AttemptHistoryPageDto page(String cursor, int size, HistoryQuery query) {
+        Pageable limit = limitOf(size);
+        Cursor c = cursor == null || cursor.isBlank() ? null : decode(cursor);
+        LocalDateTime hotStart = partitionManager.hotWindowStart();
+
+        if (c != null && c.attemptedAt.isBefore(hotStart)) {
+            return toPage(query.fetch(AttemptPartitionManager.BEGINNING, c, limit), size);
+        }
+
+        List<AttemptHistoryDto> rows = new ArrayList<>(query.fetch(hotStart, c, limit));
+        if (rows.size() <= size && hotStart.isAfter(AttemptPartitionManager.BEGINNING)) {
+            Cursor from = rows.isEmpty() ? c : new Cursor(
+                    rows.get(rows.size() - 1).getAttemptedAt(), rows.get(rows.size() - 1).getId());
+            rows.addAll(query.fetch(AttemptPartitionManager.BEGINNING, from, PageRequest.of(0, size + 1 - rows.size())));
+        }
+        return toPage(rows, size);
+    }
+
+    // One extra row tells whether another page exists without a COUNT query
+    private Pageable limitOf(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private AttemptHistoryPageDto toPage(List<AttemptHistoryDto> rows, int size) {
+        boolean hasMore = rows.size() > size;
+        List<AttemptHistoryDto> items = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? encode(items.get(items.size() - 1)) : null;
+
+        return AttemptHistoryPageDto.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private String encode(AttemptHistoryDto last) {
+        String raw = last.getAttemptedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private interface HistoryQuery {
+        List<AttemptHistoryDto> fetch(LocalDateTime since, Cursor cursor, Pageable limit);
+    }
+
+    private static class Cursor {
+        private final LocalDateTime attemptedAt;
+        private final Long id;
+
+        Cursor(LocalDateTime attemptedAt, Long id) {
+            this.attemptedAt = attemptedAt;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.edutest.service;
+
+import com.edutest.dto.AttemptResultDto;
+import com.edutest.dto.AttemptSubmitRequest;
+import com.edutest.entity.User;
+import com.edutest.event.AttemptsGradedEvent;
+import com.edutest.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Grades student answers and hands them to the write-behind buffer.
+ * Grading is an in-memory lookup in {@link AnswerKeyIndex}; hierarchy columns come from {@link QuestionPlacementLookup},
+ * the insert happens asynchronously in {@link AttemptWriteBuffer} and stats are accumulated in
+ * {@link LiveStatsAccumulator}.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttemptIngestionService {
+
+    private final UserRepository userRepository;
+    private final AnswerKeyIndex answerKeyIndex;
+    private final QuestionPlacementLookup placementLookup;
+    private final AttemptWriteBuffer attemptWriteBuffer;
+    private final LiveStatsAccumulator liveStatsAccumulator;
+    private final NextQuestionRecommender nextQuestionRecommender;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Shared while a submission enters the write buffer and the live stats; see paused()
+    private final ReadWriteLock ingestionGate = new ReentrantReadWriteLock();
+
+    // Writes nothing itself (attempts are inserted by the write buffer), so reads may use the replica
+    @Transactional(readOnly = true)
+    public List<AttemptResultDto> submitAttempts(String username, List<AttemptSubmitRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one answer is required");
+        }
+
+        User student = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        Set<Long> questionIds = new HashSet<>();
+        for (AttemptSubmitRequest request : requests) {
+            if (request.getQuestionId() == null) {
+                throw new IllegalArgumentException("questionId is required");
+            }
+            questionIds.add(request.getQuestionId());
+        }
+
+        Map<Long, QuestionPlacement> placements = placementLookup.getAll(questionIds);
+        for (Long questionId : questionIds) {
+            if (!placements.containsKey(questionId)) {
+                throw new IllegalArgumentException("Question not found with id: " + questionId);
+            }
+        }
+
+        Map<Long, AnswerKey> answerKeys = answerKeyIndex.getAll(questionIds);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<GradedAttempt> attempts = new ArrayList<>(requests.size());
+        List<AttemptResultDto> results = new ArrayList<>(requests.size());
+        for (AttemptSubmitRequest request : requests) {
+            QuestionPlacement placement = placements.get(request.getQuestionId());
+            AnswerKey key = answerKeys.get(request.getQuestionId());
+            boolean correct = key.isCorrect(request.getSelectedOptionId(), request.getAnswerText());
+
+            attempts.add(GradedAttempt.of(student.getId(), placement, correct,
+                    request.getSelectedOptionId() != null && request.getAnswerText() == null
+                            ? String.valueOf(request.getSelectedOptionId())
+                            : request.getAnswerText(),
+                    request.getTimeSpentSeconds(), now));
+
+            results.add(AttemptResultDto.builder()
+                    .questionId(request.getQuestionId())
+                    .isCorrect(correct)
+                    .correctAnswer(key.displayAnswer())
+                    .build());
+        }
+
+        eventPublisher.publishEvent(new AttemptsGradedEvent(attempts));
+        return results;
+    }
+
+    /**
+     * Feeds graded attempts (single answers and whole tests) to the write buffer and the in-memory stats,
+     * once the submission has committed; a rolled-back submission leaves no trace in either
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAttemptsGraded(AttemptsGradedEvent event) {
+        Lock lock = ingestionGate.readLock();
+        lock.lock();
+        try {
+            attemptWriteBuffer.enqueue(event.getAttempts());
+            liveStatsAccumulator.record(event.getAttempts());
+        } finally {
+            lock.unlock();
+        }
+        nextQuestionRecommender.record(event.getAttempts());
+    }
+
+    /**
+     * Runs the action while no submission on this node is between the write buffer and the live stats,
+     * so both have seen the same attempts (StatsRebuildService takes its cut here)
+     */
+    public <T> T paused(Supplier<T> action) {
+        Lock lock = ingestionGate.writeLock();
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
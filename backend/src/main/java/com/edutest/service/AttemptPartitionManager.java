@@ -0,0 +1,205 @@
+package com.edutest.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monthly RANGE COLUMNS(attempted_at) partitioning of student_question_attempts, managed from the application.
+ *
+ * MySQL requires every unique key of a partitioned table to contain the partitioning column and does not allow
+ * foreign keys on it, so the one-time conversion drops the table's foreign keys and widens the primary key to
+ * (id, attempted_at). Partitions are named pYYYYMM; a trailing pmax partition catches rows beyond the last
+ * month and is split to create future months ahead of time.
+ *
+ * Maintenance runs on every node, under a named lock so only one node changes the table at a time.
+ * Disabled by default: converting an existing table rewrites it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttemptPartitionManager {
+
+    public static final String TABLE = "student_question_attempts";
+
+    // Lower bound that matches every row, used when a query must not be restricted to the hot window
+    public static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String MAX_PARTITION = "pmax";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String LOCK_NAME = "attempt-partition-maintenance";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${attempts.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${attempts.partitioning.future-months:3}")
+    private int futureMonths;
+
+    @Value("${attempts.partitioning.hot-months:3}")
+    private int hotMonths;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start of the window that recent-history queries are bounded to: the first day of the oldest hot month.
+     * With partitioning disabled there is nothing to prune and {@link #BEGINNING} is returned.
+     */
+    public LocalDateTime hotWindowStart() {
+        if (!enabled) {
+            return BEGINNING;
+        }
+        return YearMonth.now().minusMonths(hotMonths - 1L).atDay(1).atStartOfDay();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${attempts.partitioning.maintenance-cron:0 0 2 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Held on its own connection while the DDL runs on others; a node that finds it taken skips this run
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+                    ps.setString(1, LOCK_NAME);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next() || rs.getInt(1) != 1) {
+                            log.info("Attempt partition maintenance is running on another node, skipping");
+                            return null;
+                        }
+                    }
+                }
+                try {
+                    if (listMonthPartitions().isEmpty() && !hasMaxPartition()) {
+                        convert();
+                    }
+                    ensureFuturePartitions();
+                } finally {
+                    try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                        ps.setString(1, LOCK_NAME);
+                        ps.execute();
+                    }
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("Attempt partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Month partitions in ascending order (pmax excluded)
+     */
+    public List<YearMonth> listMonthPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : partitionNames()) {
+            if (!MAX_PARTITION.equals(name)) {
+                months.add(YearMonth.parse(name, PARTITION_NAME));
+            }
+        }
+        return months;
+    }
+
+    public static String partitionName(YearMonth month) {
+        return month.format(PARTITION_NAME);
+    }
+
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partitionName(month));
+        log.info("Dropped partition {} of {}", partitionName(month), TABLE);
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, TABLE);
+    }
+
+    private boolean hasMaxPartition() {
+        return partitionNames().contains(MAX_PARTITION);
+    }
+
+    private void convert() {
+        log.info("Converting {} to monthly partitions", TABLE);
+
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'FOREIGN KEY'",
+                String.class, TABLE);
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP FOREIGN KEY " + foreignKey);
+        }
+
+        // In one statement, so the AUTO_INCREMENT id is never left without a key
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, attempted_at)");
+
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT MIN(attempted_at) FROM " + TABLE, LocalDateTime.class);
+        YearMonth first = oldest != null ? YearMonth.from(oldest) : YearMonth.now();
+        YearMonth last = YearMonth.now().plusMonths(futureMonths);
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(attempted_at) (" +
+                String.join(", ", definitions) + ")");
+        log.info("Partitioned {} from {} to {}", TABLE, first, last);
+    }
+
+    /**
+     * Splits pmax so that month partitions exist up to {@code futureMonths} ahead.
+     * pmax only holds rows past the last month, so the split touches (almost) no data.
+     */
+    private void ensureFuturePartitions() {
+        List<YearMonth> months = listMonthPartitions();
+        YearMonth target = YearMonth.now().plusMonths(futureMonths);
+        YearMonth next = months.isEmpty() ? YearMonth.now() : months.get(months.size() - 1).plusMonths(1);
+        if (next.isAfter(target)) {
+            return;
+        }
+
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = next; !month.isAfter(target); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO (" +
+                String.join(", ", definitions) + ")");
+        log.info("Added partitions {} to {} of {}", partitionName(next), partitionName(target), TABLE);
+    }
+
+    private static String definition(YearMonth month) {
+        LocalDate end = month.plusMonths(1).atDay(1);
+        return "PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + end.atStartOfDay().format(BOUND) + "')";
+    }
+}
@@ -0,0 +1,254 @@
+package com.edutest.service;
+
+import com.edutest.event.AttemptsFlushedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for student_question_attempts.
+ *
+ * Graded attempts are queued in a bounded buffer and inserted in JDBC batches, either when a full batch
+ * has accumulated or when the flush interval elapses. When the buffer is full the submitting thread flushes
+ * synchronously, so load turns into back-pressure instead of dropped attempts. Remaining attempts are
+ * flushed on shutdown.
+ *
+ * Batches are written in their own transaction, never the caller's. When the database is unreachable the
+ * batch is kept and retried whole. Any other failure is a bad row (e.g. a foreign key violation from a flush
+ * listener): the batch is split in halves until the failing rows are isolated, the rest is written, and rows
+ * that still fail after stats.attempts.max-row-failures flushes are logged and dropped so they cannot block
+ * the buffer. Rows waiting for a retry are bounded by the buffer capacity as well; beyond it they are logged
+ * and dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttemptWriteBuffer {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO student_question_attempts " +
+            "(student_id, question_id, is_correct, user_answer, time_spent_seconds, attempted_at, " +
+            "concept_id, sub_unit_id, unit_id, grade_id, level_id, difficulty) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${stats.attempts.buffer-capacity:10000}")
+    private int bufferCapacity;
+
+    @Value("${stats.attempts.batch-size:500}")
+    private int batchSize;
+
+    @Value("${stats.attempts.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${stats.attempts.max-row-failures:3}")
+    private int maxRowFailures;
+
+    private BlockingQueue<GradedAttempt> queue;
+    private ScheduledExecutorService flusher;
+    private TransactionTemplate writeTransaction;
+    private final Object flushLock = new Object();
+
+    // Attempts drained from the queue whose insert failed; retried first on the next flush
+    private BlockingQueue<PendingAttempt> retries;
+    private final AtomicLong droppedAttempts = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(bufferCapacity);
+        retries = new ArrayBlockingQueue<>(bufferCapacity);
+        // Submitters flush on their own thread when the buffer is full; never join their (read-only) transaction
+        writeTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "attempt-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Attempt write buffer started (capacity: {}, batch size: {}, flush interval: {}ms)",
+                bufferCapacity, batchSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        int flushed = flush();
+        log.info("Attempt write buffer stopped, flushed {} remaining attempts", flushed);
+    }
+
+    public void enqueue(List<GradedAttempt> attempts) {
+        for (GradedAttempt attempt : attempts) {
+            while (!queue.offer(attempt)) {
+                // Buffer full: the caller pays for a flush instead of dropping data
+                flush();
+            }
+        }
+        if (queue.size() >= batchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    public int size() {
+        return queue.size() + retries.size();
+    }
+
+    /**
+     * Attempts given up on after repeated insert failures
+     */
+    public long getDroppedAttempts() {
+        return droppedAttempts.get();
+    }
+
+    /**
+     * Drain the buffer and insert everything queued so far.
+     * @return number of attempts written
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            int written = 0;
+
+            if (!retries.isEmpty()) {
+                List<PendingAttempt> previous = new ArrayList<>(retries);
+                retries.clear();
+                written += write(previous);
+            }
+
+            List<GradedAttempt> batch = new ArrayList<>(batchSize);
+            while (queue.drainTo(batch, batchSize) > 0) {
+                List<PendingAttempt> rows = new ArrayList<>(batch.size());
+                for (GradedAttempt attempt : batch) {
+                    rows.add(new PendingAttempt(attempt));
+                }
+                written += write(rows);
+                batch = new ArrayList<>(batchSize);
+            }
+            return written;
+        }
+    }
+
+    /**
+     * Write the rows, isolating bad ones by halving the batch.
+     * @return number of attempts written
+     */
+    private int write(List<PendingAttempt> rows) {
+        try {
+            writeBatch(rows.stream().map(PendingAttempt::getAttempt).toList());
+            return rows.size();
+        } catch (RuntimeException e) {
+            if (e instanceof TransientDataAccessException || e instanceof DataAccessResourceFailureException) {
+                // The database is the problem, not the rows: keep them all and stop this flush
+                retry(rows);
+                throw e;
+            }
+            if (rows.size() > 1) {
+                int mid = rows.size() / 2;
+                int written;
+                try {
+                    written = write(rows.subList(0, mid));
+                } catch (RuntimeException transientFailure) {
+                    retry(rows.subList(mid, rows.size()));
+                    throw transientFailure;
+                }
+                return written + write(rows.subList(mid, rows.size()));
+            }
+
+            PendingAttempt row = rows.get(0);
+            if (++row.failures >= maxRowFailures) {
+                GradedAttempt attempt = row.getAttempt();
+                droppedAttempts.incrementAndGet();
+                log.error("Dropping student attempt after {} failed inserts (student {}, question {}, attempted at {}): {}",
+                        row.failures, attempt.getStudentId(), attempt.getQuestionId(), attempt.getAttemptedAt(),
+                        e.getMessage());
+            } else {
+                retry(List.of(row));
+                log.warn("Student attempt insert failed ({} of {}), will retry: {}", row.failures, maxRowFailures,
+                        e.getMessage());
+            }
+            return 0;
+        }
+    }
+
+    private void retry(List<PendingAttempt> rows) {
+        int shed = 0;
+        for (PendingAttempt row : rows) {
+            if (!retries.offer(row)) {
+                shed++;
+            }
+        }
+        if (shed > 0) {
+            droppedAttempts.addAndGet(shed);
+            log.error("Attempt retry buffer full ({} rows), dropped {} student attempts", bufferCapacity, shed);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush student attempts, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    private void writeBatch(List<GradedAttempt> batch) {
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bindAttempt);
+            eventPublisher.publishEvent(new AttemptsFlushedEvent(batch));
+        });
+        log.debug("Flushed {} student attempts", batch.size());
+    }
+
+    private void bindAttempt(PreparedStatement ps, GradedAttempt attempt) throws SQLException {
+        ps.setLong(1, attempt.getStudentId());
+        ps.setLong(2, attempt.getQuestionId());
+        ps.setBoolean(3, attempt.isCorrect());
+        ps.setString(4, attempt.getUserAnswer());
+        ps.setObject(5, attempt.getTimeSpentSeconds(), Types.INTEGER);
+        ps.setTimestamp(6, Timestamp.valueOf(attempt.getAttemptedAt()));
+        ps.setObject(7, attempt.getConceptId(), Types.BIGINT);
+        ps.setObject(8, attempt.getSubUnitId(), Types.BIGINT);
+        ps.setObject(9, attempt.getUnitId(), Types.BIGINT);
+        ps.setObject(10, attempt.getGradeId(), Types.BIGINT);
+        ps.setObject(11, attempt.getLevelId(), Types.BIGINT);
+        ps.setString(12, attempt.getDifficulty());
+    }
+
+    private static class PendingAttempt {
+        private final GradedAttempt attempt;
+        private int failures;
+
+        PendingAttempt(GradedAttempt attempt) {
+            this.attempt = attempt;
+        }
+
+        GradedAttempt getAttempt() {
+            return attempt;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.edutest.service;
+
+import com.edutest.event.CurriculumChangedEvent;
+import com.edutest.event.QuestionChangedEvent;
+import com.edutest.event.ReviewsRescheduledEvent;
+import com.edutest.event.StudentStatsChangedEvent;
+import com.edutest.event.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the in-memory question, curriculum, user, student stats and review data of every node coherent
+ * without a broker.
+ *
+ * Change events are written to change_log in the transaction that made the change, tagged with this
+ * node's id. Each node polls the table with a high-water mark and replays changes made elsewhere as
+ * remote events, which the same listeners that handle local changes apply. Ids above a gap (a transaction
+ * that took an id but has not committed yet) are remembered and the gap is read again on every poll. A gap open
+ * longer than changelog.gap-timeout-ms is skipped as a rollback once no transaction that was already writing when
+ * it appeared is still open (information_schema.INNODB_TRX), and in any case after changelog.gap-max-wait-ms,
+ * which must exceed the longest writing transaction. Every skip is logged.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeLogService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_log (entity_type, entity_id, node_id, changed_at) VALUES (?, ?, ?, NOW(6))";
+
+    private static final String POLL_SQL =
+            "SELECT id, entity_type, entity_id, node_id FROM change_log WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String GAP_SQL_PREFIX =
+            "SELECT id, entity_type, entity_id, node_id FROM change_log WHERE id IN (";
+
+    // Writing transactions started at least ? seconds ago
+    private static final String OPEN_WRITERS_SQL =
+            "SELECT COUNT(*) FROM information_schema.INNODB_TRX " +
+            "WHERE trx_rows_modified > 0 AND trx_started <= NOW() - INTERVAL ? SECOND";
+
+    private static final int MAX_GAP_IDS = 500;
+
+    // Entity types other than the curriculum node types
+    private static final String QUESTION = "QUESTION";
+    private static final String USER = "USER";
+    private static final String CURRICULUM = "CURRICULUM";
+    private static final String STUDENT_STATS = "STUDENT_STATS";
+    private static final String REVIEW = "REVIEW";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${changelog.node-id:}")
+    private String nodeId;
+
+    @Value("${changelog.poll-batch-size:5000}")
+    private int pollBatchSize;
+
+    @Value("${changelog.gap-timeout-ms:5000}")
+    private long gapTimeoutMs;
+
+    @Value("${changelog.gap-max-wait-ms:600000}")
+    private long gapMaxWaitMs;
+
+    @Value("${changelog.retention-hours:24}")
+    private int retentionHours;
+
+    // Every id up to the watermark is handled; -1 until startup completes
+    private volatile long watermark = -1;
+    // Handled ids above the watermark (there is a gap below them)
+    private final NavigableSet<Long> handledAbove = new TreeSet<>();
+    private long gapOpenSince;
+    private long gapFirstId;
+    private boolean writersCheckFailed;
+    private final AtomicLong changesApplied = new AtomicLong();
+
+    @PostConstruct
+    void initNodeId() {
+        if (nodeId == null || nodeId.isBlank()) {
+            String host;
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                host = "node";
+            }
+            // Unique per process, so a restarted node does not skip changes logged under its old id
+            nodeId = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        if (nodeId.length() > 64) {
+            nodeId = nodeId.substring(0, 64);
+        }
+    }
+
+    // Synchronous listeners: the rows commit or roll back with the change itself
+
+    @EventListener
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        if (!event.isRemote()) {
+            record(QUESTION, event.getQuestionIds());
+        }
+    }
+
+    @EventListener
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        if (event.isFullReload()) {
+            record(CURRICULUM, null);
+        } else {
+            record(event.getNodeType().name(), event.getIds());
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isRemote()) {
+            record(USER, event.getUserIds());
+        }
+    }
+
+    @EventListener
+    public void onStudentStatsChanged(StudentStatsChangedEvent event) {
+        if (!event.isRemote()) {
+            record(STUDENT_STATS, event.getStudentIds());
+        }
+    }
+
+    @EventListener
+    public void onReviewsRescheduled(ReviewsRescheduledEvent event) {
+        if (!event.isRemote()) {
+            record(REVIEW, event.getStudentIds());
+        }
+    }
+
+    private void record(String entityType, Collection<Long> ids) {
+        List<Object[]> rows = new ArrayList<>();
+        if (ids == null) {
+            rows.add(new Object[]{entityType, null, nodeId});
+        } else {
+            for (Long id : new LinkedHashSet<>(ids)) {
+                rows.add(new Object[]{entityType, id, nodeId});
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Caches are built from the database on startup; only later changes matter
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM change_log", Long.class);
+        watermark = max != null ? max : 0;
+        log.info("Change log polling as node {} from id {}", nodeId, watermark);
+    }
+
+    @Scheduled(fixedDelayString = "${changelog.poll-ms:500}")
+    public synchronized void poll() {
+        if (watermark < 0) {
+            return;
+        }
+
+        Map<String, Set<Long>> remoteChanges = new LinkedHashMap<>();
+        RowCallbackHandler handler = rs -> {
+            long id = rs.getLong(1);
+            if (!handledAbove.add(id)) {
+                return;
+            }
+            if (!nodeId.equals(rs.getString(4))) {
+                String entityType = rs.getString(2);
+                Long entityId = rs.getObject(3, Long.class);
+                if (entityId == null) {
+                    // An entry without an id (CURRICULUM, a rebuilt STUDENT_STATS) covers every id of its type
+                    remoteChanges.put(entityType, null);
+                } else if (!remoteChanges.containsKey(entityType) || remoteChanges.get(entityType) != null) {
+                    remoteChanges.computeIfAbsent(entityType, k -> new LinkedHashSet<>()).add(entityId);
+                }
+            }
+        };
+
+        // Open gaps are read by id, so a gap held open for long never stalls the poll of new entries behind it
+        List<Long> missing = missingIds();
+        if (!missing.isEmpty()) {
+            jdbcTemplate.query(GAP_SQL_PREFIX + String.join(", ", Collections.nCopies(missing.size(), "?")) + ")",
+                    handler, missing.toArray());
+        }
+        jdbcTemplate.query(POLL_SQL, handler, handledAbove.isEmpty() ? watermark : handledAbove.last(), pollBatchSize);
+
+        advanceWatermark();
+        remoteChanges.forEach(this::publishRemote);
+    }
+
+    // Ids between the watermark and the highest handled id that have not been read yet, lowest first
+    private List<Long> missingIds() {
+        List<Long> missing = new ArrayList<>();
+        long expected = watermark + 1;
+        for (long id : handledAbove) {
+            while (expected < id && missing.size() < MAX_GAP_IDS) {
+                missing.add(expected++);
+            }
+            if (missing.size() == MAX_GAP_IDS) {
+                break;
+            }
+            expected = id + 1;
+        }
+        return missing;
+    }
+
+    private void advanceWatermark() {
+        long current = watermark;
+        while (!handledAbove.isEmpty() && handledAbove.first() == current + 1) {
+            current = handledAbove.pollFirst();
+        }
+
+        long now = System.currentTimeMillis();
+        if (handledAbove.isEmpty()) {
+            gapOpenSince = 0;
+        } else if (gapOpenSince == 0 || gapFirstId != current + 1) {
+            gapOpenSince = now;
+            gapFirstId = current + 1;
+        } else if (now - gapOpenSince > gapTimeoutMs
+                && rolledBack(current + 1, handledAbove.first() - 1, now - gapOpenSince)) {
+            current = handledAbove.pollFirst();
+            while (!handledAbove.isEmpty() && handledAbove.first() == current + 1) {
+                current = handledAbove.pollFirst();
+            }
+            gapOpenSince = handledAbove.isEmpty() ? 0 : now;
+            gapFirstId = current + 1;
+        }
+        watermark = current;
+    }
+
+    /**
+     * Whether the ids of a gap can no longer commit. The transaction that took them wrote a row before the gap
+     * was first seen, so while any such transaction is still open the gap may yet be filled.
+     */
+    private boolean rolledBack(long fromId, long toId, long openMs) {
+        if (openMs > gapMaxWaitMs) {
+            log.warn("Skipping change log ids {}..{} still missing after {} ms; if they commit later, " +
+                    "their changes are not applied on this node", fromId, toId, openMs);
+            return true;
+        }
+
+        Integer writing;
+        try {
+            writing = jdbcTemplate.queryForObject(OPEN_WRITERS_SQL, Integer.class, Math.max(0, openMs / 1000 - 1));
+        } catch (DataAccessException e) {
+            // Usually a missing PROCESS privilege: wait for changelog.gap-max-wait-ms instead
+            if (!writersCheckFailed) {
+                writersCheckFailed = true;
+                log.warn("Cannot read information_schema.INNODB_TRX, change log gaps are skipped only after {} ms: {}",
+                        gapMaxWaitMs, e.getMessage());
+            }
+            return false;
+        }
+        if (writing != null && writing > 0) {
+            return false;
+        }
+        log.warn("Skipping change log ids {}..{} missing for {} ms: no transaction that could commit them is open",
+                fromId, toId, openMs);
+        return true;
+    }
+
+    private void publishRemote(String entityType, Set<Long> ids) {
+        changesApplied.addAndGet(ids != null ? ids.size() : 1);
+        switch (entityType) {
+            case QUESTION -> eventPublisher.publishEvent(new QuestionChangedEvent(ids, true));
+            case USER -> eventPublisher.publishEvent(new UserChangedEvent(ids, true));
+            case CURRICULUM -> eventPublisher.publishEvent(new CurriculumChangedEvent(null, null, true));
+            case STUDENT_STATS -> eventPublisher.publishEvent(new StudentStatsChangedEvent(ids, null, true));
+            case REVIEW -> eventPublisher.publishEvent(new ReviewsRescheduledEvent(null, ids, true));
+            default -> {
+                CurriculumChangedEvent.NodeType nodeType;
+                try {
+                    nodeType = CurriculumChangedEvent.NodeType.valueOf(entityType);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring change log entries of unknown type {}", entityType);
+                    return;
+                }
+                eventPublisher.publishEvent(new CurriculumChangedEvent(nodeType, ids, true));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${changelog.prune-interval-ms:600000}")
+    public void prune() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM change_log WHERE changed_at < ? LIMIT 10000", cutoff);
+            total += deleted;
+        } while (deleted == 10000);
+        if (total > 0) {
+            log.debug("Pruned {} change log entries", total);
+        }
+    }
+
+    /**
+     * Identifies this process in change_log rows and job leases
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("nodeId", nodeId);
+        status.put("watermark", watermark);
+        status.put("pendingAboveGap", handledAbove.size());
+        status.put("changesApplied", changesApplied.get());
+        return status;
+    }
+}
@@ -3,10 +3,12 @@ package com.edutest.service;
 import com.edutest.dto.ConceptDto;
 import com.edutest.entity.Concept;
 import com.edutest.entity.SubUnit;
+import com.edutest.event.CurriculumChangedEvent;
 import com.edutest.repository.ConceptRepository;
 import com.edutest.repository.QuestionRepository;
 import com.edutest.repository.SubUnitRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,8 @@ public class ConceptService {
     private final ConceptRepository conceptRepository;
     private final SubUnitRepository subUnitRepository;
     private final QuestionRepository questionRepository;
+    private final SiblingOrderService siblingOrderService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<ConceptDto> getAllConcepts() {
@@ -84,7 +88,8 @@ public class ConceptService {
                 .name(dto.getName())
                 .displayName(dto.getDisplayName() != null ? dto.getDisplayName() : dto.getName())
                 .description(dto.getDescription())
-                .orderIndex(dto.getOrderIndex() != null ? dto.getOrderIndex() : 0)
+                .orderIndex(dto.getOrderIndex() != null ? dto.getOrderIndex()
+                        : siblingOrderService.nextKey(SiblingOrderService.Scope.CONCEPT, subUnit != null ? subUnit.getId() : null))
                 .build();
 
         Concept saved = conceptRepository.save(concept);
@@ -116,6 +121,7 @@ public class ConceptService {
         }
 
         Concept updated = conceptRepository.save(concept);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.CONCEPT, List.of(id)));
         return convertToDto(updated);
     }
 
@@ -125,48 +131,20 @@ public class ConceptService {
             throw new IllegalArgumentException("Concept not found with id: " + id);
         }
         conceptRepository.deleteById(id);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.CONCEPT, List.of(id)));
     }
 
     @Transactional
     public void reorderConcept(Long id, String direction) {
-        Concept currentConcept = conceptRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Concept not found with id: " + id));
-
-        List<Concept> conceptsInSubUnit;
-        if (currentConcept.getSubUnit() != null) {
-            conceptsInSubUnit = conceptRepository.findBySubUnitIdOrderByOrderIndexAsc(currentConcept.getSubUnit().getId());
-        } else {
-            conceptsInSubUnit = conceptRepository.findBySubUnitIsNullOrderByOrderIndexAsc();
-        }
-
-        int currentIndex = -1;
-
-        for (int i = 0; i < conceptsInSubUnit.size(); i++) {
-            if (conceptsInSubUnit.get(i).getId().equals(id)) {
-                currentIndex = i;
-                break;
-            }
-        }
-
-        if (currentIndex == -1) {
-            throw new IllegalArgumentException("Concept not found in ordered list");
-        }
-
-        Concept swapConcept = null;
-        if ("up".equals(direction) && currentIndex > 0) {
-            swapConcept = conceptsInSubUnit.get(currentIndex - 1);
-        } else if ("down".equals(direction) && currentIndex < conceptsInSubUnit.size() - 1) {
-            swapConcept = conceptsInSubUnit.get(currentIndex + 1);
-        }
-
-        if (swapConcept != null) {
-            Integer tempOrder = currentConcept.getOrderIndex();
-            currentConcept.setOrderIndex(swapConcept.getOrderIndex());
-            swapConcept.setOrderIndex(tempOrder);
+        siblingOrderService.step(SiblingOrderService.Scope.CONCEPT, id, direction);
+    }
 
-            conceptRepository.save(currentConcept);
-            conceptRepository.save(swapConcept);
-        }
+    /**
+     * Move a concept before/after a sibling or to a position; only the moved row is written
+     */
+    @Transactional
+    public void moveConcept(Long id, Long beforeId, Long afterId, Integer index) {
+        siblingOrderService.move(SiblingOrderService.Scope.CONCEPT, id, beforeId, afterId, index);
     }
 
     // Optimized version using pre-fetched counts (used by getAllConcepts)
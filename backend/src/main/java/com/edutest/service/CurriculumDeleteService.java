@@ -0,0 +1,179 @@
+package com.edutest.service;
+
+import com.edutest.dto.CurriculumDeleteResultDto;
+import com.edutest.dto.QuestionBulkResultDto;
+import com.edutest.event.CurriculumChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes a grade or unit with everything below it using set queries instead of per-entity JPA deletes.
+ *
+ * The affected sub unit, concept and question ids are collected level by level, then rows go bottom-up
+ * (question rows, concepts, sub units, units, grade) in chunked IN statements within one transaction.
+ * Questions with answers or attempts are kept and only detached from the deleted sub unit and concept,
+ * like the bulk question delete. User and student profile selections pointing into the subtree are cleared.
+ * A dry run returns the same counts without changing anything.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CurriculumDeleteService {
+
+    // Keeps IN lists bounded
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuestionBulkService questionBulkService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CurriculumDeleteResultDto deleteGrade(Long gradeId, boolean dryRun) {
+        return delete(gradeId, null, dryRun);
+    }
+
+    public CurriculumDeleteResultDto deleteUnit(Long unitId, boolean dryRun) {
+        return delete(null, unitId, dryRun);
+    }
+
+    private CurriculumDeleteResultDto delete(Long gradeId, Long unitId, boolean dryRun) {
+        List<String> files = new ArrayList<>();
+        List<Long> deletedQuestions = new ArrayList<>();
+        CurriculumDeleteResultDto result = transactionTemplate.execute(status -> {
+            List<Long> unitIds;
+            if (gradeId != null) {
+                if (jdbcTemplate.queryForList("SELECT id FROM grades WHERE id = ? FOR UPDATE", Long.class, gradeId).isEmpty()) {
+                    throw new IllegalArgumentException("Grade not found with id: " + gradeId);
+                }
+                unitIds = jdbcTemplate.queryForList("SELECT id FROM units WHERE grade_id = ?", Long.class, gradeId);
+            } else {
+                unitIds = jdbcTemplate.queryForList("SELECT id FROM units WHERE id = ? FOR UPDATE", Long.class, unitId);
+                if (unitIds.isEmpty()) {
+                    throw new IllegalArgumentException("Unit not found with id: " + unitId);
+                }
+            }
+            List<Long> subUnitIds = selectIn("SELECT id FROM sub_units WHERE unit_id IN ", unitIds);
+            List<Long> conceptIds = selectIn("SELECT id FROM concepts WHERE sub_unit_id IN ", subUnitIds);
+
+            // Questions placed anywhere in the subtree; those with history are detached instead of deleted
+            List<Long> detached = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            for (String column : List.of("sub_unit_id", "concept_id")) {
+                List<Long> parents = column.equals("sub_unit_id") ? subUnitIds : conceptIds;
+                forEachChunk(parents, in -> jdbcTemplate.query(
+                        "SELECT q.id, q.reference_image, q.reference_document, " +
+                        "EXISTS (SELECT 1 FROM user_answers ua WHERE ua.question_id = q.id) " +
+                        "OR EXISTS (SELECT 1 FROM student_question_attempts a WHERE a.question_id = q.id) " +
+                        "FROM questions q WHERE q." + column + " IN " + in + " FOR UPDATE", (RowCallbackHandler) rs -> {
+                    long id = rs.getLong(1);
+                    if (!seen.add(id)) {
+                        return;
+                    }
+                    if (rs.getBoolean(4)) {
+                        detached.add(id);
+                    } else {
+                        deletedQuestions.add(id);
+                        QuestionBulkService.addIfPresent(files, rs.getString(2));
+                        QuestionBulkService.addIfPresent(files, rs.getString(3));
+                    }
+                }));
+            }
+
+            CurriculumDeleteResultDto counts = CurriculumDeleteResultDto.builder()
+                    .dryRun(dryRun)
+                    .grades(gradeId != null ? 1 : 0)
+                    .units(unitIds.size())
+                    .subUnits(subUnitIds.size())
+                    .concepts(conceptIds.size())
+                    .questionsDeleted(deletedQuestions.size())
+                    .questionsDetached(detached.size())
+                    .filesDeleted(0)
+                    .build();
+            if (dryRun) {
+                counts.setOptionsDeleted(countIn("SELECT COUNT(*) FROM question_options WHERE question_id IN ", deletedQuestions));
+                return counts;
+            }
+
+            QuestionBulkResultDto questions = questionBulkService.deleteByIds(deletedQuestions);
+            counts.setOptionsDeleted(questions.getOptionsDeleted());
+            updateIn("UPDATE questions SET sub_unit_id = NULL, concept_id = NULL, updated_at = NOW() WHERE id IN ", detached);
+
+            clearSelections("concept_id", conceptIds);
+            clearSelections("sub_unit_id", subUnitIds);
+            clearSelections("unit_id", unitIds);
+            updateIn("DELETE FROM concepts WHERE id IN ", conceptIds);
+            updateIn("DELETE FROM sub_units WHERE id IN ", subUnitIds);
+            updateIn("DELETE FROM units WHERE id IN ", unitIds);
+            if (gradeId != null) {
+                clearSelections("grade_id", List.of(gradeId));
+                jdbcTemplate.update("UPDATE subjects SET grade_id = NULL WHERE grade_id = ?", gradeId);
+                jdbcTemplate.update("DELETE FROM grades WHERE id = ?", gradeId);
+            }
+
+            List<Long> changed = new ArrayList<>(deletedQuestions);
+            changed.addAll(detached);
+            questionBulkService.publishChanged(changed);
+            eventPublisher.publishEvent(gradeId != null
+                    ? new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.GRADE, List.of(gradeId))
+                    : new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.UNIT, List.of(unitId)));
+            return counts;
+        });
+
+        if (!dryRun) {
+            // Files go only after the rows are committed
+            result.setFilesDeleted(questionBulkService.deleteUnreferencedFiles(files));
+            log.info("Deleted {} {}: {} units, {} sub units, {} concepts, {} questions ({} detached), {} options, {} files",
+                    gradeId != null ? "grade" : "unit", gradeId != null ? gradeId : unitId,
+                    result.getUnits(), result.getSubUnits(), result.getConcepts(), result.getQuestionsDeleted(),
+                    result.getQuestionsDetached(), result.getOptionsDeleted(), result.getFilesDeleted());
+        }
+        return result;
+    }
+
+    // users and student_profiles keep the learner's last selection; it must not point at deleted rows
+    private void clearSelections(String column, List<Long> ids) {
+        updateIn("UPDATE users SET " + column + " = NULL WHERE " + column + " IN ", ids);
+        updateIn("UPDATE student_profiles SET " + column + " = NULL WHERE " + column + " IN ", ids);
+    }
+
+    private List<Long> selectIn(String sqlPrefix, List<Long> ids) {
+        List<Long> result = new ArrayList<>();
+        forEachChunk(ids, in -> result.addAll(jdbcTemplate.queryForList(sqlPrefix + in, Long.class)));
+        return result;
+    }
+
+    private int countIn(String sqlPrefix, List<Long> ids) {
+        int[] count = {0};
+        forEachChunk(ids, in -> {
+            Integer chunk = jdbcTemplate.queryForObject(sqlPrefix + in, Integer.class);
+            count[0] += chunk != null ? chunk : 0;
+        });
+        return count[0];
+    }
+
+    private int updateIn(String sqlPrefix, List<Long> ids) {
+        int[] count = {0};
+        forEachChunk(ids, in -> count[0] += jdbcTemplate.update(sqlPrefix + in));
+        return count[0];
+    }
+
+    private static void forEachChunk(List<Long> ids, Consumer<String> action) {
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            action.accept(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(",", "(", ")")));
+        }
+    }
+}
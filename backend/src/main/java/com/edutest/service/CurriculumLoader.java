@@ -0,0 +1,422 @@
+package com.edutest.service;
+
+import com.edutest.dto.CurriculumDefinition;
+import com.edutest.dto.CurriculumDefinition.GradeDef;
+import com.edutest.dto.CurriculumDefinition.LevelDef;
+import com.edutest.dto.CurriculumDefinition.SubUnitDef;
+import com.edutest.dto.CurriculumDefinition.SubjectDef;
+import com.edutest.dto.CurriculumDefinition.UnitDef;
+import com.edutest.entity.CurriculumLoad;
+import com.edutest.event.CurriculumChangedEvent;
+import com.edutest.repository.CurriculumLoadRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies the versioned curriculum file (subjects, levels, grades, units, sub units, concepts) to the database.
+ *
+ * The file's SHA-256 is compared with the last applied one first, so an unchanged file costs one query at boot.
+ * Otherwise all existing rows are read once, diffed against the file in memory by natural key (level, grade,
+ * concept and subject by name; unit and sub unit by name within their parent) and the differences are written
+ * per table with multi-row inserts and batched updates, in one transaction. Nodes booting together take
+ * the MySQL named lock {@code curriculum-load} around the check and the apply, so only one of them applies a file.
+ *
+ * The loader only adds and updates: rows missing from the file are kept, and the parent and order of existing
+ * rows are left alone so moves made in the app survive a file change. The file places new rows only.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CurriculumLoader {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String LOCK_NAME = "curriculum-load";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CurriculumLoadRepository curriculumLoadRepository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${curriculum.location:classpath:curriculum/curriculum.json}")
+    private Resource location;
+
+    @Value("${curriculum.lock-timeout-seconds:120}")
+    private int lockTimeoutSeconds;
+
+    /**
+     * Apply the curriculum file unless it matches the last applied checksum ({@code force} applies it anyway)
+     */
+    public CurriculumLoad load(boolean force) {
+        byte[] content;
+        try (InputStream in = location.getInputStream()) {
+            content = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read curriculum file " + location, e);
+        }
+        String checksum = sha256(content);
+
+        // Held on its own connection while the apply commits on another, so a waiting node sees the new checksum
+        return jdbcTemplate.execute((ConnectionCallback<CurriculumLoad>) con -> {
+            try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+                ps.setString(1, LOCK_NAME);
+                ps.setInt(2, lockTimeoutSeconds);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        throw new IllegalStateException("Timed out waiting for another node to load the curriculum");
+                    }
+                }
+            }
+            try {
+                return load(content, checksum, force);
+            } finally {
+                try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    ps.setString(1, LOCK_NAME);
+                    ps.execute();
+                }
+            }
+        });
+    }
+
+    private CurriculumLoad load(byte[] content, String checksum, boolean force) {
+        CurriculumLoad last = curriculumLoadRepository.findTopByOrderByIdDesc().orElse(null);
+        if (!force && last != null && checksum.equals(last.getChecksum())) {
+            log.info("Curriculum v{} already applied (checksum {}), skipping", last.getVersion(), checksum.substring(0, 12));
+            return last;
+        }
+
+        CurriculumDefinition definition = parse(content);
+        long startedAt = System.currentTimeMillis();
+        CurriculumLoad load = transactionTemplate.execute(status -> {
+            Counts counts = new Counts();
+            apply(definition, counts);
+            if (counts.inserted + counts.updated > 0) {
+                eventPublisher.publishEvent(CurriculumChangedEvent.all());
+            }
+            return curriculumLoadRepository.save(CurriculumLoad.builder()
+                    .version(definition.getVersion() != null ? definition.getVersion() : 0)
+                    .checksum(checksum)
+                    .rowsInserted(counts.inserted)
+                    .rowsUpdated(counts.updated)
+                    .loadedAt(LocalDateTime.now())
+                    .build());
+        });
+        log.info("Applied curriculum v{}: {} rows inserted, {} updated in {} ms",
+                load.getVersion(), load.getRowsInserted(), load.getRowsUpdated(), System.currentTimeMillis() - startedAt);
+        return load;
+    }
+
+    private CurriculumDefinition parse(byte[] content) {
+        String filename = location.getFilename() != null ? location.getFilename() : "";
+        try {
+            if (filename.endsWith(".yml") || filename.endsWith(".yaml")) {
+                Object tree = new Yaml().load(new String(content, StandardCharsets.UTF_8));
+                return objectMapper.convertValue(tree, CurriculumDefinition.class);
+            }
+            return objectMapper.readValue(content, CurriculumDefinition.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid curriculum file " + filename + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void apply(CurriculumDefinition definition, Counts counts) {
+        // Subjects
+        TableSync subjects = new TableSync("subjects", null, null, false, counts,
+                "SELECT id, NULL, NULL, name, display_name, description FROM subjects");
+        for (SubjectDef subject : definition.getSubjects()) {
+            subjects.put(subject.getName(), null, null, subject.getName(), subject.getDisplayName(), subject.getDescription(), 0);
+        }
+        subjects.flush();
+
+        String defaultSubject = definition.getDefaultSubject() != null ? definition.getDefaultSubject() : "Science";
+
+        // Levels
+        TableSync levels = new TableSync("levels", null, null, true, counts,
+                "SELECT id, NULL, NULL, name, display_name, description FROM levels");
+        List<LevelDef> levelDefs = definition.getLevels();
+        for (int i = 0; i < levelDefs.size(); i++) {
+            LevelDef level = levelDefs.get(i);
+            levels.put(level.getName(), null, null, level.getName(), level.getDisplayName(), level.getDescription(),
+                    level.getRank() != null ? level.getRank() : i + 1);
+        }
+        levels.flush();
+
+        // Grades
+        TableSync grades = new TableSync("grades", "level_id", null, true, counts,
+                "SELECT id, level_id, NULL, name, display_name, description FROM grades");
+        for (LevelDef level : levelDefs) {
+            Long levelId = levels.id(level.getName());
+            for (int i = 0; i < level.getGrades().size(); i++) {
+                GradeDef grade = level.getGrades().get(i);
+                grades.put(grade.getName(), levelId, null, grade.getName(), grade.getDisplayName(), grade.getDescription(),
+                        position(i));
+            }
+        }
+        grades.flush();
+
+        // Units, keyed within their grade
+        TableSync units = new TableSync("units", "grade_id", "subject_id", true, counts,
+                "SELECT id, grade_id, subject_id, CONCAT(grade_id, '|', name), display_name, description FROM units");
+        for (LevelDef level : levelDefs) {
+            for (GradeDef grade : level.getGrades()) {
+                Long gradeId = grades.id(grade.getName());
+                for (int i = 0; i < grade.getUnits().size(); i++) {
+                    UnitDef unit = grade.getUnits().get(i);
+                    String subjectName = unit.getSubject() != null ? unit.getSubject() : defaultSubject;
+                    Long subjectId = subjects.id(subjectName);
+                    if (subjectId == null) {
+                        throw new IllegalStateException("Unknown subject '" + subjectName + "' for unit " + unit.getName());
+                    }
+                    units.put(gradeId + "|" + unit.getName(), gradeId, subjectId, unit.getName(), unit.getDisplayName(),
+                            unit.getDescription(), position(i));
+                }
+            }
+        }
+        units.flush();
+
+        // Sub units, keyed within their unit
+        TableSync subUnits = new TableSync("sub_units", "unit_id", null, true, counts,
+                "SELECT id, unit_id, NULL, CONCAT(unit_id, '|', name), display_name, description FROM sub_units");
+        for (LevelDef level : levelDefs) {
+            for (GradeDef grade : level.getGrades()) {
+                Long gradeId = grades.id(grade.getName());
+                for (UnitDef unit : grade.getUnits()) {
+                    Long unitId = units.id(gradeId + "|" + unit.getName());
+                    for (int i = 0; i < unit.getSubUnits().size(); i++) {
+                        SubUnitDef subUnit = unit.getSubUnits().get(i);
+                        subUnits.put(unitId + "|" + subUnit.getName(), unitId, null, subUnit.getName(),
+                                subUnit.getDisplayName(), subUnit.getDescription(), position(i));
+                    }
+                }
+            }
+        }
+        subUnits.flush();
+
+        // Concepts
+        TableSync concepts = new TableSync("concepts", "sub_unit_id", null, true, counts,
+                "SELECT id, sub_unit_id, NULL, name, display_name, description FROM concepts");
+        for (LevelDef level : levelDefs) {
+            for (GradeDef grade : level.getGrades()) {
+                Long gradeId = grades.id(grade.getName());
+                for (UnitDef unit : grade.getUnits()) {
+                    Long unitId = units.id(gradeId + "|" + unit.getName());
+                    for (SubUnitDef subUnit : unit.getSubUnits()) {
+                        Long subUnitId = subUnits.id(unitId + "|" + subUnit.getName());
+                        for (int i = 0; i < subUnit.getConcepts().size(); i++) {
+                            String concept = subUnit.getConcepts().get(i);
+                            concepts.put(concept, subUnitId, null, concept, null, null, position(i));
+                        }
+                    }
+                }
+            }
+        }
+        concepts.flush();
+    }
+
+    private static int position(int index) {
+        return (index + 1) * SiblingOrderService.GAP;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Counts {
+        private int inserted;
+        private int updated;
+    }
+
+    private static class Existing {
+        private final long id;
+        private final Long parentId;
+        private final Long extraId;
+        private final String displayName;
+        private final String description;
+
+        Existing(long id, Long parentId, Long extraId, String displayName, String description) {
+            this.id = id;
+            this.parentId = parentId;
+            this.extraId = extraId;
+            this.displayName = displayName;
+            this.description = description;
+        }
+    }
+
+    /**
+     * Diff of one table: existing rows by natural key, pending inserts and updates
+     */
+    private class TableSync {
+        private final String table;
+        private final String parentColumn;
+        private final String extraColumn;
+        private final boolean ordered;
+        private final Counts counts;
+        private final Map<String, Existing> existing = new HashMap<>();
+        private final Map<String, Long> ids = new HashMap<>();
+        private final List<String> insertKeys = new ArrayList<>();
+        private final Set<String> pendingKeys = new HashSet<>();
+        private final List<Object[]> inserts = new ArrayList<>();
+        private final List<Object[]> updates = new ArrayList<>();
+
+        // selectSql columns: id, parent id, extra id, natural key, display_name, description
+        TableSync(String table, String parentColumn, String extraColumn, boolean ordered, Counts counts, String selectSql) {
+            this.table = table;
+            this.parentColumn = parentColumn;
+            this.extraColumn = extraColumn;
+            this.ordered = ordered;
+            this.counts = counts;
+            jdbcTemplate.query(selectSql, (RowCallbackHandler) rs -> {
+                Existing row = new Existing(rs.getLong(1), rs.getObject(2, Long.class), rs.getObject(3, Long.class),
+                        rs.getString(5), rs.getString(6));
+                // First row wins if the table already has duplicates
+                if (existing.putIfAbsent(rs.getString(4), row) == null) {
+                    ids.put(rs.getString(4), row.id);
+                }
+            });
+        }
+
+        Long id(String key) {
+            return ids.get(key);
+        }
+
+        void put(String key, Long parentId, Long extraId, String name, String displayName, String description, int orderIndex) {
+            if (name == null || name.isBlank()) {
+                throw new IllegalStateException("Curriculum entry without a name in " + table);
+            }
+            String display = displayName != null ? displayName : name;
+            Existing current = existing.get(key);
+            if (current == null) {
+                if (!pendingKeys.add(key)) {
+                    throw new IllegalStateException("Duplicate curriculum entry in " + table + ": " + name);
+                }
+                List<Object> row = new ArrayList<>();
+                if (parentColumn != null) {
+                    row.add(parentId);
+                }
+                if (extraColumn != null) {
+                    row.add(extraId);
+                }
+                row.add(name);
+                row.add(display);
+                row.add(description);
+                if (ordered) {
+                    row.add(orderIndex);
+                }
+                insertKeys.add(key);
+                inserts.add(row.toArray());
+                return;
+            }
+
+            // Fields the file leaves out keep whatever was edited in the app; so does the parent of a row
+            // moved in the app, which the file only sets for rows that have none
+            display = displayName != null ? displayName : current.displayName;
+            description = description != null ? description : current.description;
+            Long parent = current.parentId != null ? current.parentId : parentId;
+            if (!Objects.equals(current.parentId, parent) || !Objects.equals(current.extraId, extraId)
+                    || !Objects.equals(current.displayName, display) || !Objects.equals(current.description, description)) {
+                List<Object> row = new ArrayList<>();
+                if (parentColumn != null) {
+                    row.add(parent);
+                }
+                if (extraColumn != null) {
+                    row.add(extraId);
+                }
+                row.add(display);
+                row.add(description);
+                row.add(current.id);
+                updates.add(row.toArray());
+            }
+        }
+
+        void flush() {
+            if (!updates.isEmpty()) {
+                StringBuilder set = new StringBuilder();
+                if (parentColumn != null) {
+                    set.append(parentColumn).append(" = ?, ");
+                }
+                if (extraColumn != null) {
+                    set.append(extraColumn).append(" = ?, ");
+                }
+                jdbcTemplate.batchUpdate("UPDATE " + table + " SET " + set +
+                        "display_name = ?, description = ?, updated_at = NOW() WHERE id = ?", updates);
+                counts.updated += updates.size();
+            }
+
+            StringBuilder columns = new StringBuilder();
+            if (parentColumn != null) {
+                columns.append(parentColumn).append(", ");
+            }
+            if (extraColumn != null) {
+                columns.append(extraColumn).append(", ");
+            }
+            columns.append("name, display_name, description");
+            if (ordered) {
+                columns.append(", order_index");
+            }
+            int width = inserts.isEmpty() ? 0 : inserts.get(0).length;
+            String rowSql = "(" + "?, ".repeat(width) + "NOW(), NOW())";
+
+            for (int from = 0; from < inserts.size(); from += ROWS_PER_STATEMENT) {
+                List<Object[]> chunk = inserts.subList(from, Math.min(from + ROWS_PER_STATEMENT, inserts.size()));
+                String sql = "INSERT INTO " + table + " (" + columns + ", created_at, updated_at) VALUES " +
+                        String.join(", ", Collections.nCopies(chunk.size(), rowSql));
+
+                KeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.update(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                    int p = 1;
+                    for (Object[] row : chunk) {
+                        for (Object value : row) {
+                            ps.setObject(p++, value);
+                        }
+                    }
+                    return ps;
+                }, keys);
+
+                // InnoDB hands out consecutive AUTO_INCREMENT values to one multi-row insert
+                List<Map<String, Object>> keyList = keys.getKeyList();
+                for (int i = 0; i < chunk.size(); i++) {
+                    ids.put(insertKeys.get(from + i), ((Number) keyList.get(i).values().iterator().next()).longValue());
+                }
+            }
+            counts.inserted += inserts.size();
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.edutest.service;
 
 import com.edutest.entity.User;
+import com.edutest.event.UserChangedEvent;
 import com.edutest.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -17,25 +21,65 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
+    // Every authenticated request loads its user; cleared on any user change on any node (ChangeLogService)
+    public static final String LOGIN_CACHE = "userLogin";
+
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        Cache cache = cacheManager.getCache(LOGIN_CACHE);
+        LoginSnapshot snapshot = cache != null ? cache.get(username, LoginSnapshot.class) : null;
+        if (snapshot == null) {
+            snapshot = load(username);
+            if (cache != null) {
+                cache.put(username, snapshot);
+            }
+        }
 
+        // A new instance per call: Spring Security may erase the password of the one it is given
         return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                user.getActive(),
+                snapshot.username,
+                snapshot.password,
+                snapshot.active,
                 true,
                 true,
                 true,
-                getAuthorities(user)
+                snapshot.authorities
         );
     }
 
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // User changes are rare; the cache is keyed by username, the event carries ids
+        Cache cache = cacheManager.getCache(LOGIN_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private LoginSnapshot load(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return new LoginSnapshot(user.getUsername(), user.getPassword(), user.getActive(), getAuthorities(user));
+    }
+
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole()));
     }
+
+    private static class LoginSnapshot {
+        private final String username;
+        private final String password;
+        private final boolean active;
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        LoginSnapshot(String username, String password, boolean active, Collection<? extends GrantedAuthority> authorities) {
+            this.username = username;
+            this.password = password;
+            this.active = active;
+            this.authorities = authorities;
+        }
+    }
 }
@@ -0,0 +1,287 @@
+package com.edutest.service;
+
+import com.edutest.dto.DailyProgressDto;
+import com.edutest.entity.StudentDailyProgress;
+import com.edutest.entity.StudentStats;
+import com.edutest.entity.StudentStats.StatsType;
+import com.edutest.event.AttemptsFlushedEvent;
+import com.edutest.repository.StudentDailyProgressRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains student_daily_progress and serves progress time series from it.
+ *
+ * Each flushed attempt batch is summed per (student, statsType, entityId, day) and upserted in the same
+ * transaction as the attempt insert. The backfill recomputes the table from the attempt log; it is idempotent,
+ * so the daily-progress-backfill job simply runs it again on retry.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DailyProgressService implements JobHandler {
+
+    public static final String JOB_TYPE = "daily-progress-backfill";
+
+    private static final int MAX_DAYS = 366;
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO student_daily_progress " +
+            "(student_id, stats_type, entity_id, activity_date, attempt_count, correct_count, time_spent_seconds, last_updated) " +
+            "VALUES ";
+
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, NOW())";
+
+    private static final String UPSERT_SUFFIX =
+            " ON DUPLICATE KEY UPDATE " +
+            "attempt_count = attempt_count + VALUES(attempt_count), " +
+            "correct_count = correct_count + VALUES(correct_count), " +
+            "time_spent_seconds = time_spent_seconds + VALUES(time_spent_seconds), " +
+            "last_updated = VALUES(last_updated)";
+
+    // Recomputes whole days for one hierarchy column and student range; overwriting keeps the backfill idempotent.
+    // Grouped by the alias: for OVERALL the column is the literal 0, which GROUP BY would read as a position.
+    private static final String BACKFILL_SQL =
+            "INSERT INTO student_daily_progress " +
+            "(student_id, stats_type, entity_id, activity_date, attempt_count, correct_count, time_spent_seconds, last_updated) " +
+            "SELECT student_id, ?, %s AS entity_id, DATE(attempted_at), COUNT(*), " +
+            "SUM(CASE WHEN is_correct THEN 1 ELSE 0 END), COALESCE(SUM(time_spent_seconds), 0), NOW() " +
+            "FROM student_question_attempts " +
+            "WHERE student_id >= ? AND student_id < ? AND %s IS NOT NULL " +
+            "GROUP BY student_id, entity_id, DATE(attempted_at) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "attempt_count = VALUES(attempt_count), " +
+            "correct_count = VALUES(correct_count), " +
+            "time_spent_seconds = VALUES(time_spent_seconds), " +
+            "last_updated = VALUES(last_updated)";
+
+    private static final Map<StatsType, String> ENTITY_COLUMNS = Map.of(
+            StatsType.CONCEPT, "concept_id",
+            StatsType.SUB_UNIT, "sub_unit_id",
+            StatsType.UNIT, "unit_id",
+            StatsType.GRADE, "grade_id",
+            StatsType.LEVEL, "level_id",
+            StatsType.OVERALL, String.valueOf(StudentStats.OVERALL_ENTITY_ID)
+    );
+
+    private final StudentDailyProgressRepository dailyProgressRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${stats.rebuild.partition-size:1000}")
+    private long partitionSize;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final AtomicLong backfillRows = new AtomicLong();
+    private volatile String backfillState = "NOT_STARTED";
+    private volatile LocalDateTime backfillStartedAt;
+    private volatile LocalDateTime backfillFinishedAt;
+
+    /**
+     * Runs inside the attempt flush transaction, so the daily roll-up commits with the attempts
+     */
+    @EventListener
+    public void onAttemptsFlushed(AttemptsFlushedEvent event) {
+        Map<DayKey, long[]> deltas = new TreeMap<>();
+        for (GradedAttempt attempt : event.getAttempts()) {
+            LocalDate day = attempt.getAttemptedAt().toLocalDate();
+            long correct = attempt.isCorrect() ? 1 : 0;
+            long timeSpent = attempt.getTimeSpentSeconds() != null ? attempt.getTimeSpentSeconds() : 0;
+            StatsRollupEngine.forEachKey(attempt, key -> {
+                long[] delta = deltas.computeIfAbsent(new DayKey(key, day), k -> new long[3]);
+                delta[0]++;
+                delta[1] += correct;
+                delta[2] += timeSpent;
+            });
+        }
+        upsert(deltas);
+    }
+
+    private void upsert(Map<DayKey, long[]> deltas) {
+        List<Map.Entry<DayKey, long[]>> entries = new ArrayList<>(deltas.entrySet());
+        for (int from = 0; from < entries.size(); from += ROWS_PER_STATEMENT) {
+            List<Map.Entry<DayKey, long[]>> chunk =
+                    entries.subList(from, Math.min(from + ROWS_PER_STATEMENT, entries.size()));
+
+            StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+            Object[] params = new Object[chunk.size() * 7];
+            int p = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(UPSERT_ROW);
+
+                DayKey key = chunk.get(i).getKey();
+                long[] delta = chunk.get(i).getValue();
+                params[p++] = key.stats.getStudentId();
+                params[p++] = key.stats.getStatsType().name();
+                params[p++] = key.stats.getEntityId();
+                params[p++] = Date.valueOf(key.day);
+                params[p++] = delta[0];
+                params[p++] = delta[1];
+                params[p++] = delta[2];
+            }
+            sql.append(UPSERT_SUFFIX);
+            jdbcTemplate.update(sql.toString(), params);
+        }
+    }
+
+    /**
+     * Daily points of one hierarchy node for the last {@code days} days (days without attempts are omitted)
+     */
+    @Transactional(readOnly = true)
+    public List<DailyProgressDto> getProgress(Long studentId, StatsType statsType, Long entityId, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        if (statsType == StatsType.OVERALL) {
+            entityId = StudentStats.OVERALL_ENTITY_ID;
+        } else if (entityId == null) {
+            throw new IllegalArgumentException("entityId is required for stats type " + statsType);
+        }
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        return dailyProgressRepository
+                .findByStudentIdAndStatsTypeAndEntityIdAndActivityDateBetweenOrderByActivityDateAsc(
+                        studentId, statsType, entityId, from, to)
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Recompute student_daily_progress from the attempt log in the background
+     */
+    public Map<String, Object> startBackfill() {
+        beginBackfill();
+        Thread worker = new Thread(this::runBackfill, "daily-progress-backfill");
+        worker.setDaemon(true);
+        worker.start();
+        return getBackfillStatus();
+    }
+
+    /**
+     * Same as {@link #startBackfill} on the calling thread; throws if the backfill fails
+     */
+    public Map<String, Object> backfill() {
+        beginBackfill();
+        runBackfill();
+        if (backfillState.startsWith("FAILED")) {
+            throw new IllegalStateException("Daily progress backfill " + backfillState);
+        }
+        return getBackfillStatus();
+    }
+
+    @Override
+    public String type() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public Map<String, Object> handle(JobContext context) {
+        return backfill();
+    }
+
+    private void beginBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            throw new IllegalStateException("Daily progress backfill is already running");
+        }
+        backfillRows.set(0);
+        backfillState = "RUNNING";
+        backfillStartedAt = LocalDateTime.now();
+        backfillFinishedAt = null;
+    }
+
+    public Map<String, Object> getBackfillStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", backfillState);
+        status.put("rowsWritten", backfillRows.get());
+        status.put("startedAt", backfillStartedAt);
+        status.put("finishedAt", backfillFinishedAt);
+        return status;
+    }
+
+    private void runBackfill() {
+        try {
+            long[] bounds = {Long.MAX_VALUE, Long.MIN_VALUE};
+            jdbcTemplate.query("SELECT MIN(student_id), MAX(student_id) FROM student_question_attempts",
+                    (RowCallbackHandler) rs -> {
+                        long min = rs.getLong(1);
+                        if (!rs.wasNull()) {
+                            bounds[0] = min;
+                            bounds[1] = rs.getLong(2);
+                        }
+                    });
+
+            for (long from = bounds[0]; from <= bounds[1]; from += partitionSize) {
+                long to = Math.min(from + partitionSize, bounds[1] + 1);
+                for (Map.Entry<StatsType, String> column : ENTITY_COLUMNS.entrySet()) {
+                    String sql = String.format(BACKFILL_SQL, column.getValue(), column.getValue());
+                    backfillRows.addAndGet(jdbcTemplate.update(sql, column.getKey().name(), from, to));
+                }
+            }
+            backfillState = "COMPLETED";
+            log.info("Daily progress backfill completed ({} rows affected)", backfillRows.get());
+        } catch (Exception e) {
+            backfillState = "FAILED: " + e.getMessage();
+            log.error("Daily progress backfill failed: {}", e.getMessage(), e);
+        } finally {
+            backfillFinishedAt = LocalDateTime.now();
+            backfillRunning.set(false);
+        }
+    }
+
+    private DailyProgressDto toDto(StudentDailyProgress progress) {
+        int attempts = progress.getAttemptCount();
+        return DailyProgressDto.builder()
+                .date(progress.getActivityDate())
+                .attemptCount(attempts)
+                .correctCount(progress.getCorrectCount())
+                .correctRate(attempts > 0 ? (double) progress.getCorrectCount() / attempts * 100.0 : 0.0)
+                .timeSpentSeconds(progress.getTimeSpentSeconds())
+                .build();
+    }
+
+    /**
+     * One student_daily_progress row; ordered like the unique key
+     */
+    private static class DayKey implements Comparable<DayKey> {
+        private static final Comparator<DayKey> ORDER = Comparator
+                .comparing((DayKey k) -> k.stats)
+                .thenComparing(k -> k.day);
+
+        private final StatsKey stats;
+        private final LocalDate day;
+
+        DayKey(StatsKey stats, LocalDate day) {
+            this.stats = stats;
+            this.day = day;
+        }
+
+        @Override
+        public int compareTo(DayKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
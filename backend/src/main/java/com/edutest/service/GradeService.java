@@ -1,11 +1,14 @@
 package com.edutest.service;
 
+import com.edutest.dto.CurriculumDeleteResultDto;
 import com.edutest.dto.GradeDto;
 import com.edutest.entity.Grade;
 import com.edutest.entity.Level;
+import com.edutest.event.CurriculumChangedEvent;
 import com.edutest.repository.GradeRepository;
 import com.edutest.repository.LevelRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +21,9 @@ public class GradeService {
 
     private final GradeRepository gradeRepository;
     private final LevelRepository levelRepository;
+    private final SiblingOrderService siblingOrderService;
+    private final CurriculumDeleteService curriculumDeleteService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<GradeDto> getAllGrades() {
@@ -28,7 +34,7 @@ public class GradeService {
 
     @Transactional(readOnly = true)
     public List<GradeDto> getGradesByLevel(Long levelId) {
-        return gradeRepository.findByLevelIdOrderByOrderIndexAsc(levelId).stream()
+        return gradeRepository.findByLevelIdOrderByOrderIndexAscIdAsc(levelId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -54,7 +60,8 @@ public class GradeService {
                 .name(dto.getName())
                 .displayName(dto.getDisplayName() != null ? dto.getDisplayName() : dto.getName())
                 .description(dto.getDescription())
-                .orderIndex(dto.getOrderIndex() != null ? dto.getOrderIndex() : 0)
+                .orderIndex(dto.getOrderIndex() != null ? dto.getOrderIndex()
+                        : siblingOrderService.nextKey(SiblingOrderService.Scope.GRADE, level.getId()))
                 .build();
 
         Grade saved = gradeRepository.save(grade);
@@ -86,51 +93,28 @@ public class GradeService {
         }
 
         Grade updated = gradeRepository.save(grade);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.GRADE, List.of(id)));
         return convertToDto(updated);
     }
 
-    @Transactional
-    public void deleteGrade(Long id) {
-        if (!gradeRepository.existsById(id)) {
-            throw new IllegalArgumentException("Grade not found with id: " + id);
-        }
-        gradeRepository.deleteById(id);
+    /**
+     * Delete the grade with everything below it; dryRun only reports what would be deleted
+     */
+    public CurriculumDeleteResultDto deleteGrade(Long id, boolean dryRun) {
+        return curriculumDeleteService.deleteGrade(id, dryRun);
     }
 
     @Transactional
     public void reorderGrade(Long id, String direction) {
-        Grade currentGrade = gradeRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Grade not found with id: " + id));
-
-        List<Grade> gradesInLevel = gradeRepository.findByLevelIdOrderByOrderIndexAsc(currentGrade.getLevel().getId());
-        int currentIndex = -1;
-
-        for (int i = 0; i < gradesInLevel.size(); i++) {
-            if (gradesInLevel.get(i).getId().equals(id)) {
-                currentIndex = i;
-                break;
-            }
-        }
-
-        if (currentIndex == -1) {
-            throw new IllegalArgumentException("Grade not found in ordered list");
-        }
-
-        Grade swapGrade = null;
-        if ("up".equals(direction) && currentIndex > 0) {
-            swapGrade = gradesInLevel.get(currentIndex - 1);
-        } else if ("down".equals(direction) && currentIndex < gradesInLevel.size() - 1) {
-            swapGrade = gradesInLevel.get(currentIndex + 1);
-        }
-
-        if (swapGrade != null) {
-            Integer tempOrder = currentGrade.getOrderIndex();
-            currentGrade.setOrderIndex(swapGrade.getOrderIndex());
-            swapGrade.setOrderIndex(tempOrder);
+        siblingOrderService.step(SiblingOrderService.Scope.GRADE, id, direction);
+    }
 
-            gradeRepository.save(currentGrade);
-            gradeRepository.save(swapGrade);
-        }
+    /**
+     * Move a grade before/after a sibling or to a position; only the moved row is written
+     */
+    @Transactional
+    public void moveGrade(Long id, Long beforeId, Long afterId, Integer index) {
+        siblingOrderService.move(SiblingOrderService.Scope.GRADE, id, beforeId, afterId, index);
     }
 
     private GradeDto convertToDto(Grade grade) {
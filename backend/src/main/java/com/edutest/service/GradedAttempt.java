@@ -0,0 +1,49 @@
+package com.edutest.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A graded attempt waiting to be written to student_question_attempts.
+ * Carries the denormalized hierarchy columns so the insert needs no joins.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class GradedAttempt {
+
+    private final Long studentId;
+    private final Long questionId;
+    private final boolean correct;
+    private final String userAnswer;
+    private final Integer timeSpentSeconds;
+    private final LocalDateTime attemptedAt;
+
+    private final Long conceptId;
+    private final Long subUnitId;
+    private final Long unitId;
+    private final Long gradeId;
+    private final Long levelId;
+    private final String difficulty;
+
+    public static GradedAttempt of(Long studentId, QuestionPlacement placement, boolean correct,
+                                   String userAnswer, Integer timeSpentSeconds, LocalDateTime attemptedAt) {
+        return GradedAttempt.builder()
+                .studentId(studentId)
+                .questionId(placement.getQuestionId())
+                .correct(correct)
+                .userAnswer(userAnswer)
+                .timeSpentSeconds(timeSpentSeconds)
+                .attemptedAt(attemptedAt)
+                .conceptId(placement.getConceptId())
+                .subUnitId(placement.getSubUnitId())
+                .unitId(placement.getUnitId())
+                .gradeId(placement.getGradeId())
+                .levelId(placement.getLevelId())
+                .difficulty(placement.getDifficulty())
+                .build();
+    }
+}
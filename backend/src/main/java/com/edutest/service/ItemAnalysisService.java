@@ -0,0 +1,318 @@
+package com.edutest.service;
+
+import com.edutest.dto.DistractorStatsDto;
+import com.edutest.dto.ItemAnalysisDto;
+import com.edutest.entity.ItemAnalysis;
+import com.edutest.entity.ItemDistractorStats;
+import com.edutest.entity.QuestionOption;
+import com.edutest.repository.ItemAnalysisRepository;
+import com.edutest.repository.ItemDistractorStatsRepository;
+import com.edutest.repository.QuestionOptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Incremental item analysis over graded test answers (user_answers).
+ * Each run streams the answers added since the last watermark in id ranges, folds them into
+ * {@link ItemStatsAccumulator}s in a single pass and merges those into item_analysis /
+ * item_distractor_stats together with the new watermark in one transaction per range.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemAnalysisService implements JobHandler {
+
+    public static final String JOB_NAME = "item-analysis";
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String ANSWERS_SQL =
+            "SELECT ua.question_id, ua.is_correct, ua.selected_option_id, " +
+            "COALESCE(at.earned_points, 0) - COALESCE(ua.points_earned, 0) " +
+            "FROM user_answers ua " +
+            "JOIN user_attempts at ON at.id = ua.attempt_id " +
+            "WHERE ua.id > ? AND ua.id <= ? AND at.completed_at IS NOT NULL";
+
+    private static final String UPSERT_ANALYSIS_PREFIX =
+            "INSERT INTO item_analysis " +
+            "(question_id, response_count, correct_count, score_sum, score_sq_sum, correct_score_sum, " +
+            "p_value, point_biserial, updated_at) VALUES ";
+
+    private static final String UPSERT_ANALYSIS_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, NOW())";
+
+    private static final String UPSERT_ANALYSIS_SUFFIX =
+            " ON DUPLICATE KEY UPDATE " +
+            "response_count = VALUES(response_count), " +
+            "correct_count = VALUES(correct_count), " +
+            "score_sum = VALUES(score_sum), " +
+            "score_sq_sum = VALUES(score_sq_sum), " +
+            "correct_score_sum = VALUES(correct_score_sum), " +
+            "p_value = VALUES(p_value), " +
+            "point_biserial = VALUES(point_biserial), " +
+            "updated_at = VALUES(updated_at)";
+
+    private static final String UPSERT_DISTRACTOR_PREFIX =
+            "INSERT INTO item_distractor_stats (question_id, option_id, selection_count) VALUES ";
+
+    private static final String UPSERT_DISTRACTOR_SUFFIX =
+            " ON DUPLICATE KEY UPDATE selection_count = selection_count + VALUES(selection_count)";
+
+    private final ItemAnalysisRepository itemAnalysisRepository;
+    private final ItemDistractorStatsRepository distractorStatsRepository;
+    private final QuestionOptionRepository questionOptionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final JobQueueService jobQueueService;
+
+    @Value("${item-analysis.range-size:50000}")
+    private long rangeSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong answersProcessed = new AtomicLong();
+    private volatile String state = "NOT_STARTED";
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    /**
+     * Every node fires the cron; the dedupe key lets only the first one queue the night's run
+     */
+    @Scheduled(cron = "${item-analysis.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        jobQueueService.enqueue(JOB_NAME, null, JOB_NAME + ":" + LocalDate.now(), null);
+    }
+
+    /**
+     * Process answers added since the last run; with {@code reset} the summary tables are rebuilt from scratch.
+     * Runs on the calling thread.
+     */
+    public Map<String, Object> run(boolean reset) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Item analysis is already running");
+        }
+        answersProcessed.set(0);
+        state = "RUNNING";
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        try {
+            if (reset) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("DELETE FROM item_distractor_stats");
+                    jdbcTemplate.update("DELETE FROM item_analysis");
+                    jdbcTemplate.update("DELETE FROM job_watermarks WHERE job_name = ?", JOB_NAME);
+                });
+            }
+
+            long watermark = readWatermark(false);
+            // Stop short of the newest rows: a lower id committed late would otherwise fall behind the watermark
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM user_answers WHERE answered_at < NOW() - INTERVAL 1 MINUTE", Long.class);
+            long upper = maxId != null ? maxId : 0L;
+
+            for (long from = watermark; from < upper; from += rangeSize) {
+                processRange(from, Math.min(from + rangeSize, upper));
+            }
+            state = "COMPLETED";
+            log.info("Item analysis processed {} answers", answersProcessed.get());
+        } catch (RuntimeException e) {
+            state = "FAILED: " + e.getMessage();
+            log.error("Item analysis failed: {}", e.getMessage(), e);
+            throw e;
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+        return getStatus();
+    }
+
+    /**
+     * Same as {@link #run} on a background thread
+     */
+    public Map<String, Object> start(boolean reset) {
+        if (running.get()) {
+            throw new IllegalStateException("Item analysis is already running");
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                run(reset);
+            } catch (RuntimeException e) {
+                // Already logged and reflected in the status
+            }
+        }, "item-analysis");
+        worker.setDaemon(true);
+        worker.start();
+        return getStatus();
+    }
+
+    @Override
+    public String type() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Ranges are committed together with the watermark, so a retry continues where the failed run stopped
+     */
+    @Override
+    public Map<String, Object> handle(JobContext context) {
+        return run(context.getBoolean("reset"));
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", state);
+        status.put("answersProcessed", answersProcessed.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        return status;
+    }
+
+    @Transactional(readOnly = true)
+    public ItemAnalysisDto getAnalysis(Long questionId) {
+        ItemAnalysis analysis = itemAnalysisRepository.findByQuestionId(questionId)
+                .orElseThrow(() -> new IllegalArgumentException("No item analysis yet for question: " + questionId));
+
+        Map<Long, Long> counts = new HashMap<>();
+        for (ItemDistractorStats stats : distractorStatsRepository.findByQuestionId(questionId)) {
+            counts.put(stats.getOptionId(), stats.getSelectionCount());
+        }
+
+        List<DistractorStatsDto> distractors = new ArrayList<>();
+        for (QuestionOption option : questionOptionRepository.findByQuestionIdOrderByOptionOrderAsc(questionId)) {
+            distractors.add(toDistractor(option.getId(), option.getOptionText(), option.getIsCorrect(),
+                    counts.getOrDefault(option.getId(), 0L), analysis.getResponseCount()));
+            counts.remove(option.getId());
+        }
+        // Options removed since they were answered
+        counts.forEach((optionId, count) ->
+                distractors.add(toDistractor(optionId, null, null, count, analysis.getResponseCount())));
+
+        return ItemAnalysisDto.builder()
+                .questionId(questionId)
+                .responseCount(analysis.getResponseCount())
+                .correctCount(analysis.getCorrectCount())
+                .difficultyIndex(analysis.getPValue())
+                .discriminationIndex(analysis.getPointBiserial())
+                .distractors(distractors)
+                .updatedAt(analysis.getUpdatedAt())
+                .build();
+    }
+
+    private DistractorStatsDto toDistractor(Long optionId, String text, Boolean isCorrect, long count, long responses) {
+        return DistractorStatsDto.builder()
+                .optionId(optionId)
+                .optionText(text)
+                .isCorrect(isCorrect)
+                .selectionCount(count)
+                .selectionRate(responses > 0 ? count * 100.0 / responses : 0.0)
+                .build();
+    }
+
+    private void processRange(long fromExclusive, long toInclusive) {
+        // Single pass over the range; only per-question sums are held in memory
+        Map<Long, ItemStatsAccumulator> batch = new TreeMap<>();
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(Integer.MIN_VALUE);
+        streaming.query(ANSWERS_SQL, (RowCallbackHandler) rs -> {
+            Long optionId = rs.getLong(3);
+            if (rs.wasNull()) {
+                optionId = null;
+            }
+            batch.computeIfAbsent(rs.getLong(1), id -> new ItemStatsAccumulator())
+                    .add(rs.getBoolean(2), rs.getDouble(4), optionId);
+            answersProcessed.incrementAndGet();
+        }, fromExclusive, toInclusive);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // The watermark row lock serializes runs across nodes; a moved watermark means another node did this range
+            if (readWatermark(true) != fromExclusive) {
+                throw new IllegalStateException("Item analysis watermark moved; another run is in progress");
+            }
+            if (!batch.isEmpty()) {
+                merge(batch);
+            }
+            jdbcTemplate.update("INSERT INTO job_watermarks (job_name, last_id, updated_at) VALUES (?, ?, NOW()) " +
+                    "ON DUPLICATE KEY UPDATE last_id = VALUES(last_id), updated_at = VALUES(updated_at)",
+                    JOB_NAME, toInclusive);
+        });
+    }
+
+    private long readWatermark(boolean forUpdate) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT last_id FROM job_watermarks WHERE job_name = ?" + (forUpdate ? " FOR UPDATE" : ""),
+                Long.class, JOB_NAME);
+        return ids.isEmpty() ? 0L : ids.get(0);
+    }
+
+    private void merge(Map<Long, ItemStatsAccumulator> batch) {
+        List<Long> questionIds = new ArrayList<>(batch.keySet());
+        Map<Long, ItemStatsAccumulator> merged = new TreeMap<>();
+
+        for (int from = 0; from < questionIds.size(); from += ROWS_PER_STATEMENT) {
+            List<Long> chunk = questionIds.subList(from, Math.min(from + ROWS_PER_STATEMENT, questionIds.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT question_id, response_count, correct_count, score_sum, score_sq_sum, " +
+                    "correct_score_sum FROM item_analysis WHERE question_id IN (" + placeholders + ")",
+                    (RowCallbackHandler) rs -> merged.put(rs.getLong(1), new ItemStatsAccumulator(
+                            rs.getLong(2), rs.getLong(3), rs.getDouble(4), rs.getDouble(5), rs.getDouble(6))),
+                    chunk.toArray());
+        }
+        batch.forEach((questionId, acc) -> merged.computeIfAbsent(questionId, id -> new ItemStatsAccumulator()).merge(acc));
+
+        List<Map.Entry<Long, ItemStatsAccumulator>> rows = new ArrayList<>(merged.entrySet());
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<Map.Entry<Long, ItemStatsAccumulator>> chunk = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()));
+            StringBuilder sql = new StringBuilder(UPSERT_ANALYSIS_PREFIX);
+            List<Object> params = new ArrayList<>(chunk.size() * 8);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i > 0 ? ", " : "").append(UPSERT_ANALYSIS_ROW);
+                ItemStatsAccumulator acc = chunk.get(i).getValue();
+                params.add(chunk.get(i).getKey());
+                params.add(acc.getResponses());
+                params.add(acc.getCorrect());
+                params.add(acc.getScoreSum());
+                params.add(acc.getScoreSqSum());
+                params.add(acc.getCorrectScoreSum());
+                params.add(acc.pValue());
+                params.add(acc.pointBiserial());
+            }
+            sql.append(UPSERT_ANALYSIS_SUFFIX);
+            jdbcTemplate.update(sql.toString(), params.toArray());
+        }
+
+        // Option counts are additive, so only the new batch's counts are written
+        List<Object[]> optionRows = new ArrayList<>();
+        batch.forEach((questionId, acc) -> new TreeMap<>(acc.getOptionCounts())
+                .forEach((optionId, count) -> optionRows.add(new Object[]{questionId, optionId, count})));
+        for (int from = 0; from < optionRows.size(); from += ROWS_PER_STATEMENT) {
+            List<Object[]> chunk = optionRows.subList(from, Math.min(from + ROWS_PER_STATEMENT, optionRows.size()));
+            StringBuilder sql = new StringBuilder(UPSERT_DISTRACTOR_PREFIX);
+            List<Object> params = new ArrayList<>(chunk.size() * 3);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i > 0 ? ", (?, ?, ?)" : "(?, ?, ?)");
+                Collections.addAll(params, chunk.get(i));
+            }
+            sql.append(UPSERT_DISTRACTOR_SUFFIX);
+            jdbcTemplate.update(sql.toString(), params.toArray());
+        }
+    }
+}
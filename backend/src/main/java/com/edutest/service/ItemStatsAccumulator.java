@@ -0,0 +1,84 @@
+package com.edutest.service;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running sums for one question's item analysis. Accumulators merge by addition,
+ * so a new batch of answers is folded into the stored totals without reading old answers again.
+ */
+@Getter
+public class ItemStatsAccumulator {
+
+    private long responses;
+    private long correct;
+    private double scoreSum;
+    private double scoreSqSum;
+    private double correctScoreSum;
+    private final Map<Long, Long> optionCounts = new HashMap<>();
+
+    public ItemStatsAccumulator() {
+    }
+
+    ItemStatsAccumulator(long responses, long correct, double scoreSum, double scoreSqSum, double correctScoreSum) {
+        this.responses = responses;
+        this.correct = correct;
+        this.scoreSum = scoreSum;
+        this.scoreSqSum = scoreSqSum;
+        this.correctScoreSum = correctScoreSum;
+    }
+
+    /**
+     * @param restScore the attempt's score without this question, so the item does not correlate with itself
+     */
+    public void add(boolean isCorrect, double restScore, Long selectedOptionId) {
+        responses++;
+        scoreSum += restScore;
+        scoreSqSum += restScore * restScore;
+        if (isCorrect) {
+            correct++;
+            correctScoreSum += restScore;
+        }
+        if (selectedOptionId != null) {
+            optionCounts.merge(selectedOptionId, 1L, Long::sum);
+        }
+    }
+
+    public void merge(ItemStatsAccumulator other) {
+        responses += other.responses;
+        correct += other.correct;
+        scoreSum += other.scoreSum;
+        scoreSqSum += other.scoreSqSum;
+        correctScoreSum += other.correctScoreSum;
+        other.optionCounts.forEach((optionId, count) -> optionCounts.merge(optionId, count, Long::sum));
+    }
+
+    /**
+     * Proportion answering correctly (classical difficulty index)
+     */
+    public Double pValue() {
+        return responses > 0 ? (double) correct / responses : null;
+    }
+
+    /**
+     * Point-biserial correlation between answering correctly and the rest score:
+     * (M1 - M0) / s * sqrt(p * q). Null when it is undefined (everyone right or wrong, or no score spread).
+     */
+    public Double pointBiserial() {
+        long wrong = responses - correct;
+        if (correct == 0 || wrong == 0) {
+            return null;
+        }
+        double mean = scoreSum / responses;
+        double variance = scoreSqSum / responses - mean * mean;
+        if (variance <= 1e-12) {
+            return null;
+        }
+        double meanCorrect = correctScoreSum / correct;
+        double meanWrong = (scoreSum - correctScoreSum) / wrong;
+        double p = (double) correct / responses;
+        return (meanCorrect - meanWrong) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+    }
+}
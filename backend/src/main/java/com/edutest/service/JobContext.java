@@ -0,0 +1,69 @@
+package com.edutest.service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A claimed job as seen by its {@link JobHandler}
+ */
+public class JobContext {
+
+    private final long jobId;
+    private final int attempt;
+    private final Map<String, Object> payload;
+    private final List<Runnable> cancelListeners = new CopyOnWriteArrayList<>();
+    private volatile boolean cancelled;
+
+    JobContext(long jobId, int attempt, Map<String, Object> payload) {
+        this.jobId = jobId;
+        this.attempt = attempt;
+        this.payload = payload != null ? payload : Collections.emptyMap();
+    }
+
+    public long getJobId() {
+        return jobId;
+    }
+
+    /**
+     * 1 on the first run, higher on retries
+     */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    public Map<String, Object> getPayload() {
+        return payload;
+    }
+
+    public boolean getBoolean(String key) {
+        Object value = payload.get(key);
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(String.valueOf(value));
+    }
+
+    /**
+     * True once the job was cancelled or this node lost its lease; the handler should stop soon
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Called on the heartbeat thread when the job is cancelled, for handlers that cannot poll
+     */
+    public void onCancel(Runnable listener) {
+        cancelListeners.add(listener);
+        if (cancelled) {
+            listener.run();
+        }
+    }
+
+    void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        cancelListeners.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,29 @@
+package com.edutest.service;
+
+import java.util.Map;
+
+/**
+ * Runs one type of background job from the database queue (see {@link JobWorker}).
+ *
+ * Handlers must tolerate running again after a failure or a lost lease: a job whose worker died is retried
+ * on another node. Any exception is retried with backoff, except IllegalArgumentException (a bad payload).
+ */
+public interface JobHandler {
+
+    /**
+     * Job type stored in jobs.job_type
+     */
+    String type();
+
+    /**
+     * Jobs of this type running at once across all nodes; jobs.concurrency.&lt;type&gt; overrides it
+     */
+    default int maxConcurrency() {
+        return 1;
+    }
+
+    /**
+     * Run the job on the calling thread; the returned map is stored as the job result
+     */
+    Map<String, Object> handle(JobContext context);
+}
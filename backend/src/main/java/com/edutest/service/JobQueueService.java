@@ -0,0 +1,178 @@
+package com.edutest.service;
+
+import com.edutest.dto.JobDto;
+import com.edutest.entity.Job;
+import com.edutest.repository.JobRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Queues background jobs and reports their status; {@link JobWorker} runs them on whichever node claims them first
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobQueueService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO jobs (job_type, state, payload, attempts, max_attempts, run_after, cancel_requested, " +
+            "dedupe_key, created_by, created_at) VALUES (?, 'QUEUED', ?, 0, ?, NOW(6), 0, ?, ?, NOW(6))";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private static final int MAX_LIST_SIZE = 500;
+
+    private final JobRepository jobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Queue a job to run as soon as a worker has room for it.
+     * With a dedupe key the job is queued only once while it is queued or running; later calls return the id of
+     * the existing job. The key is released when the job finishes, so the same key can be queued again.
+     */
+    @Transactional
+    public long enqueue(String jobType, Map<String, Object> payload, String dedupeKey, String createdBy) {
+        Integer known = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM job_types WHERE job_type = ?", Integer.class, jobType);
+        if (known == null || known == 0) {
+            throw new IllegalArgumentException("Unknown job type: " + jobType);
+        }
+
+        String json = payload != null && !payload.isEmpty() ? toJson(payload) : null;
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, jobType);
+                ps.setString(2, json);
+                ps.setInt(3, maxAttempts);
+                ps.setString(4, dedupeKey);
+                ps.setString(5, createdBy);
+                return ps;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            Long existing = jdbcTemplate.queryForObject("SELECT id FROM jobs WHERE dedupe_key = ?", Long.class, dedupeKey);
+            log.debug("Job {} already queued as {}", dedupeKey, existing);
+            return existing;
+        }
+        long id = keyHolder.getKey().longValue();
+        log.info("Queued {} job {}", jobType, id);
+        return id;
+    }
+
+    /**
+     * {@link #enqueue} and read the job back in the same transaction, so the read never goes to a replica
+     * that has not seen the insert yet
+     */
+    @Transactional
+    public JobDto submit(String jobType, Map<String, Object> payload, String dedupeKey, String createdBy) {
+        return getJob(enqueue(jobType, payload, dedupeKey, createdBy));
+    }
+
+    @Transactional(readOnly = true)
+    public JobDto getJob(Long id) {
+        return jobRepository.findById(id)
+                .map(this::toDto)
+                .orElseThrow(() -> new IllegalArgumentException("Job not found with id: " + id));
+    }
+
+    /**
+     * Newest jobs first, optionally filtered by type and state
+     */
+    @Transactional(readOnly = true)
+    public List<JobDto> listJobs(String jobType, Job.State state, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIST_SIZE));
+        return jobRepository.search(jobType, state, PageRequest.of(0, size)).stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Queued jobs are cancelled right away; a running job is told through its worker's next heartbeat
+     */
+    @Transactional
+    public JobDto cancel(Long id) {
+        int updated = jdbcTemplate.update(
+                "UPDATE jobs SET state = 'CANCELLED', dedupe_key = NULL, finished_at = NOW(6) " +
+                "WHERE id = ? AND state = 'QUEUED'", id);
+        if (updated == 0) {
+            updated = jdbcTemplate.update(
+                    "UPDATE jobs SET cancel_requested = 1 WHERE id = ? AND state = 'RUNNING'", id);
+        }
+        JobDto job = getJob(id);
+        if (updated == 0) {
+            throw new IllegalStateException("Job " + id + " has already finished (" + job.getState() + ")");
+        }
+        return job;
+    }
+
+    /**
+     * Register a job type so it can be queued; the concurrency limit is shared by all nodes
+     */
+    void registerType(String jobType, int maxConcurrency) {
+        jdbcTemplate.update("INSERT INTO job_types (job_type, max_concurrency) VALUES (?, ?) " +
+                "ON DUPLICATE KEY UPDATE max_concurrency = VALUES(max_concurrency)", jobType, maxConcurrency);
+    }
+
+    String toJson(Map<String, Object> value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Map<String, Object> fromJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, MAP_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JobDto toDto(Job job) {
+        return JobDto.builder()
+                .id(job.getId())
+                .jobType(job.getJobType())
+                .state(job.getState().name())
+                .payload(fromJson(job.getPayload()))
+                .result(fromJson(job.getResult()))
+                .attempts(job.getAttempts())
+                .maxAttempts(job.getMaxAttempts())
+                .runAfter(job.getRunAfter())
+                .leaseOwner(job.getLeaseOwner())
+                .leaseExpiresAt(job.getLeaseExpiresAt())
+                .cancelRequested(job.getCancelRequested())
+                .lastError(job.getLastError())
+                .createdBy(job.getCreatedBy())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,384 @@
+package com.edutest.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs queued jobs on this node.
+ *
+ * Every poll the worker first returns jobs whose lease expired (their node died) to the queue, then claims due
+ * jobs per type in a short transaction: the job_types row is locked with SKIP LOCKED, so concurrent claimers of a
+ * type skip it for a round instead of waiting, the running count is checked against max_concurrency, and due
+ * jobs are taken with SELECT ... FOR UPDATE SKIP LOCKED. A claimed job holds a lease that the heartbeat renews;
+ * every state change after the claim is fenced on (lease_owner, attempts), so a worker that lost its lease cannot
+ * overwrite the outcome of the retry. Failures are retried with exponential backoff up to jobs.max-attempts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JobWorker {
+
+    private static final String LOCK_TYPE_SQL =
+            "SELECT max_concurrency FROM job_types WHERE job_type = ? FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_SQL =
+            "SELECT id FROM jobs WHERE job_type = ? AND state = 'QUEUED' AND run_after <= NOW(6) " +
+            "ORDER BY run_after, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LEASE_SQL =
+            "UPDATE jobs SET state = 'RUNNING', attempts = attempts + 1, lease_owner = ?, " +
+            "lease_expires_at = DATE_ADD(NOW(6), INTERVAL ? MICROSECOND), started_at = NOW(6) WHERE id = ?";
+
+    private static final String RENEW_SQL =
+            "UPDATE jobs SET lease_expires_at = DATE_ADD(NOW(6), INTERVAL ? MICROSECOND) " +
+            "WHERE id = ? AND state = 'RUNNING' AND lease_owner = ? AND attempts = ?";
+
+    private static final String FINISH_SQL =
+            "UPDATE jobs SET state = ?, result = ?, last_error = ?, lease_owner = NULL, lease_expires_at = NULL, " +
+            "dedupe_key = NULL, finished_at = NOW(6) WHERE id = ? AND state = 'RUNNING' AND lease_owner = ? AND attempts = ?";
+
+    // MySQL assigns left to right, so dedupe_key and finished_at see the new state
+    private static final String RETRY_SQL =
+            "UPDATE jobs SET state = IF(attempts < max_attempts, 'QUEUED', 'FAILED'), " +
+            "run_after = DATE_ADD(NOW(6), INTERVAL ? MICROSECOND), last_error = ?, lease_owner = NULL, " +
+            "lease_expires_at = NULL, dedupe_key = IF(state = 'QUEUED', dedupe_key, NULL), " +
+            "finished_at = IF(state = 'QUEUED', NULL, NOW(6)) " +
+            "WHERE id = ? AND state = 'RUNNING' AND lease_owner = ? AND attempts = ?";
+
+    // Shutdown is not the job's fault: hand it back without using up an attempt
+    private static final String RELEASE_SQL =
+            "UPDATE jobs SET state = 'QUEUED', attempts = attempts - 1, run_after = NOW(6), lease_owner = NULL, " +
+            "lease_expires_at = NULL WHERE id = ? AND state = 'RUNNING' AND lease_owner = ? AND attempts = ?";
+
+    private static final String EXPIRED_SQL =
+            "SELECT id, lease_owner, attempts, cancel_requested FROM jobs " +
+            "WHERE state = 'RUNNING' AND lease_expires_at < NOW(6) LIMIT 100 FOR UPDATE SKIP LOCKED";
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final List<JobHandler> handlers;
+    private final JobQueueService jobQueueService;
+    private final ChangeLogService changeLogService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+
+    @Value("${jobs.worker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobs.worker.threads:4}")
+    private int threads;
+
+    @Value("${jobs.poll-ms:1000}")
+    private long pollMs;
+
+    @Value("${jobs.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${jobs.retry.base-delay-ms:10000}")
+    private long baseDelayMs;
+
+    @Value("${jobs.retry.max-delay-ms:3600000}")
+    private long maxDelayMs;
+
+    @Value("${jobs.retention-days:30}")
+    private int retentionDays;
+
+    private final Map<String, JobHandler> handlersByType = new LinkedHashMap<>();
+    private final Map<Long, RunningJob> running = new ConcurrentHashMap<>();
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private String nodeId;
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        nodeId = changeLogService.getNodeId();
+        for (JobHandler handler : handlers) {
+            if (handlersByType.putIfAbsent(handler.type(), handler) != null) {
+                throw new IllegalStateException("Duplicate job handler for type " + handler.type());
+            }
+            int concurrency = environment.getProperty(
+                    "jobs.concurrency." + handler.type(), Integer.class, handler.maxConcurrency());
+            jobQueueService.registerType(handler.type(), concurrency);
+        }
+        if (!enabled) {
+            log.info("Job worker disabled on this node; {} job types registered", handlersByType.size());
+            return;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "job-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "job-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // The lease survives two missed heartbeats
+        long heartbeatMs = Math.max(1000, leaseMs / 3);
+        scheduler.scheduleWithFixedDelay(() -> quietly("poll", this::poll), pollMs, pollMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> quietly("heartbeat", this::heartbeat),
+                heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+        log.info("Job worker {} started with {} threads for {}", nodeId, threads, handlersByType.keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        scheduler.shutdown();
+        running.values().forEach(job -> job.stop(StopReason.SHUTDOWN));
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        // Jobs that did not stop in time go back to the queue instead of waiting for their lease to expire
+        for (RunningJob job : running.values()) {
+            release(job);
+        }
+        log.info("Job worker {} stopped", nodeId);
+    }
+
+    private void poll() {
+        reapExpiredLeases();
+        int free = threads - running.size();
+        for (JobHandler handler : handlersByType.values()) {
+            if (free <= 0) {
+                return;
+            }
+            for (RunningJob job : claim(handler, free)) {
+                running.put(job.context.getJobId(), job);
+                executor.execute(() -> execute(job));
+                free--;
+            }
+        }
+    }
+
+    private List<RunningJob> claim(JobHandler handler, int limit) {
+        return transactionTemplate.execute(status -> {
+            List<Integer> maxConcurrency = jdbcTemplate.queryForList(LOCK_TYPE_SQL, Integer.class, handler.type());
+            if (maxConcurrency.isEmpty()) {
+                // Another node is claiming this type right now
+                return Collections.<RunningJob>emptyList();
+            }
+            Integer runningCount = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM jobs WHERE job_type = ? AND state = 'RUNNING'", Integer.class, handler.type());
+            int room = Math.min(limit, maxConcurrency.get(0) - (runningCount != null ? runningCount : 0));
+            if (room <= 0) {
+                return Collections.<RunningJob>emptyList();
+            }
+
+            List<Long> ids = jdbcTemplate.queryForList(CLAIM_SQL, Long.class, handler.type(), room);
+            List<RunningJob> claimed = new ArrayList<>();
+            for (Long id : ids) {
+                jdbcTemplate.update(LEASE_SQL, nodeId, leaseMs * 1000, id);
+                jdbcTemplate.query("SELECT attempts, payload FROM jobs WHERE id = ?", (RowCallbackHandler) rs ->
+                        claimed.add(new RunningJob(handler, new JobContext(id, rs.getInt(1),
+                                jobQueueService.fromJson(rs.getString(2))))), id);
+            }
+            return claimed;
+        });
+    }
+
+    private void execute(RunningJob job) {
+        JobContext context = job.context;
+        try {
+            Map<String, Object> result = job.handler.handle(context);
+            if (job.stopReason == StopReason.CANCELLED) {
+                finish(job, "CANCELLED", result, null);
+            } else if (job.stopReason == StopReason.SHUTDOWN) {
+                release(job);
+            } else if (job.stopReason == null) {
+                finish(job, "SUCCEEDED", result, null);
+                succeeded.incrementAndGet();
+            }
+        } catch (Exception e) {
+            if (job.stopReason == StopReason.CANCELLED) {
+                finish(job, "CANCELLED", null, errorMessage(e));
+            } else if (job.stopReason == StopReason.SHUTDOWN) {
+                release(job);
+            } else if (job.stopReason == null && e instanceof IllegalArgumentException) {
+                log.error("{} job {} failed permanently: {}", job.handler.type(), context.getJobId(), e.getMessage());
+                finish(job, "FAILED", null, errorMessage(e));
+                failed.incrementAndGet();
+            } else if (job.stopReason == null) {
+                log.error("{} job {} failed on attempt {}: {}",
+                        job.handler.type(), context.getJobId(), context.getAttempt(), e.getMessage(), e);
+                retry(context.getJobId(), nodeId, context.getAttempt(), errorMessage(e));
+            }
+        } finally {
+            // LEASE_LOST writes nothing: the job belongs to whichever worker reclaimed it
+            running.remove(context.getJobId());
+        }
+    }
+
+    private void finish(RunningJob job, String state, Map<String, Object> result, String error) {
+        int updated = jdbcTemplate.update(FINISH_SQL, state, result != null ? jobQueueService.toJson(result) : null,
+                error, job.context.getJobId(), nodeId, job.context.getAttempt());
+        if (updated == 0) {
+            log.warn("{} job {} finished after losing its lease; outcome {} discarded",
+                    job.handler.type(), job.context.getJobId(), state);
+        }
+    }
+
+    private void retry(long jobId, String leaseOwner, int attempts, String error) {
+        if (jdbcTemplate.update(RETRY_SQL, backoffMs(attempts) * 1000, error, jobId, leaseOwner, attempts) > 0) {
+            retried.incrementAndGet();
+        }
+    }
+
+    private void release(RunningJob job) {
+        jdbcTemplate.update(RELEASE_SQL, job.context.getJobId(), nodeId, job.context.getAttempt());
+    }
+
+    /**
+     * Exponential backoff with jitter, so jobs that failed together do not retry together
+     */
+    private long backoffMs(int attempts) {
+        long delay = baseDelayMs << Math.min(Math.max(attempts - 1, 0), 20);
+        delay = Math.min(delay, maxDelayMs);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Renew the leases of this node's jobs and pass on cancellation requests
+     */
+    private void heartbeat() {
+        for (RunningJob job : running.values()) {
+            int renewed = jdbcTemplate.update(RENEW_SQL, leaseMs * 1000, job.context.getJobId(), nodeId,
+                    job.context.getAttempt());
+            if (renewed == 0 && running.containsKey(job.context.getJobId())) {
+                log.warn("{} job {} lost its lease; stopping it", job.handler.type(), job.context.getJobId());
+                job.stop(StopReason.LEASE_LOST);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(running.keySet());
+        if (ids.isEmpty()) {
+            return;
+        }
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Long> cancelled = jdbcTemplate.queryForList(
+                "SELECT id FROM jobs WHERE id IN (" + in + ") AND cancel_requested = 1", Long.class, ids.toArray());
+        for (Long id : cancelled) {
+            RunningJob job = running.get(id);
+            if (job != null) {
+                log.info("Cancelling {} job {}", job.handler.type(), id);
+                job.stop(StopReason.CANCELLED);
+            }
+        }
+    }
+
+    /**
+     * Jobs whose worker stopped renewing the lease (crashed or partitioned node) go back to the queue
+     */
+    private void reapExpiredLeases() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(EXPIRED_SQL, (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            String owner = rs.getString(2);
+            int attempts = rs.getInt(3);
+            if (rs.getBoolean(4)) {
+                jdbcTemplate.update(FINISH_SQL, "CANCELLED", null, "Cancelled after its worker stopped", id, owner, attempts);
+            } else {
+                log.warn("Lease of job {} held by {} expired; requeueing it", id, owner);
+                retry(id, owner, attempts, "Lease expired on " + owner);
+            }
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.prune-interval-ms:3600000}")
+    public void prune() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM jobs WHERE finished_at < ? LIMIT 10000", cutoff);
+            total += deleted;
+        } while (deleted == 10000);
+        if (total > 0) {
+            log.debug("Pruned {} finished jobs", total);
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("nodeId", nodeId);
+        status.put("enabled", enabled);
+        status.put("threads", threads);
+        status.put("jobTypes", handlersByType.keySet());
+        status.put("runningJobIds", new ArrayList<>(running.keySet()));
+        status.put("succeeded", succeeded.get());
+        status.put("failed", failed.get());
+        status.put("retried", retried.get());
+        return status;
+    }
+
+    private void quietly(String task, Runnable runnable) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            // Next round tries again; never let the scheduler drop the task
+            log.error("Job worker {} failed: {}", task, e.getMessage(), e);
+        }
+    }
+
+    private static String errorMessage(Exception e) {
+        String message = e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private enum StopReason {
+        CANCELLED, LEASE_LOST, SHUTDOWN
+    }
+
+    private static class RunningJob {
+        private final JobHandler handler;
+        private final JobContext context;
+        private volatile StopReason stopReason;
+
+        RunningJob(JobHandler handler, JobContext context) {
+            this.handler = handler;
+            this.context = context;
+        }
+
+        void stop(StopReason reason) {
+            if (stopReason == null) {
+                stopReason = reason;
+                context.cancel();
+            }
+        }
+    }
+}
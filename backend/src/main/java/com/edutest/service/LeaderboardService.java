@@ -0,0 +1,282 @@
+package com.edutest.service;
+
+import com.edutest.dto.LeaderboardDto;
+import com.edutest.dto.LeaderboardEntryDto;
+import com.edutest.entity.StudentStats.StatsType;
+import com.edutest.entity.User;
+import com.edutest.event.CurriculumChangedEvent;
+import com.edutest.event.StudentStatsChangedEvent;
+import com.edutest.repository.UserRepository;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory leaderboards per (GRADE | CONCEPT, entityId), ranked by correct rate, then attempts, then student id.
+ * Each board is an {@link OrderStatisticTree}, so top-N and "my rank" are O(log n) per entry.
+ * Boards are built from student_stats at startup and after a rebuild, and the rows named by each
+ * {@link StudentStatsChangedEvent} are re-read and re-ranked, so boards follow the committed totals. Changes made
+ * on other nodes arrive through the change log and name only the students, whose ranked rows are all re-read;
+ * a periodic full reload (leaderboard.reconcile-ms) repairs anything missed.
+ * Boards of grades and concepts that no longer exist are dropped after a curriculum change, and never loaded.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private static final Set<StatsType> RANKED_TYPES = Set.of(StatsType.GRADE, StatsType.CONCEPT);
+    private static final int MAX_LIMIT = 100;
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String ALL_ROWS_SQL =
+            "SELECT student_id, stats_type, entity_id, attempt_count, correct_count " +
+            "FROM student_stats " +
+            "WHERE (stats_type = 'GRADE' AND entity_id IN (SELECT id FROM grades)) " +
+            "OR (stats_type = 'CONCEPT' AND entity_id IN (SELECT id FROM concepts))";
+
+    private static final String ROWS_BY_STUDENT_PREFIX =
+            "SELECT student_id, stats_type, entity_id, attempt_count, correct_count " +
+            "FROM student_stats WHERE stats_type IN ('GRADE', 'CONCEPT') AND student_id IN (";
+
+    private static final String ROWS_BY_KEY_PREFIX =
+            "SELECT student_id, stats_type, entity_id, attempt_count, correct_count " +
+            "FROM student_stats WHERE (student_id, stats_type, entity_id) IN (";
+
+    private static final Comparator<Entry> RANK_ORDER = Comparator
+            .comparingDouble((Entry e) -> -e.rate)
+            .thenComparingLong(e -> -e.attempts)
+            .thenComparingLong(e -> e.studentId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+
+    @Value("${leaderboard.min-attempts:5}")
+    private long minAttempts;
+
+    private volatile Map<BoardKey, Board> boards = new ConcurrentHashMap<>();
+
+    // Serializes full reloads with incremental updates so no update lands on a board being replaced
+    private final Object updateLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        load();
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.reconcile-ms:3600000}",
+            initialDelayString = "${leaderboard.reconcile-ms:3600000}")
+    public void load() {
+        synchronized (updateLock) {
+            Map<BoardKey, Board> loaded = new ConcurrentHashMap<>();
+            jdbcTemplate.query(ALL_ROWS_SQL, (RowCallbackHandler) rs -> {
+                BoardKey key = new BoardKey(StatsType.valueOf(rs.getString(2)), rs.getLong(3));
+                loaded.computeIfAbsent(key, k -> new Board())
+                        .put(rs.getLong(1), rs.getLong(4), rs.getLong(5), minAttempts);
+            });
+            boards = loaded;
+            log.info("Loaded {} leaderboards", loaded.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentStatsChanged(StudentStatsChangedEvent event) {
+        if (event.isFullReload()) {
+            load();
+            return;
+        }
+        if (event.isRemote()) {
+            reloadStudents(new ArrayList<>(event.getStudentIds()));
+            return;
+        }
+
+        List<StatsKey> keys = new ArrayList<>();
+        for (StatsKey key : event.getKeys()) {
+            if (RANKED_TYPES.contains(key.getStatsType())) {
+                keys.add(key);
+            }
+        }
+
+        synchronized (updateLock) {
+            for (int from = 0; from < keys.size(); from += ROWS_PER_STATEMENT) {
+                List<StatsKey> chunk = keys.subList(from, Math.min(from + ROWS_PER_STATEMENT, keys.size()));
+                StringBuilder sql = new StringBuilder(ROWS_BY_KEY_PREFIX);
+                Object[] params = new Object[chunk.size() * 3];
+                for (int i = 0; i < chunk.size(); i++) {
+                    sql.append(i > 0 ? ", (?, ?, ?)" : "(?, ?, ?)");
+                    params[i * 3] = chunk.get(i).getStudentId();
+                    params[i * 3 + 1] = chunk.get(i).getStatsType().name();
+                    params[i * 3 + 2] = chunk.get(i).getEntityId();
+                }
+                sql.append(")");
+
+                Map<BoardKey, Board> current = boards;
+                jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                    BoardKey key = new BoardKey(StatsType.valueOf(rs.getString(2)), rs.getLong(3));
+                    current.computeIfAbsent(key, k -> new Board())
+                            .put(rs.getLong(1), rs.getLong(4), rs.getLong(5), minAttempts);
+                }, params);
+            }
+        }
+    }
+
+    private void reloadStudents(List<Long> studentIds) {
+        synchronized (updateLock) {
+            for (int from = 0; from < studentIds.size(); from += ROWS_PER_STATEMENT) {
+                List<Long> chunk = studentIds.subList(from, Math.min(from + ROWS_PER_STATEMENT, studentIds.size()));
+                String sql = ROWS_BY_STUDENT_PREFIX + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                Map<BoardKey, Board> current = boards;
+                jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                    BoardKey key = new BoardKey(StatsType.valueOf(rs.getString(2)), rs.getLong(3));
+                    current.computeIfAbsent(key, k -> new Board())
+                            .put(rs.getLong(1), rs.getLong(4), rs.getLong(5), minAttempts);
+                }, chunk.toArray());
+            }
+        }
+    }
+
+    /**
+     * Drop the boards of deleted grades and concepts; their student_stats rows outlive them
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        if (event.isFullReload()) {
+            // Curriculum loads only add and update
+            return;
+        }
+        Set<Long> grades = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM grades", Long.class));
+        Set<Long> concepts = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM concepts", Long.class));
+        synchronized (updateLock) {
+            Map<BoardKey, Board> current = boards;
+            int before = current.size();
+            current.keySet().removeIf(key ->
+                    !(key.getStatsType() == StatsType.GRADE ? grades : concepts).contains(key.getEntityId()));
+            if (current.size() < before) {
+                log.info("Evicted {} leaderboards of deleted curriculum nodes", before - current.size());
+            }
+        }
+    }
+
+    public LeaderboardDto getTop(StatsType statsType, Long entityId, int limit) {
+        validate(statsType, limit);
+        Board board = boards.get(new BoardKey(statsType, entityId));
+
+        List<Entry> top = new ArrayList<>();
+        int total = 0;
+        if (board != null) {
+            synchronized (board) {
+                top = board.ranking.slice(0, limit);
+                total = board.ranking.size();
+            }
+        }
+
+        Map<Long, String> names = new HashMap<>();
+        List<Long> studentIds = new ArrayList<>();
+        top.forEach(entry -> studentIds.add(entry.studentId));
+        for (User user : userRepository.findAllById(studentIds)) {
+            names.put(user.getId(), user.getFullName());
+        }
+
+        List<LeaderboardEntryDto> entries = new ArrayList<>(top.size());
+        for (int i = 0; i < top.size(); i++) {
+            entries.add(toDto(top.get(i), i + 1, names.get(top.get(i).studentId)));
+        }
+        return LeaderboardDto.builder()
+                .statsType(statsType.name())
+                .entityId(entityId)
+                .totalRanked(total)
+                .entries(entries)
+                .build();
+    }
+
+    /**
+     * The student's position on the board; rank is null when the student is not ranked (yet)
+     */
+    public LeaderboardEntryDto getRank(StatsType statsType, Long entityId, Long studentId) {
+        validate(statsType, 1);
+        Board board = boards.get(new BoardKey(statsType, entityId));
+        if (board != null) {
+            synchronized (board) {
+                Entry entry = board.byStudent.get(studentId);
+                if (entry != null && board.ranking.contains(entry)) {
+                    return toDto(entry, board.ranking.rank(entry) + 1, null);
+                }
+            }
+        }
+        return LeaderboardEntryDto.builder().studentId(studentId).build();
+    }
+
+    private void validate(StatsType statsType, int limit) {
+        if (!RANKED_TYPES.contains(statsType)) {
+            throw new IllegalArgumentException("Leaderboards exist for GRADE and CONCEPT only");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    private LeaderboardEntryDto toDto(Entry entry, int rank, String fullName) {
+        return LeaderboardEntryDto.builder()
+                .rank(rank)
+                .studentId(entry.studentId)
+                .fullName(fullName)
+                .attemptCount(entry.attempts)
+                .correctRate(entry.rate * 100.0)
+                .build();
+    }
+
+    @Data
+    private static class BoardKey {
+        private final StatsType statsType;
+        private final long entityId;
+    }
+
+    private static class Board {
+        private final OrderStatisticTree<Entry> ranking = new OrderStatisticTree<>(RANK_ORDER);
+        private final Map<Long, Entry> byStudent = new HashMap<>();
+
+        synchronized void put(long studentId, long attempts, long correct, long minAttempts) {
+            Entry previous = byStudent.remove(studentId);
+            if (previous != null) {
+                ranking.remove(previous);
+            }
+            Entry entry = new Entry(studentId, attempts, correct);
+            byStudent.put(studentId, entry);
+            // Students below the threshold are tracked but not ranked
+            if (attempts >= minAttempts) {
+                ranking.add(entry);
+            }
+        }
+    }
+
+    private static class Entry {
+        private final long studentId;
+        private final long attempts;
+        private final double rate;
+
+        Entry(long studentId, long attempts, long correct) {
+            this.studentId = studentId;
+            this.attempts = attempts;
+            this.rate = attempts > 0 ? (double) correct / attempts : 0.0;
+        }
+    }
+}
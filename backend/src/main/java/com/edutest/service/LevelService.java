@@ -2,8 +2,10 @@ package com.edutest.service;
 
 import com.edutest.dto.LevelDto;
 import com.edutest.entity.Level;
+import com.edutest.event.CurriculumChangedEvent;
 import com.edutest.repository.LevelRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
 public class LevelService {
 
     private final LevelRepository levelRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<LevelDto> getAllLevels() {
@@ -66,6 +69,7 @@ public class LevelService {
         level.setOrderIndex(dto.getDifficultyRank());
 
         Level updated = levelRepository.save(level);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.LEVEL, List.of(id)));
         return convertToDto(updated);
     }
 
@@ -75,6 +79,7 @@ public class LevelService {
             throw new IllegalArgumentException("Level not found with id: " + id);
         }
         levelRepository.deleteById(id);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.LEVEL, List.of(id)));
     }
 
     @Transactional
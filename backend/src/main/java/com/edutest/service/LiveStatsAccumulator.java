@@ -0,0 +1,334 @@
+package com.edutest.service;
+
+import com.edutest.config.ReplicaRoutingDataSource;
+import com.edutest.entity.StudentStats;
+import com.edutest.event.StudentStatsChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * In-memory accumulator for student stats deltas that have not reached student_stats yet.
+ *
+ * Every graded attempt is added to striped counters keyed by (studentId, statsType, entityId), so live
+ * dashboards see new attempts immediately. A scheduled flush drains the counters and applies them through
+ * {@link StatsRollupEngine} as one upsert per interval instead of one per attempt. Readers merge flushed rows with
+ * pending deltas through {@link #withPending}, which a flush version keeps from counting a delta twice or not at all.
+ *
+ * Each counter is a single {@link LongAdder} holding attempts in the high 32 bits and correct answers in the
+ * low 32 bits, so one add records both and a drain can never split an attempt from its correctness.
+ * Deltas still in memory when the process dies are lost; the attempt log remains the source of truth
+ * and the stats can be rebuilt from it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiveStatsAccumulator {
+
+    private static final long ATTEMPT = 1L << 32;
+    private static final long CORRECT = 1L;
+    private static final long LOW_MASK = 0xFFFFFFFFL;
+
+    private final StatsRollupEngine statsRollupEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final AttemptWriteBuffer attemptWriteBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${stats.live.idle-flushes-before-evict:30}")
+    private int idleFlushesBeforeEvict;
+
+    private final Map<Long, StudentBucket> students = new ConcurrentHashMap<>();
+
+    // Deltas drained by the running flush but not committed yet; still visible to readers
+    private volatile Map<StatsKey, StatsDelta> inFlight = Map.of();
+
+    // Odd while a flush moves deltas between the counters, inFlight and student_stats; readers retry across it
+    private final AtomicLong flushVersion = new AtomicLong();
+
+    // Student id ranges [from, to) being rewritten by StatsRebuildService; flushes leave their deltas in the counters
+    private final List<long[]> heldRanges = new CopyOnWriteArrayList<>();
+
+    private final Object flushLock = new Object();
+    private final AtomicLong lastFlushAt = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong lastFlushDurationMs = new AtomicLong();
+    private final AtomicLong lastFlushRows = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    public void record(Collection<GradedAttempt> attempts) {
+        for (GradedAttempt attempt : attempts) {
+            long value = ATTEMPT | (attempt.isCorrect() ? CORRECT : 0L);
+            StatsRollupEngine.forEachKey(attempt, key -> add(key, value));
+        }
+    }
+
+    private void add(StatsKey key, long value) {
+        StudentBucket bucket = students.computeIfAbsent(key.getStudentId(), id -> new StudentBucket());
+        bucket.counters.computeIfAbsent(key, k -> new LongAdder()).add(value);
+
+        if (bucket.retired) {
+            // The flusher evicted this bucket concurrently: move whatever it did not drain to a live bucket
+            bucket.drainInto(this);
+        }
+    }
+
+    /**
+     * Flushed stats of one student merged with its unflushed deltas. {@code flushed} reads the student's
+     * student_stats rows; it runs on the primary, because a replica that has not caught up with a flush would
+     * miss the deltas the flush just took out of memory, and it is run again when a flush moved deltas meanwhile,
+     * so every attempt is counted exactly once.
+     */
+    public Map<StatsKey, StatsDelta> withPending(Long studentId, Supplier<List<StudentStats>> flushed) {
+        while (true) {
+            long version = stableVersion();
+            Map<StatsKey, StatsDelta> merged = new TreeMap<>();
+            for (StudentStats stats : ReplicaRoutingDataSource.onPrimary(flushed)) {
+                merged.put(new StatsKey(studentId, stats.getStatsType(), stats.getEntityId()),
+                        new StatsDelta(stats.getAttemptCount(), stats.getCorrectCount()));
+            }
+            Map<StatsKey, StatsDelta> pending = pendingFor(studentId);
+            if (flushVersion.get() == version) {
+                pending.forEach((key, delta) -> merged.computeIfAbsent(key, k -> new StatsDelta())
+                        .add(delta.getAttempts(), delta.getCorrect()));
+                return merged;
+            }
+        }
+    }
+
+    // Unflushed deltas of one student (pending counters plus the flush in progress)
+    private Map<StatsKey, StatsDelta> pendingFor(Long studentId) {
+        Map<StatsKey, StatsDelta> pending = new HashMap<>();
+        StudentBucket bucket = students.get(studentId);
+        if (bucket != null) {
+            bucket.counters.forEach((key, counter) -> {
+                long packed = counter.sum();
+                if (packed != 0) {
+                    pending.computeIfAbsent(key, k -> new StatsDelta()).add(packed >>> 32, packed & LOW_MASK);
+                }
+            });
+        }
+        inFlight.forEach((key, delta) -> {
+            if (key.getStudentId().equals(studentId)) {
+                pending.computeIfAbsent(key, k -> new StatsDelta()).add(delta.getAttempts(), delta.getCorrect());
+            }
+        });
+        return pending;
+    }
+
+    // An even version no flush is moving deltas in; waits out the short odd windows
+    private long stableVersion() {
+        long version;
+        while (((version = flushVersion.get()) & 1) != 0) {
+            Thread.onSpinWait();
+        }
+        return version;
+    }
+
+    @Scheduled(fixedDelayString = "${stats.live.flush-interval-ms:2000}")
+    public void scheduledFlush() {
+        try {
+            flush();
+        } catch (Exception e) {
+            failedFlushes.incrementAndGet();
+            log.error("Failed to flush live student stats, will retry: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Drain all counters and apply them to student_stats in one transaction.
+     * On failure the drained deltas are put back so the next flush retries them.
+     *
+     * The drain (counters to inFlight) and the commit (inFlight to student_stats) each happen while the version
+     * is odd, so a reader of {@link #withPending} never sees a delta in neither or in both places.
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            long start = System.currentTimeMillis();
+            Map<StatsKey, StatsDelta> deltas = new TreeMap<>();
+
+            flushVersion.incrementAndGet();
+
+            students.forEach((studentId, bucket) -> {
+                if (isHeld(studentId)) {
+                    return;
+                }
+                boolean active = false;
+                for (Map.Entry<StatsKey, LongAdder> entry : bucket.counters.entrySet()) {
+                    long packed = entry.getValue().sumThenReset();
+                    if (packed != 0) {
+                        active = true;
+                        deltas.computeIfAbsent(entry.getKey(), k -> new StatsDelta())
+                                .add(packed >>> 32, packed & LOW_MASK);
+                    }
+                }
+                if (active) {
+                    bucket.idleFlushes = 0;
+                } else if (++bucket.idleFlushes >= idleFlushesBeforeEvict) {
+                    bucket.retired = true;
+                    students.remove(studentId, bucket);
+                    bucket.drainInto(this);
+                }
+            });
+
+            inFlight = deltas;
+            flushVersion.incrementAndGet();
+
+            if (deltas.isEmpty()) {
+                lastFlushAt.set(System.currentTimeMillis());
+                return 0;
+            }
+
+            InFlightRelease release = new InFlightRelease(deltas);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    // Registered first, so inFlight is released before other after-commit work runs
+                    TransactionSynchronizationManager.registerSynchronization(release);
+                    statsRollupEngine.apply(deltas);
+                    eventPublisher.publishEvent(new StudentStatsChangedEvent(deltas.keySet()));
+                });
+            } catch (RuntimeException e) {
+                // The transaction may have failed to start, before the release was registered
+                release.afterCompletion(TransactionSynchronization.STATUS_UNKNOWN);
+                throw e;
+            }
+
+            long now = System.currentTimeMillis();
+            lastFlushAt.set(now);
+            lastFlushDurationMs.set(now - start);
+            lastFlushRows.set(deltas.size());
+            return deltas.size();
+        }
+    }
+
+    /**
+     * Keeps the deltas of students in [fromStudentId, toStudentId) out of student_stats until {@link #release};
+     * readers still see them as pending. Takes effect from the next flush on.
+     */
+    public void hold(long fromStudentId, long toStudentId) {
+        synchronized (flushLock) {
+            heldRanges.add(new long[]{fromStudentId, toStudentId});
+        }
+    }
+
+    public void release(long fromStudentId, long toStudentId) {
+        heldRanges.removeIf(range -> range[0] == fromStudentId && range[1] == toStudentId);
+    }
+
+    private boolean isHeld(long studentId) {
+        for (long[] range : heldRanges) {
+            if (studentId >= range[0] && studentId < range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, Object> getMetrics() {
+        long pendingKeys = 0;
+        long pendingAttempts = 0;
+        for (StudentBucket bucket : students.values()) {
+            for (LongAdder counter : bucket.counters.values()) {
+                long packed = counter.sum();
+                if (packed != 0) {
+                    pendingKeys++;
+                    pendingAttempts += packed >>> 32;
+                }
+            }
+        }
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("trackedStudents", students.size());
+        metrics.put("pendingStatsRows", pendingKeys);
+        metrics.put("pendingAttemptDeltas", pendingAttempts);
+        metrics.put("flushLagMs", pendingKeys > 0 ? System.currentTimeMillis() - lastFlushAt.get() : 0);
+        metrics.put("lastFlushDurationMs", lastFlushDurationMs.get());
+        metrics.put("lastFlushRows", lastFlushRows.get());
+        metrics.put("failedFlushes", failedFlushes.get());
+        metrics.put("attemptBufferSize", attemptWriteBuffer.size());
+        metrics.put("droppedAttempts", attemptWriteBuffer.getDroppedAttempts());
+        return metrics;
+    }
+
+    /**
+     * Moves the flushed deltas out of inFlight atomically with the commit, or back into the counters on rollback
+     */
+    private class InFlightRelease implements TransactionSynchronization {
+        private final Map<StatsKey, StatsDelta> deltas;
+        private boolean odd;
+        private boolean released;
+
+        InFlightRelease(Map<StatsKey, StatsDelta> deltas) {
+            this.deltas = deltas;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            flushVersion.incrementAndGet();
+            odd = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            inFlight = Map.of();
+            flushVersion.incrementAndGet();
+            released = true;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (released) {
+                return;
+            }
+            // Rolled back, or the commit failed: the next flush retries the deltas
+            if (!odd) {
+                flushVersion.incrementAndGet();
+            }
+            deltas.forEach((key, delta) -> add(key, (delta.getAttempts() << 32) | delta.getCorrect()));
+            inFlight = Map.of();
+            flushVersion.incrementAndGet();
+            released = true;
+        }
+    }
+
+    /**
+     * Counters of one student. A bucket is retired when it stays idle for several flushes;
+     * adders that still reach a retired bucket move their increments to a live one.
+     */
+    private static class StudentBucket {
+        private final Map<StatsKey, LongAdder> counters = new ConcurrentHashMap<>();
+        private volatile boolean retired;
+        private int idleFlushes;
+
+        void drainInto(LiveStatsAccumulator accumulator) {
+            counters.forEach((key, counter) -> {
+                long packed = counter.sumThenReset();
+                if (packed != 0) {
+                    accumulator.add(key, packed);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.edutest.service;
+
+import com.edutest.dto.AttemptHistoryDto;
+import com.edutest.dto.RecommendationDto;
+import com.edutest.entity.StudentProfile;
+import com.edutest.entity.StudentStats.StatsType;
+import com.edutest.repository.StudentProfileRepository;
+import com.edutest.repository.StudentQuestionAttemptRepository;
+import com.edutest.repository.StudentStatsRepository;
+import com.edutest.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks the next practice question for a student.
+ * Concepts are ranked by smoothed correct rate (weakest first), the difficulty follows the student's
+ * proficiency shifted by how well they do on that concept, and questions seen recently are skipped.
+ *
+ * Everything runs in memory: a per-student context (concept stats, proficiency, recent-seen bitmap) is
+ * loaded on the first request, kept current by {@link #record} and evicted when idle; candidates come
+ * from {@link QuestionPoolIndex}. The context is soft state and node-local: its concept stats and recent-seen
+ * questions only follow attempts graded on this node, so while a student's requests alternate between nodes
+ * each node may offer questions the student just saw on another one, until the context is evicted and reloaded.
+ * recommend() itself does no I/O once the context is loaded (p99 target 5 ms, see NextQuestionRecommenderBenchmark).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NextQuestionRecommender {
+
+    static final List<String> DIFFICULTIES = List.of("VERY_EASY", "EASY", "MEDIUM", "HARD", "VERY_HARD");
+    private static final int DEFAULT_DIFFICULTY = 2;
+    private static final int WEAKEST_CANDIDATES = 3;
+    private static final int MIN_ATTEMPTS_FOR_SHIFT = 3;
+    private static final int RANDOM_PROBES = 16;
+
+    private final UserRepository userRepository;
+    private final StudentProfileRepository studentProfileRepository;
+    private final StudentStatsRepository studentStatsRepository;
+    private final StudentQuestionAttemptRepository attemptRepository;
+    private final LiveStatsAccumulator liveStatsAccumulator;
+    private final QuestionPoolIndex questionPoolIndex;
+    private final AttemptPartitionManager partitionManager;
+
+    @Value("${recommend.recent-window:200}")
+    private int recentWindow;
+
+    @Value("${recommend.idle-evict-ms:1800000}")
+    private long idleEvictMs;
+
+    private final Map<Long, StudentContext> contexts = new ConcurrentHashMap<>();
+
+    /**
+     * Next question for the student, optionally restricted to one sub-unit
+     */
+    public RecommendationDto recommend(Long studentId, Long subUnitId) {
+        StudentContext context = contexts.get(studentId);
+        if (context == null) {
+            // Loaded outside the map: computeIfAbsent would hold the bin, and other students in it, during the queries
+            StudentContext loaded = loadContext(studentId);
+            StudentContext raced = contexts.putIfAbsent(studentId, loaded);
+            context = raced != null ? raced : loaded;
+        }
+        context.lastAccess = System.currentTimeMillis();
+
+        synchronized (context) {
+            List<Long> concepts = rankConcepts(context, candidateConcepts(context, subUnitId));
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for (Long conceptId : concepts) {
+                long[] stats = context.conceptStats.get(conceptId);
+                int target = targetDifficulty(context.proficiency, stats);
+
+                for (int d : difficultiesNearest(target)) {
+                    List<long[]> pools = questionPoolIndex.select(
+                            List.of(), List.of(conceptId), DIFFICULTIES.get(d), Set.of());
+                    Long questionId = pickUnseen(pools, context, random);
+                    if (questionId != null) {
+                        context.markSeen(questionId);
+                        return RecommendationDto.builder()
+                                .questionId(questionId)
+                                .conceptId(conceptId)
+                                .difficulty(DIFFICULTIES.get(d))
+                                .conceptAttemptCount(stats != null ? stats[0] : 0L)
+                                .conceptCorrectRate(stats != null && stats[0] > 0
+                                        ? stats[1] * 100.0 / stats[0] : null)
+                                .build();
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("No unseen questions left in the selected scope");
+    }
+
+    /**
+     * Keeps loaded contexts current; called with every graded batch
+     */
+    public void record(Collection<GradedAttempt> attempts) {
+        for (GradedAttempt attempt : attempts) {
+            StudentContext context = contexts.get(attempt.getStudentId());
+            if (context == null) {
+                continue;
+            }
+            synchronized (context) {
+                if (attempt.getConceptId() != null) {
+                    long[] stats = context.conceptStats.computeIfAbsent(attempt.getConceptId(), id -> new long[2]);
+                    stats[0]++;
+                    stats[1] += attempt.isCorrect() ? 1 : 0;
+                }
+                context.markSeen(attempt.getQuestionId());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recommend.idle-evict-ms:1800000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMs;
+        contexts.values().removeIf(context -> context.lastAccess < cutoff);
+    }
+
+    private List<Long> candidateConcepts(StudentContext context, Long subUnitId) {
+        Collection<Long> concepts;
+        if (subUnitId != null) {
+            concepts = questionPoolIndex.conceptIdsOf(subUnitId);
+        } else if (!context.conceptStats.isEmpty()) {
+            concepts = context.conceptStats.keySet();
+        } else if (context.profileSubUnitId != null) {
+            concepts = questionPoolIndex.conceptIdsOf(context.profileSubUnitId);
+        } else {
+            throw new IllegalArgumentException("Choose a sub-unit or set one in the student profile");
+        }
+        if (concepts.isEmpty()) {
+            throw new IllegalArgumentException("No questions available in the selected scope");
+        }
+        return new ArrayList<>(concepts);
+    }
+
+    /**
+     * Weakest first by (correct + 1) / (attempts + 2), so unseen concepts rank in the middle.
+     * The first pick is random among the few weakest so consecutive questions vary.
+     */
+    private List<Long> rankConcepts(StudentContext context, List<Long> concepts) {
+        concepts.sort(Comparator.comparingDouble(id -> smoothedRate(context.conceptStats.get(id))));
+        int head = Math.min(WEAKEST_CANDIDATES, concepts.size());
+        int first = ThreadLocalRandom.current().nextInt(head);
+        if (first > 0) {
+            concepts.add(0, concepts.remove(first));
+        }
+        return concepts;
+    }
+
+    private static double smoothedRate(long[] stats) {
+        return stats == null ? 0.5 : (stats[1] + 1.0) / (stats[0] + 2.0);
+    }
+
+    private static int targetDifficulty(String proficiency, long[] stats) {
+        int base = proficiency != null ? DIFFICULTIES.indexOf(proficiency) : -1;
+        if (base < 0) {
+            base = DEFAULT_DIFFICULTY;
+        }
+        if (stats != null && stats[0] >= MIN_ATTEMPTS_FOR_SHIFT) {
+            double rate = (double) stats[1] / stats[0];
+            if (rate < 0.4) {
+                base--;
+            } else if (rate > 0.8) {
+                base++;
+            }
+        }
+        return Math.max(0, Math.min(DIFFICULTIES.size() - 1, base));
+    }
+
+    // Target difficulty first, then the closest ones (easier before harder)
+    private static int[] difficultiesNearest(int target) {
+        int[] order = new int[DIFFICULTIES.size()];
+        int n = 0;
+        order[n++] = target;
+        for (int distance = 1; n < order.length; distance++) {
+            if (target - distance >= 0) {
+                order[n++] = target - distance;
+            }
+            if (target + distance < DIFFICULTIES.size()) {
+                order[n++] = target + distance;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * A few random probes, then a scan from a random position; pools are per concept so the scan is short
+     */
+    private static Long pickUnseen(List<long[]> pools, StudentContext context, ThreadLocalRandom random) {
+        int total = 0;
+        for (long[] pool : pools) {
+            total += pool.length;
+        }
+        if (total == 0) {
+            return null;
+        }
+
+        for (int probe = 0; probe < RANDOM_PROBES; probe++) {
+            long id = idAt(pools, random.nextInt(total));
+            if (!context.isSeen(id)) {
+                return id;
+            }
+        }
+        int start = random.nextInt(total);
+        for (int i = 0; i < total; i++) {
+            long id = idAt(pools, (start + i) % total);
+            if (!context.isSeen(id)) {
+                return id;
+            }
+        }
+        return null;
+    }
+
+    private static long idAt(List<long[]> pools, int position) {
+        for (long[] pool : pools) {
+            if (position < pool.length) {
+                return pool[position];
+            }
+            position -= pool.length;
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    private StudentContext loadContext(Long studentId) {
+        StudentProfile profile = studentProfileRepository.findByUserId(studentId).orElse(null);
+        String proficiency = profile != null ? profile.getProficiencyLevel() : null;
+        if (proficiency == null) {
+            proficiency = userRepository.findLegacyProficiencyLevel(studentId).orElse(null);
+        }
+        Long profileSubUnitId = profile != null && profile.getSubUnit() != null ? profile.getSubUnit().getId() : null;
+
+        StudentContext context = new StudentContext(proficiency, profileSubUnitId, recentWindow);
+        Map<StatsKey, StatsDelta> stats = liveStatsAccumulator.withPending(studentId,
+                () -> studentStatsRepository.findByStudentIdAndStatsType(studentId, StatsType.CONCEPT));
+        stats.forEach((key, delta) -> {
+            if (key.getStatsType() == StatsType.CONCEPT) {
+                context.conceptStats.put(key.getEntityId(), new long[]{delta.getAttempts(), delta.getCorrect()});
+            }
+        });
+
+        // Newest first; replay oldest first so the window keeps the most recent ones
+        List<AttemptHistoryDto> recent = attemptRepository.findStudentHistory(
+                studentId, partitionManager.hotWindowStart(), PageRequest.of(0, recentWindow));
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            context.markSeen(recent.get(i).getQuestionId());
+        }
+        return context;
+    }
+
+    private static class StudentContext {
+        private final String proficiency;
+        private final Long profileSubUnitId;
+        private final Map<Long, long[]> conceptStats = new HashMap<>(); // conceptId -> {attempts, correct}
+
+        // Recently seen question ids: bitmap for O(1) lookups plus a ring buffer to expire the oldest
+        private final BitSet seen = new BitSet();
+        private final long[] ring;
+        private int ringHead;
+        private int ringSize;
+
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        StudentContext(String proficiency, Long profileSubUnitId, int window) {
+            this.proficiency = proficiency;
+            this.profileSubUnitId = profileSubUnitId;
+            this.ring = new long[window];
+        }
+
+        boolean isSeen(long questionId) {
+            return questionId <= Integer.MAX_VALUE && seen.get((int) questionId);
+        }
+
+        void markSeen(long questionId) {
+            if (questionId > Integer.MAX_VALUE || ring.length == 0 || isSeen(questionId)) {
+                return;
+            }
+            if (ringSize == ring.length) {
+                seen.clear((int) ring[ringHead]);
+            } else {
+                ringSize++;
+            }
+            ring[ringHead] = questionId;
+            ringHead = (ringHead + 1) % ring.length;
+            seen.set((int) questionId);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.edutest.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorted set with positional access: a treap whose nodes carry subtree sizes, so insert, remove,
+ * rank and select-by-position are all O(log n) expected. Not thread-safe.
+ */
+public class OrderStatisticTree<K> {
+
+    private final Comparator<? super K> comparator;
+    private Node<K> root;
+
+    public OrderStatisticTree(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    /**
+     * @return false if an equal key was already present
+     */
+    public boolean add(K key) {
+        if (contains(key)) {
+            return false;
+        }
+        root = insert(root, new Node<>(key, ThreadLocalRandom.current().nextInt()));
+        return true;
+    }
+
+    /**
+     * @return false if the key was not present
+     */
+    public boolean remove(K key) {
+        if (!contains(key)) {
+            return false;
+        }
+        root = delete(root, key);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, node.key);
+            if (cmp == 0) {
+                return true;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * Number of keys ordered before the given key (its 0-based position if present)
+     */
+    public int rank(K key) {
+        int rank = 0;
+        Node<K> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(key, node.key);
+            if (cmp <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Key at the 0-based position
+     */
+    public K get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        }
+        Node<K> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.key;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Up to {@code count} keys starting at position {@code from}, in order
+     */
+    public List<K> slice(int from, int count) {
+        List<K> result = new ArrayList<>(Math.max(0, Math.min(count, size() - from)));
+        collect(root, from, from + count, 0, result);
+        return result;
+    }
+
+    private void collect(Node<K> node, int from, int to, int offset, List<K> out) {
+        if (node == null || offset >= to || offset + node.size <= from) {
+            return;
+        }
+        int position = offset + size(node.left);
+        collect(node.left, from, to, offset, out);
+        if (position >= from && position < to) {
+            out.add(node.key);
+        }
+        collect(node.right, from, to, position + 1, out);
+    }
+
+    private Node<K> insert(Node<K> node, Node<K> inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (comparator.compare(inserted.key, node.key) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<K> delete(Node<K> node, K key) {
+        int cmp = comparator.compare(key, node.key);
+        if (cmp < 0) {
+            node.left = delete(node.left, key);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, key);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Rotate the higher-priority child up and keep sinking the node until it has one child
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = delete(node.right, key);
+            } else {
+                node = rotateLeft(node);
+                node.left = delete(node.left, key);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node<K> rotateRight(Node<K> node) {
+        Node<K> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Node<K> rotateLeft(Node<K> node) {
+        Node<K> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static class Node<K> {
+        private final K key;
+        private final int priority;
+        private Node<K> left;
+        private Node<K> right;
+        private int size = 1;
+
+        Node(K key, int priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        void update() {
+            size = 1 + OrderStatisticTree.size(left) + OrderStatisticTree.size(right);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.edutest.service;
+
+import com.edutest.dto.QuestionBulkFilter;
+import com.edutest.dto.QuestionBulkResultDto;
+import com.edutest.dto.QuestionBulkUpdateRequest;
+import com.edutest.entity.Question;
+import com.edutest.event.QuestionChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based bulk operations on questions selected by a {@link QuestionBulkFilter}.
+ * Each operation is one transaction of a few statements whatever the number of questions.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionBulkService {
+
+    // Keeps IN lists and event payloads bounded
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private static final String AI_IMAGE_PATH = "/api/questions/images/ai-generated/";
+    private static final String AI_IMAGE_KEY = "question-images/ai-generated/";
+
+    // Questions with graded answers or attempts are kept: those rows are the history stats are built from
+    private static final String DELETABLE =
+            " AND NOT EXISTS (SELECT 1 FROM user_answers ua WHERE ua.question_id = q.id)" +
+            " AND NOT EXISTS (SELECT 1 FROM student_question_attempts a WHERE a.question_id = q.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FileStorageService fileStorageService;
+    private final SecretService secretService;
+
+    public QuestionBulkResultDto update(QuestionBulkUpdateRequest request) {
+        if (request.getSubUnitId() == null && request.getConceptId() == null && request.getDifficulty() == null) {
+            throw new IllegalArgumentException("Nothing to change: give subUnitId, conceptId or difficulty");
+        }
+        if (request.getDifficulty() != null && request.getDifficulty().length() > 20) {
+            throw new IllegalArgumentException("difficulty is too long");
+        }
+        Where where = where(request.getFilter());
+
+        // Target placement: a concept moves the question to the concept's sub unit
+        Long subUnitId = request.getSubUnitId();
+        if (request.getConceptId() != null) {
+            List<Long> conceptSubUnit = jdbcTemplate.query("SELECT sub_unit_id FROM concepts WHERE id = ?",
+                    (rs, i) -> rs.getObject(1, Long.class), request.getConceptId());
+            if (conceptSubUnit.isEmpty()) {
+                throw new IllegalArgumentException("Concept not found with id: " + request.getConceptId());
+            }
+            Long conceptSubUnitId = conceptSubUnit.get(0);
+            if (subUnitId != null && conceptSubUnitId != null && !subUnitId.equals(conceptSubUnitId)) {
+                throw new IllegalArgumentException("Concept " + request.getConceptId() + " does not belong to SubUnit " + subUnitId);
+            }
+            if (subUnitId == null) {
+                subUnitId = conceptSubUnitId;
+            }
+        }
+        Long subjectId = null;
+        if (subUnitId != null) {
+            List<Long> subjects = jdbcTemplate.query(
+                    "SELECT u.subject_id FROM sub_units su JOIN units u ON u.id = su.unit_id WHERE su.id = ?",
+                    (rs, i) -> rs.getObject(1, Long.class), subUnitId);
+            if (subjects.isEmpty() || subjects.get(0) == null) {
+                throw new IllegalArgumentException("SubUnit not found with id: " + subUnitId);
+            }
+            subjectId = subjects.get(0);
+        }
+
+        List<String> assignments = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        if (subUnitId != null) {
+            assignments.add("q.sub_unit_id = ?");
+            params.add(subUnitId);
+            assignments.add("q.subject_id = ?");
+            params.add(subjectId);
+        }
+        if (request.getConceptId() != null) {
+            assignments.add("q.concept_id = ?");
+            params.add(request.getConceptId());
+        } else if (subUnitId != null) {
+            // Concepts of the old sub unit no longer apply
+            assignments.add("q.concept_id = CASE WHEN q.concept_id IN (SELECT c.id FROM concepts c WHERE c.sub_unit_id = ?) " +
+                    "THEN q.concept_id ELSE NULL END");
+            params.add(subUnitId);
+        }
+        if (request.getDifficulty() != null) {
+            assignments.add("q.difficulty = ?");
+            params.add(request.getDifficulty());
+        }
+        assignments.add("q.updated_at = NOW()");
+        params.addAll(where.params);
+
+        String sql = "UPDATE questions q SET " + String.join(", ", assignments) + where.sql;
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT q.id FROM questions q" + where.sql + " FOR UPDATE",
+                    Long.class, where.params.toArray());
+            int updated = ids.isEmpty() ? 0 : jdbcTemplate.update(sql, params.toArray());
+            publishChanged(ids);
+
+            log.info("Bulk question update changed {} of {} questions", updated, ids.size());
+            return QuestionBulkResultDto.builder()
+                    .matched(ids.size())
+                    .updated(updated)
+                    .build();
+        });
+    }
+
+    public QuestionBulkResultDto delete(QuestionBulkFilter filter) {
+        Where where = where(filter);
+
+        List<String> files = new ArrayList<>();
+        QuestionBulkResultDto result = transactionTemplate.execute(status -> {
+            Integer matched = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM questions q" + where.sql,
+                    Integer.class, where.params.toArray());
+
+            List<Long> ids = new ArrayList<>();
+            jdbcTemplate.query("SELECT q.id, q.reference_image, q.reference_document FROM questions q" +
+                    where.sql + DELETABLE + " FOR UPDATE", (RowCallbackHandler) rs -> {
+                ids.add(rs.getLong(1));
+                addIfPresent(files, rs.getString(2));
+                addIfPresent(files, rs.getString(3));
+            }, where.params.toArray());
+
+            QuestionBulkResultDto deleted = deleteByIds(ids);
+            publishChanged(ids);
+
+            deleted.setMatched(matched);
+            deleted.setSkipped(matched - ids.size());
+            return deleted;
+        });
+
+        // Files go only after the rows are committed, and only when no remaining question uses them
+        result.setFilesDeleted(deleteUnreferencedFiles(files));
+        log.info("Bulk question delete removed {} questions ({} skipped), {} options, {} files",
+                result.getDeleted(), result.getSkipped(), result.getOptionsDeleted(), result.getFilesDeleted());
+        return result;
+    }
+
+    /**
+     * Delete questions with their options and derived rows in chunks. Runs in the caller's transaction;
+     * the caller makes sure none of them has answers or attempts.
+     */
+    QuestionBulkResultDto deleteByIds(List<Long> ids) {
+        int optionsDeleted = 0;
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            String in = inList(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+            jdbcTemplate.update("DELETE FROM review_items WHERE question_id IN " + in);
+            jdbcTemplate.update("DELETE FROM item_distractor_stats WHERE question_id IN " + in);
+            jdbcTemplate.update("DELETE FROM item_analysis WHERE question_id IN " + in);
+            optionsDeleted += jdbcTemplate.update("DELETE FROM question_options WHERE question_id IN " + in);
+            deleted += jdbcTemplate.update("DELETE FROM questions WHERE id IN " + in);
+        }
+        return QuestionBulkResultDto.builder()
+                .deleted(deleted)
+                .optionsDeleted(optionsDeleted)
+                .build();
+    }
+
+    int deleteUnreferencedFiles(List<String> files) {
+        if (files.isEmpty()) {
+            return 0;
+        }
+        Set<String> candidates = new HashSet<>(files);
+        String placeholders = candidates.stream().map(f -> "?").collect(Collectors.joining(", ", "(", ")"));
+        List<Object> params = new ArrayList<>(candidates);
+        params.addAll(candidates);
+        Set<String> stillUsed = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT reference_image FROM questions WHERE reference_image IN " + placeholders +
+                " UNION SELECT reference_document FROM questions WHERE reference_document IN " + placeholders,
+                String.class, params.toArray()));
+
+        int deleted = 0;
+        for (String file : candidates) {
+            if (stillUsed.contains(file)) {
+                continue;
+            }
+            try {
+                if (file.startsWith(AI_IMAGE_PATH)) {
+                    secretService.deleteImage(AI_IMAGE_KEY + file.substring(AI_IMAGE_PATH.length()));
+                } else if (!file.contains("/") && !file.contains("\\") && !file.contains("..")) {
+                    fileStorageService.deleteFile(file);
+                } else {
+                    continue;
+                }
+                deleted++;
+            } catch (RuntimeException e) {
+                log.warn("Could not delete question file {}: {}", file, e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    void publishChanged(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            eventPublisher.publishEvent(new QuestionChangedEvent(
+                    new ArrayList<>(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())))));
+        }
+    }
+
+    static void addIfPresent(List<String> files, String file) {
+        if (file != null && !file.isBlank()) {
+            files.add(file);
+        }
+    }
+
+    private static String inList(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(",", "(", ")"));
+    }
+
+    /**
+     * WHERE clause over questions q; an empty filter is rejected so a bulk call never hits every question
+     */
+    private static Where where(QuestionBulkFilter filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("filter is required");
+        }
+        StringBuilder sql = new StringBuilder(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        if (filter.getQuestionIds() != null) {
+            if (filter.getQuestionIds().isEmpty()) {
+                throw new IllegalArgumentException("questionIds must not be empty");
+            }
+            if (filter.getQuestionIds().size() > 10000) {
+                throw new IllegalArgumentException("At most 10000 questionIds per request");
+            }
+            sql.append(" AND q.id IN (")
+                    .append(String.join(", ", Collections.nCopies(filter.getQuestionIds().size(), "?")))
+                    .append(")");
+            params.addAll(filter.getQuestionIds());
+        }
+        if (filter.getLevelId() != null) {
+            sql.append(" AND q.level_id = ?");
+            params.add(filter.getLevelId());
+        }
+        if (filter.getSubUnitId() != null) {
+            sql.append(" AND q.sub_unit_id = ?");
+            params.add(filter.getSubUnitId());
+        }
+        if (filter.getConceptId() != null) {
+            sql.append(" AND q.concept_id = ?");
+            params.add(filter.getConceptId());
+        }
+        if (filter.getDifficulty() != null) {
+            sql.append(" AND q.difficulty = ?");
+            params.add(filter.getDifficulty());
+        }
+        if (filter.getQuestionType() != null) {
+            try {
+                params.add(Question.QuestionType.valueOf(filter.getQuestionType()).name());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid questionType: " + filter.getQuestionType());
+            }
+            sql.append(" AND q.question_type = ?");
+        }
+        if (params.isEmpty()) {
+            throw new IllegalArgumentException("filter must have at least one criterion");
+        }
+        return new Where(sql.toString(), params);
+    }
+
+    private static class Where {
+        private final String sql;
+        private final List<Object> params;
+
+        Where(String sql, List<Object> params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
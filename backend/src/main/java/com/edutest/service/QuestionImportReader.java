@@ -0,0 +1,222 @@
+package com.edutest.service;
+
+import com.edutest.dto.QuestionImportRow;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parses bulk question import files into {@link QuestionImportRow}s.
+ *
+ * CSV: a header row with the QuestionImportRow field names (levelId, levelName, subUnitId, ..., points)
+ * and option1..optionN columns for the choices; values may be quoted as in RFC 4180.
+ * JSON: an array of objects with the same fields and options as an array of strings.
+ */
+public class QuestionImportReader {
+
+    private QuestionImportReader() {
+    }
+
+    public static List<QuestionImportRow> read(String filename, InputStream in, ObjectMapper objectMapper) throws IOException {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return readCsv(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        }
+        if (name.endsWith(".json")) {
+            return readJson(in, objectMapper);
+        }
+        if (name.endsWith(".xlsx") || name.endsWith(".xls")) {
+            throw new IllegalArgumentException("Excel files are not supported. Save the sheet as CSV (UTF-8) and upload that.");
+        }
+        throw new IllegalArgumentException("Unsupported import file: " + filename + " (expected .csv or .json)");
+    }
+
+    static List<QuestionImportRow> readJson(InputStream in, ObjectMapper objectMapper) throws IOException {
+        List<QuestionImportRow> rows = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON import must be an array of questions");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                QuestionImportRow row = objectMapper.readValue(parser, QuestionImportRow.class);
+                row.setRow(rows.size() + 1);
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    static List<QuestionImportRow> readCsv(Reader reader) throws IOException {
+        CsvTokenizer csv = new CsvTokenizer(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        // option1, option2, ... in numeric order
+        Map<Integer, Integer> optionColumns = new TreeMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            if (i == 0 && column.startsWith("﻿")) {
+                column = column.substring(1);
+            }
+            if (column.matches("(?i)option\\d+")) {
+                optionColumns.put(Integer.parseInt(column.substring(6)), i);
+            } else {
+                columns.put(column, i);
+            }
+        }
+        if (!columns.containsKey("questionText")) {
+            throw new IllegalArgumentException("CSV header must contain a questionText column");
+        }
+
+        List<QuestionImportRow> rows = new ArrayList<>();
+        int line = csv.line();
+        for (List<String> values = csv.next(); values != null; line = csv.line(), values = csv.next()) {
+            if (values.size() == 1 && values.get(0).isBlank()) {
+                continue;
+            }
+            QuestionImportRow row = QuestionImportRow.builder()
+                    .row(line)
+                    .levelName(text(values, columns, "levelName"))
+                    .subUnitName(text(values, columns, "subUnitName"))
+                    .conceptName(text(values, columns, "conceptName"))
+                    .difficulty(text(values, columns, "difficulty"))
+                    .evalDomain(text(values, columns, "evalDomain"))
+                    .questionText(text(values, columns, "questionText"))
+                    .questionType(text(values, columns, "questionType"))
+                    .correctAnswer(text(values, columns, "correctAnswer"))
+                    .explanation(text(values, columns, "explanation"))
+                    .build();
+            try {
+                row.setLevelId(number(values, columns, "levelId"));
+                row.setSubUnitId(number(values, columns, "subUnitId"));
+                row.setConceptId(number(values, columns, "conceptId"));
+                Long points = number(values, columns, "points");
+                row.setPoints(points != null ? points.intValue() : null);
+            } catch (NumberFormatException e) {
+                row.setParseError("Not a number: " + e.getMessage());
+            }
+
+            List<String> options = new ArrayList<>();
+            for (Integer column : optionColumns.values()) {
+                String option = column < values.size() ? values.get(column).trim() : "";
+                if (!option.isEmpty()) {
+                    options.add(option);
+                }
+            }
+            row.setOptions(options);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static String text(List<String> values, Map<String, Integer> columns, String name) {
+        Integer column = columns.get(name);
+        if (column == null || column >= values.size()) {
+            return null;
+        }
+        String value = values.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Long number(List<String> values, Map<String, Integer> columns, String name) {
+        String value = text(values, columns, name);
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    /**
+     * RFC 4180 records: quoted fields may contain commas, doubled quotes and line breaks
+     */
+    private static class CsvTokenizer {
+        private final Reader reader;
+        private int line = 1;
+        private int peeked = -2;
+
+        CsvTokenizer(Reader reader) {
+            this.reader = reader;
+        }
+
+        // Line on which the next record starts
+        int line() {
+            return line;
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Unterminated quoted field near line " + line);
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) {
+                peeked = reader.read();
+            }
+            return peeked;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.edutest.service;
+
+import com.edutest.dto.QuestionImportErrorDto;
+import com.edutest.dto.QuestionImportRow;
+import com.edutest.dto.QuestionImportSummaryDto;
+import com.edutest.entity.Question;
+import com.edutest.entity.User;
+import com.edutest.event.QuestionChangedEvent;
+import com.edutest.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Bulk question import.
+ *
+ * The hierarchy (levels, sub units, concepts) is loaded once into maps, rows are validated against it in
+ * parallel and valid rows are written in chunks, one transaction per chunk. Each chunk inserts its questions
+ * with a single multi-row INSERT and takes the generated ids from it (InnoDB hands out consecutive
+ * AUTO_INCREMENT values to one multi-row insert), then inserts all their options in one JDBC batch.
+ * Per-row errors are reported to the caller as they are found; a chunk that fails reports all its rows.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionImportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String INSERT_QUESTION_PREFIX =
+            "INSERT INTO questions (level_id, subject_id, sub_unit_id, concept_id, difficulty, eval_domain, title, " +
+            "content, question_type, points, correct_answer, explanation, created_by, created_at, updated_at) VALUES ";
+
+    private static final String INSERT_QUESTION_ROW = "(?, ?, ?, ?, ?, ?, 'Question', ?, ?, ?, ?, ?, ?, NOW(), NOW())";
+
+    private static final String INSERT_OPTION_SQL =
+            "INSERT INTO question_options (question_id, option_text, is_correct, option_order, created_at) " +
+            "VALUES (?, ?, ?, ?, NOW())";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Validate and insert the rows, sending every rejected row to {@code errors} in row order
+     */
+    public QuestionImportSummaryDto importQuestions(List<QuestionImportRow> rows, String username,
+                                                    Consumer<QuestionImportErrorDto> errors) {
+        long startedAt = System.currentTimeMillis();
+        Long createdBy = userRepository.findByUsername(username).map(User::getId).orElse(null);
+        Hierarchy hierarchy = loadHierarchy();
+
+        // Validation only reads the immutable hierarchy maps, so rows can be checked in parallel
+        List<Object> validated = rows.parallelStream()
+                .map(row -> {
+                    try {
+                        return (Object) resolve(row, hierarchy);
+                    } catch (IllegalArgumentException e) {
+                        return QuestionImportErrorDto.builder().row(row.getRow()).message(e.getMessage()).build();
+                    }
+                })
+                .toList();
+
+        List<ResolvedQuestion> valid = new ArrayList<>();
+        int failed = 0;
+        for (Object result : validated) {
+            if (result instanceof ResolvedQuestion question) {
+                valid.add(question);
+            } else {
+                errors.accept((QuestionImportErrorDto) result);
+                failed++;
+            }
+        }
+
+        int imported = 0;
+        for (int from = 0; from < valid.size(); from += CHUNK_SIZE) {
+            List<ResolvedQuestion> chunk = valid.subList(from, Math.min(from + CHUNK_SIZE, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertChunk(chunk, createdBy));
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                log.warn("Question import chunk failed: {}", e.getMessage());
+                for (ResolvedQuestion question : chunk) {
+                    errors.accept(QuestionImportErrorDto.builder()
+                            .row(question.row.getRow())
+                            .message("Insert failed: " + e.getMessage())
+                            .build());
+                }
+                failed += chunk.size();
+            }
+        }
+
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        log.info("Imported {} of {} questions in {} ms", imported, rows.size(), elapsedMs);
+        return QuestionImportSummaryDto.builder()
+                .totalRows(rows.size())
+                .imported(imported)
+                .failed(failed)
+                .elapsedMs(elapsedMs)
+                .build();
+    }
+
+    private void insertChunk(List<ResolvedQuestion> chunk, Long createdBy) {
+        StringBuilder sql = new StringBuilder(INSERT_QUESTION_PREFIX);
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(INSERT_QUESTION_ROW);
+        }
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+            int p = 1;
+            for (ResolvedQuestion question : chunk) {
+                QuestionImportRow row = question.row;
+                ps.setLong(p++, question.levelId);
+                ps.setLong(p++, question.subjectId);
+                ps.setObject(p++, question.subUnitId, Types.BIGINT);
+                ps.setObject(p++, question.conceptId, Types.BIGINT);
+                ps.setString(p++, row.getDifficulty());
+                ps.setString(p++, row.getEvalDomain());
+                ps.setString(p++, row.getQuestionText());
+                ps.setString(p++, question.questionType.name());
+                ps.setInt(p++, row.getPoints() != null ? row.getPoints() : 10);
+                ps.setString(p++, row.getCorrectAnswer());
+                ps.setString(p++, row.getExplanation());
+                ps.setObject(p++, createdBy, Types.BIGINT);
+            }
+            return ps;
+        }, keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != chunk.size()) {
+            throw new IllegalStateException("Expected " + chunk.size() + " generated ids, got " + keyList.size());
+        }
+
+        List<Long> questionIds = new ArrayList<>(chunk.size());
+        List<Object[]> options = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Long questionId = ((Number) keyList.get(i).values().iterator().next()).longValue();
+            questionIds.add(questionId);
+
+            QuestionImportRow row = chunk.get(i).row;
+            List<String> texts = row.getOptions() != null ? row.getOptions() : List.of();
+            for (int order = 0; order < texts.size(); order++) {
+                String text = texts.get(order);
+                // Same rule as QuestionService.createQuestion
+                boolean correct = row.getCorrectAnswer() != null && text.equals(row.getCorrectAnswer());
+                options.add(new Object[]{questionId, text, correct, order + 1});
+            }
+        }
+        if (!options.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_OPTION_SQL, options,
+                    new int[]{Types.BIGINT, Types.VARCHAR, Types.BOOLEAN, Types.INTEGER});
+        }
+
+        eventPublisher.publishEvent(new QuestionChangedEvent(questionIds));
+    }
+
+    private ResolvedQuestion resolve(QuestionImportRow row, Hierarchy hierarchy) {
+        if (row.getParseError() != null) {
+            throw new IllegalArgumentException(row.getParseError());
+        }
+        if (row.getQuestionText() == null || row.getQuestionText().isBlank()) {
+            throw new IllegalArgumentException("questionText is required");
+        }
+
+        Question.QuestionType questionType;
+        try {
+            questionType = Question.QuestionType.valueOf(row.getQuestionType());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid questionType: " + row.getQuestionType());
+        }
+
+        Long levelId = row.getLevelId();
+        if (levelId != null) {
+            if (!hierarchy.levelIds.contains(levelId)) {
+                throw new IllegalArgumentException("Level not found with id: " + levelId);
+            }
+        } else if (row.getLevelName() != null) {
+            levelId = hierarchy.levelsByName.get(row.getLevelName());
+            if (levelId == null) {
+                throw new IllegalArgumentException("Level not found: " + row.getLevelName());
+            }
+        } else {
+            throw new IllegalArgumentException("levelId or levelName is required");
+        }
+
+        Long subUnitId = row.getSubUnitId();
+        if (subUnitId != null) {
+            if (!hierarchy.subUnitSubjects.containsKey(subUnitId)) {
+                throw new IllegalArgumentException("SubUnit not found with id: " + subUnitId);
+            }
+        } else if (row.getSubUnitName() != null) {
+            subUnitId = unique(hierarchy.subUnitsByName.get(row.getSubUnitName()), "SubUnit", row.getSubUnitName());
+        }
+
+        Long conceptId = row.getConceptId();
+        if (conceptId != null) {
+            if (!hierarchy.concepts.containsKey(conceptId)) {
+                throw new IllegalArgumentException("Concept not found with id: " + conceptId);
+            }
+        } else if (row.getConceptName() != null) {
+            conceptId = unique(hierarchy.conceptsByName.get(row.getConceptName()), "Concept", row.getConceptName());
+        }
+
+        ConceptRef concept = conceptId != null ? hierarchy.concepts.get(conceptId) : null;
+        if (concept != null && subUnitId != null && concept.subUnitId != null && !concept.subUnitId.equals(subUnitId)) {
+            throw new IllegalArgumentException("Concept " + conceptId + " does not belong to SubUnit " + subUnitId);
+        }
+
+        // Subject from the sub unit, else from the concept (as in QuestionService.createQuestion)
+        Long subjectId = subUnitId != null ? hierarchy.subUnitSubjects.get(subUnitId) : null;
+        if (subjectId == null && concept != null) {
+            subjectId = concept.subjectId;
+        }
+        if (subjectId == null) {
+            throw new IllegalArgumentException("Cannot determine subject for question. Please provide valid subUnitId or conceptId.");
+        }
+
+        if (row.getPoints() != null && row.getPoints() <= 0) {
+            throw new IllegalArgumentException("points must be positive");
+        }
+        if (row.getDifficulty() != null && row.getDifficulty().length() > 20) {
+            throw new IllegalArgumentException("difficulty is too long");
+        }
+        if (questionType == Question.QuestionType.MULTIPLE_CHOICE) {
+            if (row.getOptions() == null || row.getOptions().size() < 2) {
+                throw new IllegalArgumentException("MULTIPLE_CHOICE needs at least two options");
+            }
+            if (row.getCorrectAnswer() == null || !row.getOptions().contains(row.getCorrectAnswer())) {
+                throw new IllegalArgumentException("correctAnswer must match one of the options");
+            }
+        } else if (questionType == Question.QuestionType.TRUE_FALSE && row.getCorrectAnswer() == null) {
+            throw new IllegalArgumentException("TRUE_FALSE needs a correctAnswer");
+        }
+
+        return new ResolvedQuestion(row, questionType, levelId, subjectId, subUnitId, conceptId);
+    }
+
+    private static Long unique(List<Long> ids, String type, String name) {
+        if (ids == null) {
+            throw new IllegalArgumentException(type + " not found: " + name);
+        }
+        if (ids.size() > 1) {
+            throw new IllegalArgumentException(type + " name is ambiguous, use the id instead: " + name);
+        }
+        return ids.get(0);
+    }
+
+    private Hierarchy loadHierarchy() {
+        Hierarchy hierarchy = new Hierarchy();
+        jdbcTemplate.query("SELECT id, name FROM levels", (RowCallbackHandler) rs -> {
+            hierarchy.levelIds.add(rs.getLong(1));
+            hierarchy.levelsByName.put(rs.getString(2), rs.getLong(1));
+        });
+        jdbcTemplate.query(
+                "SELECT su.id, su.name, u.subject_id FROM sub_units su LEFT JOIN units u ON u.id = su.unit_id",
+                (RowCallbackHandler) rs -> {
+                    hierarchy.subUnitSubjects.put(rs.getLong(1), rs.getObject(3, Long.class));
+                    hierarchy.subUnitsByName.computeIfAbsent(rs.getString(2), k -> new ArrayList<>()).add(rs.getLong(1));
+                });
+        jdbcTemplate.query(
+                "SELECT c.id, c.name, c.sub_unit_id, u.subject_id FROM concepts c " +
+                "LEFT JOIN sub_units su ON su.id = c.sub_unit_id LEFT JOIN units u ON u.id = su.unit_id",
+                (RowCallbackHandler) rs -> {
+                    hierarchy.concepts.put(rs.getLong(1),
+                            new ConceptRef(rs.getObject(3, Long.class), rs.getObject(4, Long.class)));
+                    hierarchy.conceptsByName.computeIfAbsent(rs.getString(2), k -> new ArrayList<>()).add(rs.getLong(1));
+                });
+        return hierarchy;
+    }
+
+    private static class Hierarchy {
+        private final Set<Long> levelIds = new HashSet<>();
+        private final Map<String, Long> levelsByName = new HashMap<>();
+        private final Map<Long, Long> subUnitSubjects = new HashMap<>();
+        private final Map<String, List<Long>> subUnitsByName = new HashMap<>();
+        private final Map<Long, ConceptRef> concepts = new HashMap<>();
+        private final Map<String, List<Long>> conceptsByName = new HashMap<>();
+    }
+
+    private static class ConceptRef {
+        private final Long subUnitId;
+        private final Long subjectId;
+
+        ConceptRef(Long subUnitId, Long subjectId) {
+            this.subUnitId = subUnitId;
+            this.subjectId = subjectId;
+        }
+    }
+
+    private static class ResolvedQuestion {
+        private final QuestionImportRow row;
+        private final Question.QuestionType questionType;
+        private final Long levelId;
+        private final Long subjectId;
+        private final Long subUnitId;
+        private final Long conceptId;
+
+        ResolvedQuestion(QuestionImportRow row, Question.QuestionType questionType,
+                         Long levelId, Long subjectId, Long subUnitId, Long conceptId) {
+            this.row = row;
+            this.questionType = questionType;
+            this.levelId = levelId;
+            this.subjectId = subjectId;
+            this.subUnitId = subUnitId;
+            this.conceptId = conceptId;
+        }
+    }
+}
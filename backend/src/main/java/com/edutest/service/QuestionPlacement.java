@@ -0,0 +1,23 @@
+package com.edutest.service;
+
+import com.edutest.entity.Question;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Where a question sits in the curriculum hierarchy.
+ * Sub-unit, unit and grade fall back to the concept's sub-unit when the question has none of its own.
+ */
+@Getter
+@AllArgsConstructor
+public class QuestionPlacement {
+
+    private final Long questionId;
+    private final Question.QuestionType questionType;
+    private final String difficulty;
+    private final Long levelId;
+    private final Long conceptId;
+    private final Long subUnitId;
+    private final Long unitId;
+    private final Long gradeId;
+}
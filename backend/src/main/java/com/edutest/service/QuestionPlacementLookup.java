@@ -0,0 +1,107 @@
+package com.edutest.service;
+
+import com.edutest.entity.Question;
+import com.edutest.event.CurriculumChangedEvent;
+import com.edutest.event.QuestionChangedEvent;
+import com.edutest.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map of questionId -> curriculum placement.
+ * Attempt ingestion reads the denormalized concept/subUnit/unit/grade/level/difficulty columns from here
+ * instead of joining the hierarchy for every attempt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuestionPlacementLookup {
+
+    private final QuestionRepository questionRepository;
+
+    private final Map<Long, QuestionPlacement> placements = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Full reload so that curriculum moves (e.g. a sub-unit moved to another unit) are picked up
+     */
+    @Scheduled(fixedDelayString = "${stats.attempts.placement-reload-ms:300000}",
+               initialDelayString = "${stats.attempts.placement-reload-ms:300000}")
+    public void reload() {
+        Map<Long, QuestionPlacement> loaded = new HashMap<>();
+        for (Object[] row : questionRepository.findAllPlacements()) {
+            QuestionPlacement placement = toPlacement(row);
+            loaded.put(placement.getQuestionId(), placement);
+        }
+        placements.putAll(loaded);
+        placements.keySet().retainAll(loaded.keySet());
+        log.info("Loaded curriculum placement for {} questions", loaded.size());
+    }
+
+    /**
+     * Resolve placements for the given questions; misses are loaded with a single query.
+     * Unknown question ids are absent from the returned map.
+     */
+    public Map<Long, QuestionPlacement> getAll(Collection<Long> questionIds) {
+        Map<Long, QuestionPlacement> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : questionIds) {
+            QuestionPlacement placement = placements.get(id);
+            if (placement != null) {
+                result.put(id, placement);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            for (Object[] row : questionRepository.findPlacementsByIdIn(missing)) {
+                QuestionPlacement placement = toPlacement(row);
+                placements.put(placement.getQuestionId(), placement);
+                result.put(placement.getQuestionId(), placement);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        // Drop stale entries; the next lookup reloads them from the database
+        event.getQuestionIds().forEach(placements::remove);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        // Any placement may run through the changed node; lookups reload lazily
+        placements.clear();
+    }
+
+    private QuestionPlacement toPlacement(Object[] row) {
+        return new QuestionPlacement(
+                (Long) row[0],
+                (Question.QuestionType) row[1],
+                (String) row[2],
+                (Long) row[3],
+                (Long) row[4],
+                (Long) row[5],
+                (Long) row[6],
+                (Long) row[7]
+        );
+    }
+}
@@ -0,0 +1,157 @@
+package com.edutest.service;
+
+import com.edutest.entity.Question;
+import com.edutest.event.CurriculumChangedEvent;
+import com.edutest.event.QuestionChangedEvent;
+import com.edutest.repository.QuestionRepository;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Question ids grouped into pools by (sub-unit, concept, difficulty, question type).
+ * Test assembly picks the pools a blueprint covers and samples ids from them without scanning the bank.
+ * Pools are rebuilt from the placement query into a fresh immutable snapshot whenever questions changed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuestionPoolIndex {
+
+    // Fixed pool order for select(); HashMap order (enum hash codes included) differs between JVMs
+    private static final Comparator<PoolKey> KEY_ORDER = Comparator
+            .comparing(PoolKey::getSubUnitId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+            .thenComparing(PoolKey::getConceptId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()))
+            .thenComparing(PoolKey::getDifficulty, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(PoolKey::getQuestionType, Comparator.nullsFirst(Comparator.<Question.QuestionType>naturalOrder()));
+
+    private final QuestionRepository questionRepository;
+
+    private volatile Pools pools = new Pools(Map.of());
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refreshIfDirty();
+    }
+
+    @Scheduled(fixedDelayString = "${assembly.pool-refresh-ms:5000}")
+    public void refreshIfDirty() {
+        if (!dirty.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            Map<PoolKey, List<Long>> grouped = new HashMap<>();
+            for (Object[] row : questionRepository.findAllPlacements()) {
+                // Columns as in QuestionRepository.PLACEMENT_SELECT
+                PoolKey key = new PoolKey((Long) row[5], (Long) row[4], (String) row[2], (Question.QuestionType) row[1]);
+                grouped.computeIfAbsent(key, k -> new ArrayList<>()).add((Long) row[0]);
+            }
+
+            Map<PoolKey, long[]> built = new HashMap<>();
+            int questions = 0;
+            for (Map.Entry<PoolKey, List<Long>> entry : grouped.entrySet()) {
+                long[] ids = entry.getValue().stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(ids);
+                built.put(entry.getKey(), ids);
+                questions += ids.length;
+            }
+            pools = new Pools(built);
+            log.info("Built {} question pools over {} questions", built.size(), questions);
+        } catch (RuntimeException e) {
+            dirty.set(true);
+            throw e;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQuestionChanged(QuestionChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCurriculumChanged(CurriculumChangedEvent event) {
+        dirty.set(true);
+    }
+
+    /**
+     * Pools under the given sub-units or concepts with the given difficulty, restricted to the given types
+     * (all types when empty). Every question appears in at most one returned pool.
+     * Pools come in a fixed order with ids sorted, so a seeded draw picks the same questions on every node.
+     */
+    public List<long[]> select(Collection<Long> subUnitIds, Collection<Long> conceptIds,
+                               String difficulty, Collection<Question.QuestionType> types) {
+        Pools snapshot = pools;
+        Set<PoolKey> keys = new TreeSet<>(KEY_ORDER);
+        for (Long subUnitId : subUnitIds) {
+            keys.addAll(snapshot.bySubUnit.getOrDefault(subUnitId, List.of()));
+        }
+        for (Long conceptId : conceptIds) {
+            keys.addAll(snapshot.byConcept.getOrDefault(conceptId, List.of()));
+        }
+
+        List<long[]> selected = new ArrayList<>();
+        for (PoolKey key : keys) {
+            if (difficulty.equals(key.getDifficulty()) && (types.isEmpty() || types.contains(key.getQuestionType()))) {
+                selected.add(snapshot.byKey.get(key));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Concepts that have at least one question under the sub-unit
+     */
+    public Set<Long> conceptIdsOf(Long subUnitId) {
+        Set<Long> conceptIds = new LinkedHashSet<>();
+        for (PoolKey key : pools.bySubUnit.getOrDefault(subUnitId, List.of())) {
+            if (key.getConceptId() != null) {
+                conceptIds.add(key.getConceptId());
+            }
+        }
+        return conceptIds;
+    }
+
+    @Data
+    static class PoolKey {
+        private final Long subUnitId;
+        private final Long conceptId;
+        private final String difficulty;
+        private final Question.QuestionType questionType;
+    }
+
+    private static class Pools {
+        private final Map<PoolKey, long[]> byKey;
+        private final Map<Long, List<PoolKey>> bySubUnit = new HashMap<>();
+        private final Map<Long, List<PoolKey>> byConcept = new HashMap<>();
+
+        Pools(Map<PoolKey, long[]> byKey) {
+            this.byKey = byKey;
+            for (PoolKey key : byKey.keySet()) {
+                if (key.getSubUnitId() != null) {
+                    bySubUnit.computeIfAbsent(key.getSubUnitId(), id -> new ArrayList<>()).add(key);
+                }
+                if (key.getConceptId() != null) {
+                    byConcept.computeIfAbsent(key.getConceptId(), id -> new ArrayList<>()).add(key);
+                }
+            }
+        }
+    }
+}
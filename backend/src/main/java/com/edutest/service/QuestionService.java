@@ -5,14 +5,25 @@ import com.edutest.dto.QuestionCreateRequest;
 import com.edutest.dto.QuestionDto;
 import com.edutest.dto.QuestionOptionDto;
 import com.edutest.entity.*;
+import com.edutest.event.QuestionChangedEvent;
 import com.edutest.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -20,6 +31,14 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class QuestionService {
 
+    private static final String INSERT_OPTION_PREFIX =
+            "INSERT INTO question_options (question_id, option_text, is_correct, option_order, created_at) VALUES ";
+
+    private static final String INSERT_OPTION_ROW = "(?, ?, ?, ?, NOW())";
+
+    private static final String UPDATE_OPTION_SQL =
+            "UPDATE question_options SET option_text = ?, option_order = ?, is_correct = ? WHERE id = ?";
+
     private final QuestionRepository questionRepository;
     private final QuestionOptionRepository questionOptionRepository;
     private final LevelRepository levelRepository;
@@ -27,6 +46,8 @@ public class QuestionService {
     private final SubUnitRepository subUnitRepository;
     private final ConceptRepository conceptRepository;
     private final UserAnswerRepository userAnswerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     @Transactional(readOnly = true)
     public List<QuestionDto> getAllQuestions() {
@@ -51,84 +72,21 @@ public class QuestionService {
 
     @Transactional
     public QuestionDto createQuestion(QuestionCreateRequest request) {
-        Level level = levelRepository.findById(request.getLevelId())
-                .orElseThrow(() -> new IllegalArgumentException("Level not found with id: " + request.getLevelId()));
-
-        SubUnit subUnit = null;
-        Subject subject = null;
-        if (request.getSubUnitId() != null) {
-            subUnit = subUnitRepository.findById(request.getSubUnitId())
-                    .orElseThrow(() -> new IllegalArgumentException("SubUnit not found with id: " + request.getSubUnitId()));
-
-            // Get subject from unit hierarchy
-            if (subUnit.getUnit() != null) {
-                subject = subUnit.getUnit().getSubject();
-            }
-        }
-
-        // If subject is still null, try to get it from concept
-        if (subject == null && request.getConceptIds() != null && !request.getConceptIds().isEmpty()) {
-            Concept concept = conceptRepository.findById(request.getConceptIds().get(0))
-                    .orElseThrow(() -> new IllegalArgumentException("Concept not found"));
-            if (concept.getSubUnit() != null && concept.getSubUnit().getUnit() != null) {
-                subject = concept.getSubUnit().getUnit().getSubject();
-            }
-        }
-
-        if (subject == null) {
-            throw new IllegalArgumentException("Cannot determine subject for question. Please provide valid subUnitId or conceptId.");
-        }
-
-        // Load concept (single concept instead of multiple)
-        Concept concept = null;
-        if (request.getConceptIds() != null && !request.getConceptIds().isEmpty()) {
-            Long conceptId = request.getConceptIds().get(0); // Use first concept ID
-            concept = conceptRepository.findById(conceptId)
-                    .orElseThrow(() -> new IllegalArgumentException("Concept not found with id: " + conceptId));
-        }
-
-        Question question = Question.builder()
-                .level(level)
-                .subject(subject)
-                .subUnit(subUnit)
-                .difficulty(request.getDifficulty())
-                .evalDomain(request.getEvalDomain())
-                .title("Question")
-                .content(request.getQuestionText())
-                .questionType(Question.QuestionType.valueOf(request.getQuestionType()))
-                .points(request.getPoints())
-                .referenceImage(request.getReferenceImage())
-                .referenceDocument(request.getReferenceDocument())
-                .correctAnswer(request.getCorrectAnswer())
-                .explanation(request.getExplanation())
-                .concept(concept)
-                .build();
-
+        Question question = new Question();
+        applyRequest(question, request);
         Question savedQuestion = questionRepository.save(question);
 
-        // Save options if provided
-        if (request.getOptions() != null && !request.getOptions().isEmpty()) {
-            for (QuestionOptionDto optionDto : request.getOptions()) {
-                boolean isCorrect = request.getCorrectAnswer() != null &&
-                        optionDto.getOptionText().equals(request.getCorrectAnswer());
-                QuestionOption option = QuestionOption.builder()
-                        .question(savedQuestion)
-                        .optionText(optionDto.getOptionText())
-                        .optionOrder(optionDto.getOptionOrder())
-                        .isCorrect(isCorrect)
-                        .build();
-                questionOptionRepository.save(option);
-            }
+        List<QuestionOption> options = new ArrayList<>();
+        for (QuestionOption option : desiredOptions(request)) {
+            option.setQuestion(savedQuestion);
+            options.add(option);
         }
+        insertOptions(savedQuestion.getId(), options);
+
+        eventPublisher.publishEvent(new QuestionChangedEvent(List.of(savedQuestion.getId())));
 
-        // Reload question with concepts using FETCH JOIN
-        final Long questionId = savedQuestion.getId();
-        List<Question> questions = questionRepository.findByLevelIdWithConcepts(savedQuestion.getLevel().getId());
-        savedQuestion = questions.stream()
-                .filter(q -> q.getId().equals(questionId))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Question not found after save"));
-        return convertToDto(savedQuestion);
+        // Built from what was just written; a new question has no answers yet
+        return toDto(savedQuestion, options, 0L, 0L);
     }
 
     @Transactional
@@ -136,6 +94,22 @@ public class QuestionService {
         Question question = questionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Question not found with id: " + id));
 
+        applyRequest(question, request);
+        Question updatedQuestion = questionRepository.save(question);
+
+        List<QuestionOption> options = syncOptions(updatedQuestion, request);
+
+        eventPublisher.publishEvent(new QuestionChangedEvent(List.of(id)));
+
+        return toDto(updatedQuestion, options,
+                userAnswerRepository.countDistinctUsersByQuestionId(id),
+                userAnswerRepository.countCorrectUsersByQuestionId(id));
+    }
+
+    /**
+     * Resolve the hierarchy references of a create/update request and copy its fields onto the question
+     */
+    private void applyRequest(Question question, QuestionCreateRequest request) {
         Level level = levelRepository.findById(request.getLevelId())
                 .orElseThrow(() -> new IllegalArgumentException("Level not found with id: " + request.getLevelId()));
 
@@ -151,19 +125,6 @@ public class QuestionService {
             }
         }
 
-        // If subject is still null, try to get it from concept
-        if (subject == null && request.getConceptIds() != null && !request.getConceptIds().isEmpty()) {
-            Concept concept = conceptRepository.findById(request.getConceptIds().get(0))
-                    .orElseThrow(() -> new IllegalArgumentException("Concept not found"));
-            if (concept.getSubUnit() != null && concept.getSubUnit().getUnit() != null) {
-                subject = concept.getSubUnit().getUnit().getSubject();
-            }
-        }
-
-        if (subject == null) {
-            throw new IllegalArgumentException("Cannot determine subject for question. Please provide valid subUnitId or conceptId.");
-        }
-
         // Load concept (single concept instead of multiple)
         Concept concept = null;
         if (request.getConceptIds() != null && !request.getConceptIds().isEmpty()) {
@@ -172,6 +133,15 @@ public class QuestionService {
                     .orElseThrow(() -> new IllegalArgumentException("Concept not found with id: " + conceptId));
         }
 
+        // If subject is still null, try to get it from concept
+        if (subject == null && concept != null && concept.getSubUnit() != null && concept.getSubUnit().getUnit() != null) {
+            subject = concept.getSubUnit().getUnit().getSubject();
+        }
+
+        if (subject == null) {
+            throw new IllegalArgumentException("Cannot determine subject for question. Please provide valid subUnitId or conceptId.");
+        }
+
         question.setLevel(level);
         question.setSubject(subject);
         question.setSubUnit(subUnit);
@@ -186,33 +156,113 @@ public class QuestionService {
         question.setCorrectAnswer(request.getCorrectAnswer());
         question.setExplanation(request.getExplanation());
         question.setConcept(concept);
+    }
 
-        Question updatedQuestion = questionRepository.save(question);
+    private List<QuestionOption> desiredOptions(QuestionCreateRequest request) {
+        List<QuestionOption> options = new ArrayList<>();
+        if (request.getOptions() == null) {
+            return options;
+        }
+        for (QuestionOptionDto optionDto : request.getOptions()) {
+            boolean isCorrect = request.getCorrectAnswer() != null &&
+                    optionDto.getOptionText().equals(request.getCorrectAnswer());
+            options.add(QuestionOption.builder()
+                    .id(optionDto.getId())
+                    .optionText(optionDto.getOptionText())
+                    .optionOrder(optionDto.getOptionOrder() != null ? optionDto.getOptionOrder() : options.size() + 1)
+                    .isCorrect(isCorrect)
+                    .build());
+        }
+        return options;
+    }
 
-        // Delete existing options and create new ones
-        questionOptionRepository.deleteByQuestionId(id);
+    /**
+     * Diff the stored options against the request and apply only the changes.
+     * Options are matched by id, then by text, so unchanged options keep the ids that answers refer to.
+     * Returns the resulting options in request order.
+     */
+    private List<QuestionOption> syncOptions(Question question, QuestionCreateRequest request) {
+        Map<Long, QuestionOption> unmatched = new LinkedHashMap<>();
+        for (QuestionOption option : questionOptionRepository.findByQuestionIdOrderByOptionOrderAsc(question.getId())) {
+            unmatched.put(option.getId(), option);
+        }
+
+        List<QuestionOption> desired = desiredOptions(request);
+        List<QuestionOption> result = new ArrayList<>(desired.size());
+        List<QuestionOption> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (QuestionOption option : desired) {
+            QuestionOption current = option.getId() != null ? unmatched.remove(option.getId()) : null;
+            if (current == null) {
+                current = unmatched.values().stream()
+                        .filter(o -> o.getOptionText().equals(option.getOptionText()))
+                        .findFirst()
+                        .orElse(null);
+                if (current != null) {
+                    unmatched.remove(current.getId());
+                }
+            }
 
-        if (request.getOptions() != null && !request.getOptions().isEmpty()) {
-            for (QuestionOptionDto optionDto : request.getOptions()) {
-                boolean isCorrect = request.getCorrectAnswer() != null &&
-                        optionDto.getOptionText().equals(request.getCorrectAnswer());
-                QuestionOption option = QuestionOption.builder()
-                        .question(updatedQuestion)
-                        .optionText(optionDto.getOptionText())
-                        .optionOrder(optionDto.getOptionOrder())
-                        .isCorrect(isCorrect)
-                        .build();
-                questionOptionRepository.save(option);
+            option.setQuestion(question);
+            if (current == null) {
+                option.setId(null);
+                inserts.add(option);
+            } else {
+                option.setId(current.getId());
+                option.setCreatedAt(current.getCreatedAt());
+                if (!option.getOptionText().equals(current.getOptionText())
+                        || !option.getOptionOrder().equals(current.getOptionOrder())
+                        || !option.getIsCorrect().equals(Boolean.TRUE.equals(current.getIsCorrect()))) {
+                    updates.add(new Object[]{option.getOptionText(), option.getOptionOrder(), option.getIsCorrect(), option.getId()});
+                }
             }
+            result.add(option);
+        }
+
+        if (!unmatched.isEmpty()) {
+            String ids = unmatched.keySet().stream().map(String::valueOf).collect(Collectors.joining(","));
+            // Answers keep their text; only the link to the removed option goes
+            jdbcTemplate.update("UPDATE user_answers SET selected_option_id = NULL WHERE selected_option_id IN (" + ids + ")");
+            jdbcTemplate.update("DELETE FROM question_options WHERE id IN (" + ids + ")");
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_OPTION_SQL, updates,
+                    new int[]{Types.VARCHAR, Types.INTEGER, Types.BOOLEAN, Types.BIGINT});
+        }
+        insertOptions(question.getId(), inserts);
+        return result;
+    }
+
+    /**
+     * Insert options with one multi-row statement and set their generated ids
+     * (InnoDB hands out consecutive AUTO_INCREMENT values to one multi-row insert)
+     */
+    private void insertOptions(Long questionId, List<QuestionOption> options) {
+        if (options.isEmpty()) {
+            return;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_OPTION_PREFIX);
+        for (int i = 0; i < options.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(INSERT_OPTION_ROW);
         }
 
-        // Reload question with concepts using FETCH JOIN
-        List<Question> questions = questionRepository.findByLevelIdWithConcepts(updatedQuestion.getLevel().getId());
-        updatedQuestion = questions.stream()
-                .filter(q -> q.getId().equals(id))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Question not found after update"));
-        return convertToDto(updatedQuestion);
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+            int p = 1;
+            for (QuestionOption option : options) {
+                ps.setLong(p++, questionId);
+                ps.setString(p++, option.getOptionText());
+                ps.setBoolean(p++, option.getIsCorrect());
+                ps.setInt(p++, option.getOptionOrder());
+            }
+            return ps;
+        }, keys);
+
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        for (int i = 0; i < options.size(); i++) {
+            options.get(i).setId(((Number) keyList.get(i).values().iterator().next()).longValue());
+        }
     }
 
     @Transactional
@@ -222,11 +272,19 @@ public class QuestionService {
         }
         questionOptionRepository.deleteByQuestionId(id);
         questionRepository.deleteById(id);
+        eventPublisher.publishEvent(new QuestionChangedEvent(List.of(id)));
     }
 
     private QuestionDto convertToDto(Question question) {
-        List<QuestionOptionDto> options = questionOptionRepository.findByQuestionIdOrderByOptionOrderAsc(question.getId())
-                .stream()
+        return toDto(question,
+                questionOptionRepository.findByQuestionIdOrderByOptionOrderAsc(question.getId()),
+                userAnswerRepository.countDistinctUsersByQuestionId(question.getId()),
+                userAnswerRepository.countCorrectUsersByQuestionId(question.getId()));
+    }
+
+    private QuestionDto toDto(Question question, List<QuestionOption> questionOptions, Long attemptCount, Long correctCount) {
+        List<QuestionOptionDto> options = questionOptions.stream()
+                .sorted(Comparator.comparing(QuestionOption::getOptionOrder))
                 .map(option -> QuestionOptionDto.builder()
                         .id(option.getId())
                         .optionText(option.getOptionText())
@@ -240,8 +298,8 @@ public class QuestionService {
         // For multiple choice/true-false, find from options
         if (question.getQuestionType() == Question.QuestionType.MULTIPLE_CHOICE ||
             question.getQuestionType() == Question.QuestionType.TRUE_FALSE) {
-            correctAnswer = questionOptionRepository.findByQuestionIdOrderByOptionOrderAsc(question.getId())
-                    .stream()
+            correctAnswer = questionOptions.stream()
+                    .sorted(Comparator.comparing(QuestionOption::getOptionOrder))
                     .filter(option -> option.getIsCorrect() != null && option.getIsCorrect())
                     .map(QuestionOption::getOptionText)
                     .findFirst()
@@ -263,8 +321,6 @@ public class QuestionService {
         }
 
         // Calculate statistics
-        Long attemptCount = userAnswerRepository.countDistinctUsersByQuestionId(question.getId());
-        Long correctCount = userAnswerRepository.countCorrectUsersByQuestionId(question.getId());
         Double correctRate = attemptCount > 0 ? (correctCount * 100.0 / attemptCount) : 0.0;
 
         // Get grade information from SubUnit -> Unit -> Grade
@@ -0,0 +1,154 @@
+package com.edutest.service;
+
+import com.edutest.config.ReplicaRoutingDataSource;
+import com.edutest.dto.ReviewItemDto;
+import com.edutest.event.ReviewsRescheduledEvent;
+import com.edutest.repository.ReviewItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Due-ordered review items of active students, so "what's due now" is answered from memory.
+ * A student's queue is loaded from idx_review_student_due on first use and covers items due up to a horizon;
+ * committed reschedules are applied in place and idle queues are evicted. Reschedules made on other nodes arrive
+ * through the change log and drop the student's queue, which is reloaded from the primary on next use.
+ * Items are kept in a sorted set rather than a binary heap because rescheduling removes arbitrary entries
+ * and the due list is read in order without being consumed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReviewQueue {
+
+    private static final Comparator<ReviewItemDto> DUE_ORDER = Comparator
+            .comparing(ReviewItemDto::getDueAt)
+            .thenComparing(ReviewItemDto::getQuestionId);
+
+    private final ReviewItemRepository reviewItemRepository;
+
+    @Value("${review.horizon-days:7}")
+    private int horizonDays;
+
+    @Value("${review.max-loaded-items:1000}")
+    private int maxLoadedItems;
+
+    @Value("${review.idle-evict-ms:1800000}")
+    private long idleEvictMs;
+
+    private final Map<Long, StudentQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Items of the student due at or before now, earliest first
+     */
+    public List<ReviewItemDto> getDue(Long studentId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        StudentQueue queue = queues.get(studentId);
+        if (queue == null) {
+            // Loaded outside the map: computeIfAbsent would hold the bin, and other students in it, during the query
+            StudentQueue loaded = load(studentId, now);
+            StudentQueue raced = queues.putIfAbsent(studentId, loaded);
+            queue = raced != null ? raced : loaded;
+        }
+        synchronized (queue) {
+            if (now.isAfter(queue.coveredUntil)) {
+                StudentQueue reloaded = load(studentId, now);
+                queue.replaceWith(reloaded);
+            }
+            queue.lastAccess = System.currentTimeMillis();
+
+            List<ReviewItemDto> due = new ArrayList<>(limit);
+            for (ReviewItemDto item : queue.items) {
+                if (due.size() == limit || item.getDueAt().isAfter(now)) {
+                    break;
+                }
+                due.add(item);
+            }
+            return due;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewsRescheduled(ReviewsRescheduledEvent event) {
+        if (event.isRemote()) {
+            queues.keySet().removeAll(event.getStudentIds());
+            return;
+        }
+        for (ReviewSchedule schedule : event.getSchedules()) {
+            StudentQueue queue = queues.get(schedule.getStudentId());
+            if (queue == null) {
+                continue;
+            }
+            synchronized (queue) {
+                ReviewItemDto previous = queue.byQuestion.remove(schedule.getQuestionId());
+                if (previous != null) {
+                    queue.items.remove(previous);
+                }
+                // Items beyond the loaded range are picked up by the next reload
+                if (!schedule.getDueAt().isAfter(queue.coveredUntil)) {
+                    queue.add(ReviewItemDto.builder()
+                            .questionId(schedule.getQuestionId())
+                            .dueAt(schedule.getDueAt())
+                            .repetitions(schedule.getRepetitions())
+                            .intervalDays(schedule.getIntervalDays())
+                            .easeFactor(schedule.getEaseFactor())
+                            .lapses(schedule.getLapses())
+                            .build());
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${review.idle-evict-ms:1800000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMs;
+        queues.values().removeIf(queue -> queue.lastAccess < cutoff);
+    }
+
+    private StudentQueue load(Long studentId, LocalDateTime now) {
+        LocalDateTime horizon = now.plusDays(horizonDays);
+        // The queue outlives the request, so a lagging replica must not be loaded into it
+        List<ReviewItemDto> rows = ReplicaRoutingDataSource.onPrimary(() ->
+                reviewItemRepository.findDueBefore(studentId, horizon, PageRequest.of(0, maxLoadedItems)));
+
+        // A full page may have cut off later items, so only the range up to the last loaded item is complete
+        LocalDateTime coveredUntil = rows.size() == maxLoadedItems ? rows.get(rows.size() - 1).getDueAt() : horizon;
+        StudentQueue queue = new StudentQueue(coveredUntil);
+        rows.forEach(queue::add);
+        return queue;
+    }
+
+    private static class StudentQueue {
+        private final TreeSet<ReviewItemDto> items = new TreeSet<>(DUE_ORDER);
+        private final Map<Long, ReviewItemDto> byQuestion = new HashMap<>();
+        private LocalDateTime coveredUntil;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        StudentQueue(LocalDateTime coveredUntil) {
+            this.coveredUntil = coveredUntil;
+        }
+
+        void add(ReviewItemDto item) {
+            items.add(item);
+            byQuestion.put(item.getQuestionId(), item);
+        }
+
+        void replaceWith(StudentQueue other) {
+            items.clear();
+            byQuestion.clear();
+            other.items.forEach(this::add);
+            coveredUntil = other.coveredUntil;
+        }
+    }
+}
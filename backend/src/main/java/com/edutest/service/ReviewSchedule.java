@@ -0,0 +1,63 @@
+package com.edutest.service;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * SM-2 state of one (student, question) review item while it is being rescheduled.
+ * A correct answer counts as recall quality 4 and a wrong one as quality 1.
+ */
+@Getter
+public class ReviewSchedule {
+
+    private static final double MIN_EASE = 1.3;
+    private static final double INITIAL_EASE = 2.5;
+    private static final int CORRECT_QUALITY = 4;
+    private static final int WRONG_QUALITY = 1;
+
+    private final Long studentId;
+    private final Long questionId;
+    private int repetitions;
+    private int intervalDays;
+    private double easeFactor;
+    private int lapses;
+    private LocalDateTime dueAt;
+    private LocalDateTime lastReviewedAt;
+
+    ReviewSchedule(Long studentId, Long questionId, int repetitions, int intervalDays, double easeFactor, int lapses) {
+        this.studentId = studentId;
+        this.questionId = questionId;
+        this.repetitions = repetitions;
+        this.intervalDays = intervalDays;
+        this.easeFactor = easeFactor;
+        this.lapses = lapses;
+    }
+
+    static ReviewSchedule newItem(Long studentId, Long questionId) {
+        return new ReviewSchedule(studentId, questionId, 0, 0, INITIAL_EASE, 0);
+    }
+
+    void review(boolean correct, LocalDateTime at) {
+        int quality = correct ? CORRECT_QUALITY : WRONG_QUALITY;
+        if (correct) {
+            repetitions++;
+            if (repetitions == 1) {
+                intervalDays = 1;
+            } else if (repetitions == 2) {
+                intervalDays = 6;
+            } else {
+                intervalDays = (int) Math.round(intervalDays * easeFactor);
+            }
+        } else {
+            // Lapse: start over, due again the next day
+            repetitions = 0;
+            intervalDays = 1;
+            lapses++;
+        }
+        easeFactor = Math.max(MIN_EASE,
+                easeFactor + 0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
+        lastReviewedAt = at;
+        dueAt = at.plusDays(intervalDays);
+    }
+}
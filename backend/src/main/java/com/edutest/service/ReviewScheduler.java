@@ -0,0 +1,169 @@
+package com.edutest.service;
+
+import com.edutest.event.AttemptsFlushedEvent;
+import com.edutest.event.ReviewsRescheduledEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps review_items in step with the attempt log.
+ * Runs inside the attempt flush transaction: the current states of the batch's (student, question) pairs are
+ * read with one query per chunk, advanced in memory in attempt order and written back with multi-row upserts.
+ * A wrong answer creates a review item; later attempts of that question reschedule it. Attempts on questions
+ * deleted since grading are skipped, so they cannot fail the flush.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewScheduler {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String SELECT_PREFIX =
+            "SELECT student_id, question_id, repetitions, interval_days, ease_factor, lapses " +
+            "FROM review_items WHERE (student_id, question_id) IN (";
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO review_items " +
+            "(student_id, question_id, repetitions, interval_days, ease_factor, lapses, due_at, last_reviewed_at) " +
+            "VALUES ";
+
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_SUFFIX =
+            " ON DUPLICATE KEY UPDATE " +
+            "repetitions = VALUES(repetitions), " +
+            "interval_days = VALUES(interval_days), " +
+            "ease_factor = VALUES(ease_factor), " +
+            "lapses = VALUES(lapses), " +
+            "due_at = VALUES(due_at), " +
+            "last_reviewed_at = VALUES(last_reviewed_at)";
+
+    // (student_id, question_id) in unique-key order, so upserts lock rows in a consistent order
+    private static final Comparator<List<Long>> KEY_ORDER = Comparator
+            .comparing((List<Long> k) -> k.get(0))
+            .thenComparing(k -> k.get(1));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @EventListener
+    public void onAttemptsFlushed(AttemptsFlushedEvent event) {
+        List<GradedAttempt> attempts = new ArrayList<>(event.getAttempts());
+        attempts.sort(Comparator.comparing(GradedAttempt::getAttemptedAt));
+
+        Set<List<Long>> pairs = new LinkedHashSet<>();
+        for (GradedAttempt attempt : attempts) {
+            pairs.add(List.of(attempt.getStudentId(), attempt.getQuestionId()));
+        }
+        Map<List<Long>, ReviewSchedule> states = load(pairs);
+
+        Map<List<Long>, ReviewSchedule> changed = new TreeMap<>(KEY_ORDER);
+        for (GradedAttempt attempt : attempts) {
+            List<Long> key = List.of(attempt.getStudentId(), attempt.getQuestionId());
+            ReviewSchedule state = states.get(key);
+            if (state == null) {
+                if (attempt.isCorrect()) {
+                    // Nothing to review yet
+                    continue;
+                }
+                state = ReviewSchedule.newItem(attempt.getStudentId(), attempt.getQuestionId());
+                states.put(key, state);
+            }
+            state.review(attempt.isCorrect(), attempt.getAttemptedAt());
+            changed.put(key, state);
+        }
+
+        // A question deleted since grading would fail the foreign key and roll back the attempt insert with it
+        Set<Long> existing = existingQuestions(changed.keySet());
+        changed.keySet().removeIf(key -> !existing.contains(key.get(1)));
+
+        if (!changed.isEmpty()) {
+            List<ReviewSchedule> schedules = new ArrayList<>(changed.values());
+            upsert(schedules);
+            eventPublisher.publishEvent(new ReviewsRescheduledEvent(schedules));
+        }
+    }
+
+    private Map<List<Long>, ReviewSchedule> load(Set<List<Long>> pairs) {
+        Map<List<Long>, ReviewSchedule> states = new HashMap<>();
+        List<List<Long>> all = new ArrayList<>(pairs);
+        for (int from = 0; from < all.size(); from += ROWS_PER_STATEMENT) {
+            List<List<Long>> chunk = all.subList(from, Math.min(from + ROWS_PER_STATEMENT, all.size()));
+
+            StringBuilder sql = new StringBuilder(SELECT_PREFIX);
+            Object[] params = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i > 0 ? ", (?, ?)" : "(?, ?)");
+                params[i * 2] = chunk.get(i).get(0);
+                params[i * 2 + 1] = chunk.get(i).get(1);
+            }
+            sql.append(")");
+
+            jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+                ReviewSchedule state = new ReviewSchedule(
+                        rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getDouble(5), rs.getInt(6));
+                states.put(List.of(state.getStudentId(), state.getQuestionId()), state);
+            }, params);
+        }
+        return states;
+    }
+
+    /**
+     * Question ids among the keys that still exist; FOR SHARE keeps them from being deleted until the flush commits
+     */
+    private Set<Long> existingQuestions(Set<List<Long>> keys) {
+        List<Long> questionIds = keys.stream().map(key -> key.get(1)).distinct().toList();
+        Set<Long> existing = new HashSet<>();
+        for (int from = 0; from < questionIds.size(); from += ROWS_PER_STATEMENT) {
+            List<Long> chunk = questionIds.subList(from, Math.min(from + ROWS_PER_STATEMENT, questionIds.size()));
+            String in = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            existing.addAll(jdbcTemplate.queryForList(
+                    "SELECT id FROM questions WHERE id IN (" + in + ") FOR SHARE", Long.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    private void upsert(List<ReviewSchedule> schedules) {
+        for (int from = 0; from < schedules.size(); from += ROWS_PER_STATEMENT) {
+            List<ReviewSchedule> chunk = schedules.subList(from, Math.min(from + ROWS_PER_STATEMENT, schedules.size()));
+
+            StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+            Object[] params = new Object[chunk.size() * 8];
+            int p = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(UPSERT_ROW);
+
+                ReviewSchedule s = chunk.get(i);
+                params[p++] = s.getStudentId();
+                params[p++] = s.getQuestionId();
+                params[p++] = s.getRepetitions();
+                params[p++] = s.getIntervalDays();
+                params[p++] = s.getEaseFactor();
+                params[p++] = s.getLapses();
+                params[p++] = Timestamp.valueOf(s.getDueAt());
+                params[p++] = Timestamp.valueOf(s.getLastReviewedAt());
+            }
+            sql.append(UPSERT_SUFFIX);
+            jdbcTemplate.update(sql.toString(), params);
+        }
+    }
+}
@@ -240,6 +240,29 @@ public class SecretService {
         }
     }
 
+    /**
+     * Delete an image from S3
+     * @param s3Key The S3 key (path) of the image
+     */
+    public void deleteImage(String s3Key) {
+        if (s3Client == null) {
+            throw new RuntimeException("S3 is not configured. Cannot delete image.");
+        }
+
+        try {
+            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(s3Key)
+                    .build();
+
+            s3Client.deleteObject(deleteObjectRequest);
+            log.info("Image deleted successfully from S3: {}", s3Key);
+        } catch (S3Exception e) {
+            log.error("Failed to delete image from S3: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to delete image from S3: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Check if an image exists in S3
      * @param s3Key The S3 key (path) of the image
@@ -0,0 +1,254 @@
+package com.edutest.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sparse order keys for the siblings of one curriculum parent (grades of a level, units of a grade, ...).
+ *
+ * Siblings are ordered by (order_index, id). New items get the last key plus {@link #GAP}; a moved item gets a
+ * key between its new neighbours, so a move writes only the moved row. When two neighbours have no key left
+ * between them the parent's siblings are renumbered in one statement and the move is retried.
+ * Callers run these methods inside their own transaction; moves and appends lock the parent row first, so they
+ * serialize per parent and never compute a key from neighbours another transaction is changing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SiblingOrderService {
+
+    public static final int GAP = 1024;
+
+    // Leave room below/above so keys computed from the ends never overflow
+    private static final long MIN_KEY = Integer.MIN_VALUE + (long) GAP;
+    private static final long MAX_KEY = Integer.MAX_VALUE - (long) GAP;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sibling scopes: table, the column that holds the parent id and the parent's table
+     */
+    public enum Scope {
+        GRADE("grades", "level_id", "levels", "Grade"),
+        UNIT("units", "grade_id", "grades", "Unit"),
+        SUB_UNIT("sub_units", "unit_id", "units", "SubUnit"),
+        CONCEPT("concepts", "sub_unit_id", "sub_units", "Concept");
+
+        private final String table;
+        private final String parentColumn;
+        private final String parentTable;
+        private final String label;
+
+        Scope(String table, String parentColumn, String parentTable, String label) {
+            this.table = table;
+            this.parentColumn = parentColumn;
+            this.parentTable = parentTable;
+            this.label = label;
+        }
+    }
+
+    /**
+     * Key for an item appended after the current last sibling of the parent
+     */
+    public int nextKey(Scope scope, Long parentId) {
+        lockParentRow(scope, parentId);
+        Integer max = jdbcTemplate.queryForObject(
+                "SELECT MAX(order_index) FROM " + scope.table + " WHERE " + scope.parentColumn + " <=> ?",
+                Integer.class, parentId);
+        if (max == null) {
+            return GAP;
+        }
+        if (max + (long) GAP > MAX_KEY) {
+            renormalize(scope, parentId);
+            return nextKey(scope, parentId);
+        }
+        return max + GAP;
+    }
+
+    /**
+     * Move an item directly before {@code beforeId}, directly after {@code afterId},
+     * or to the zero-based {@code index} among its siblings (exactly one must be given)
+     */
+    public void move(Scope scope, Long id, Long beforeId, Long afterId, Integer index) {
+        int given = (beforeId != null ? 1 : 0) + (afterId != null ? 1 : 0) + (index != null ? 1 : 0);
+        if (given != 1) {
+            throw new IllegalArgumentException("Give exactly one of beforeId, afterId or index");
+        }
+
+        Long parentId = lockParentOf(scope, id);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Key[] neighbours;
+            if (beforeId != null) {
+                Key next = key(scope, parentId, beforeId, id);
+                neighbours = new Key[]{neighbour(scope, parentId, id, next, false), next};
+            } else if (afterId != null) {
+                Key previous = key(scope, parentId, afterId, id);
+                neighbours = new Key[]{previous, neighbour(scope, parentId, id, previous, true)};
+            } else {
+                neighbours = atIndex(scope, parentId, id, index);
+            }
+
+            Long key = between(neighbours[0], neighbours[1]);
+            if (key != null) {
+                jdbcTemplate.update("UPDATE " + scope.table + " SET order_index = ? WHERE id = ?", key, id);
+                return;
+            }
+            renormalize(scope, parentId);
+        }
+        throw new IllegalStateException("No order key available after renumbering " + scope.table);
+    }
+
+    /**
+     * Move an item one place "up" or "down"; a no-op at either end
+     */
+    public void step(Scope scope, Long id, String direction) {
+        Long parentId = lockParentOf(scope, id);
+        Key current = key(scope, parentId, id, null);
+        if ("up".equals(direction)) {
+            Key previous = neighbour(scope, parentId, id, current, false);
+            if (previous != null) {
+                move(scope, id, previous.id, null, null);
+            }
+        } else if ("down".equals(direction)) {
+            Key next = neighbour(scope, parentId, id, current, true);
+            if (next != null) {
+                move(scope, id, null, next.id, null);
+            }
+        } else {
+            throw new IllegalArgumentException("direction must be 'up' or 'down'");
+        }
+    }
+
+    /**
+     * Renumber the siblings of a parent to GAP, 2 * GAP, ... keeping their order, in one statement
+     */
+    public int renormalize(Scope scope, Long parentId) {
+        int updated = jdbcTemplate.update(
+                "UPDATE " + scope.table + " t JOIN (" +
+                "SELECT id, ROW_NUMBER() OVER (ORDER BY order_index, id) AS position FROM " + scope.table +
+                " WHERE " + scope.parentColumn + " <=> ?) ordered ON ordered.id = t.id " +
+                "SET t.order_index = ordered.position * ?",
+                parentId, GAP);
+        log.info("Renumbered {} {} rows under parent {}", updated, scope.table, parentId);
+        return updated;
+    }
+
+    /**
+     * Lock the parent row of the item, then the item itself, and return the parent id.
+     * The parent goes first so two moves under one parent cannot each hold a sibling the other's renumbering needs.
+     */
+    private Long lockParentOf(Scope scope, Long id) {
+        Long parentId = parentOf(scope, id, "");
+        while (true) {
+            lockParentRow(scope, parentId);
+            Long locked = parentOf(scope, id, " FOR UPDATE");
+            if (Objects.equals(locked, parentId)) {
+                return parentId;
+            }
+            // Moved to another parent in between: lock that one instead
+            parentId = locked;
+        }
+    }
+
+    // Items without a parent have no row to lock; they are ordered without serializing
+    private void lockParentRow(Scope scope, Long parentId) {
+        if (parentId != null) {
+            jdbcTemplate.query("SELECT id FROM " + scope.parentTable + " WHERE id = ? FOR UPDATE",
+                    (rs, i) -> rs.getLong(1), parentId);
+        }
+    }
+
+    private Long parentOf(Scope scope, Long id, String lock) {
+        List<Long> parent = jdbcTemplate.query(
+                "SELECT " + scope.parentColumn + " FROM " + scope.table + " WHERE id = ?" + lock,
+                (rs, i) -> rs.getObject(1, Long.class), id);
+        if (parent.isEmpty()) {
+            throw new IllegalArgumentException(scope.label + " not found with id: " + id);
+        }
+        return parent.get(0);
+    }
+
+    private Key key(Scope scope, Long parentId, Long siblingId, Long movedId) {
+        if (siblingId.equals(movedId)) {
+            throw new IllegalArgumentException("Cannot move a " + scope.label + " relative to itself");
+        }
+        List<Key> keys = jdbcTemplate.query(
+                "SELECT id, order_index FROM " + scope.table + " WHERE id = ? AND " + scope.parentColumn + " <=> ?",
+                (rs, i) -> new Key(rs.getLong(1), rs.getInt(2)), siblingId, parentId);
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException(scope.label + " " + siblingId + " is not a sibling of " + movedId);
+        }
+        return keys.get(0);
+    }
+
+    // Sibling right after (or before) the given key, ignoring the moved row
+    private Key neighbour(Scope scope, Long parentId, Long movedId, Key of, boolean after) {
+        String sql = "SELECT id, order_index FROM " + scope.table +
+                " WHERE " + scope.parentColumn + " <=> ? AND id <> ? AND " +
+                (after ? "(order_index > ? OR (order_index = ? AND id > ?)) ORDER BY order_index, id"
+                       : "(order_index < ? OR (order_index = ? AND id < ?)) ORDER BY order_index DESC, id DESC") +
+                " LIMIT 1";
+        List<Key> keys = jdbcTemplate.query(sql, (rs, i) -> new Key(rs.getLong(1), rs.getInt(2)),
+                parentId, movedId, of.orderIndex, of.orderIndex, of.id);
+        return keys.isEmpty() ? null : keys.get(0);
+    }
+
+    private Key[] atIndex(Scope scope, Long parentId, Long movedId, int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("index must not be negative");
+        }
+        // Rows at positions index - 1 and index once the moved row is taken out
+        int offset = Math.max(0, index - 1);
+        List<Key> keys = jdbcTemplate.query(
+                "SELECT id, order_index FROM " + scope.table + " WHERE " + scope.parentColumn + " <=> ? AND id <> ? " +
+                "ORDER BY order_index, id LIMIT 2 OFFSET ?",
+                (rs, i) -> new Key(rs.getLong(1), rs.getInt(2)), parentId, movedId, offset);
+        if (keys.isEmpty() && index > 0) {
+            // Past the end: append after the last sibling
+            List<Key> last = jdbcTemplate.query(
+                    "SELECT id, order_index FROM " + scope.table + " WHERE " + scope.parentColumn + " <=> ? AND id <> ? " +
+                    "ORDER BY order_index DESC, id DESC LIMIT 1",
+                    (rs, i) -> new Key(rs.getLong(1), rs.getInt(2)), parentId, movedId);
+            return new Key[]{last.isEmpty() ? null : last.get(0), null};
+        }
+        if (index == 0) {
+            return new Key[]{null, keys.isEmpty() ? null : keys.get(0)};
+        }
+        return new Key[]{keys.isEmpty() ? null : keys.get(0), keys.size() < 2 ? null : keys.get(1)};
+    }
+
+    /**
+     * Key strictly between the neighbours, or null when there is none
+     */
+    private static Long between(Key previous, Key next) {
+        if (previous == null && next == null) {
+            return (long) GAP;
+        }
+        if (previous == null) {
+            long key = (long) next.orderIndex - GAP;
+            return key >= MIN_KEY ? key : null;
+        }
+        if (next == null) {
+            long key = (long) previous.orderIndex + GAP;
+            return key <= MAX_KEY ? key : null;
+        }
+        long low = previous.orderIndex;
+        long high = next.orderIndex;
+        return high - low >= 2 ? low + (high - low) / 2 : null;
+    }
+
+    private static class Key {
+        private final long id;
+        private final int orderIndex;
+
+        Key(long id, int orderIndex) {
+            this.id = id;
+            this.orderIndex = orderIndex;
+        }
+    }
+}
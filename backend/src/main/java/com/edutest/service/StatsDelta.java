@@ -0,0 +1,30 @@
+package com.edutest.service;
+
+import lombok.Getter;
+
+/**
+ * Attempt and correct counts to add to one student_stats row
+ */
+@Getter
+public class StatsDelta {
+
+    private long attempts;
+    private long correct;
+
+    public StatsDelta() {
+    }
+
+    public StatsDelta(long attempts, long correct) {
+        this.attempts = attempts;
+        this.correct = correct;
+    }
+
+    public void add(long attempts, long correct) {
+        this.attempts += attempts;
+        this.correct += correct;
+    }
+
+    public double correctRate() {
+        return attempts > 0 ? (double) correct / attempts * 100.0 : 0.0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.edutest.service;
+
+import com.edutest.entity.StudentStats.StatsType;
+import lombok.Data;
+
+import java.util.Comparator;
+
+/**
+ * Identifies one student_stats row: (student, stats type, entity id).
+ * OVERALL rows use {@link com.edutest.entity.StudentStats#OVERALL_ENTITY_ID} so the unique key applies.
+ */
+@Data
+public class StatsKey implements Comparable<StatsKey> {
+
+    // Same order as the unique key; upserts touch rows in this order to avoid lock-order deadlocks
+    private static final Comparator<StatsKey> ORDER = Comparator
+            .comparing(StatsKey::getStudentId)
+            .thenComparing(StatsKey::getStatsType)
+            .thenComparing(StatsKey::getEntityId);
+
+    private final Long studentId;
+    private final StatsType statsType;
+    private final Long entityId;
+
+    @Override
+    public int compareTo(StatsKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,378 @@
+package com.edutest.service;
+
+import com.edutest.dto.StatsRebuildStatusDto;
+import com.edutest.event.StudentStatsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rebuilds student_stats from student_question_attempts, the source of truth.
+ *
+ * Student ids are split into fixed-size ranges that are processed in parallel on a dedicated fork-join pool.
+ * Each partition streams its attempts ordered by student (idx_student_attempted), aggregates all hierarchy
+ * levels for one student at a time and swaps that student's rows in a single transaction, so readers see
+ * either the old or the rebuilt stats. Only one rebuild runs at a time; queued as a stats-rebuild job it runs on
+ * whichever node claims it.
+ *
+ * Each partition starts from a cut: with submissions on this node paused for a moment, the write buffer and the
+ * live deltas are flushed and the highest attempt id is taken, so the attempts up to that id are exactly the ones
+ * student_stats counts. The partition streams only those, and live flushes keep its students' deltas in memory
+ * (readers still see them) until its swaps are done, so attempts graded meanwhile are added on top exactly once.
+ * Submissions on other nodes are not paused: for students of the partition being rebuilt, their attempts may be
+ * lost (flushed before the swap) or counted twice (inserted before the cut, flushed after the swap), so run the
+ * rebuild while other nodes are quiet. Attempts still waiting for an insert retry at the cut are not counted.
+ *
+ * The rebuild refuses to run once {@link AttemptArchiveService} has archived a partition: the archived months
+ * are no longer in student_question_attempts, so rebuilt stats would silently lose them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatsRebuildService implements JobHandler {
+
+    public static final String JOB_TYPE = "stats-rebuild";
+
+    private static final String RANGE_SQL =
+            "SELECT MIN(student_id), MAX(student_id) FROM student_question_attempts";
+
+    private static final String STATS_RANGE_SQL =
+            "SELECT MIN(student_id), MAX(student_id) FROM student_stats";
+
+    private static final String PARTITION_SQL =
+            "SELECT student_id, is_correct, concept_id, sub_unit_id, unit_id, grade_id, level_id " +
+            "FROM student_question_attempts " +
+            "WHERE student_id >= ? AND student_id < ? AND id <= ? " +
+            "ORDER BY student_id";
+
+    private static final String HIGH_WATER_MARK_SQL = "SELECT COALESCE(MAX(id), 0) FROM student_question_attempts";
+
+    private static final String ARCHIVED_SQL = "SELECT EXISTS (SELECT 1 FROM attempt_archives)";
+
+    private static final String ARCHIVED_MESSAGE =
+            "Attempts have been archived; a rebuild from student_question_attempts would drop their history";
+
+    private static final String DELETE_STUDENT_SQL = "DELETE FROM student_stats WHERE student_id = ?";
+
+    // Stats left over for students whose attempts are all gone
+    private static final String DELETE_ORPHANS_SQL =
+            "DELETE FROM student_stats " +
+            "WHERE student_id >= ? AND student_id < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM student_question_attempts a WHERE a.student_id = student_stats.student_id)";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatsRollupEngine statsRollupEngine;
+    private final LiveStatsAccumulator liveStatsAccumulator;
+    private final AttemptWriteBuffer attemptWriteBuffer;
+    private final AttemptIngestionService attemptIngestionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${stats.rebuild.partition-size:1000}")
+    private long partitionSize;
+
+    @Value("${stats.rebuild.parallelism:4}")
+    private int parallelism;
+
+    private final AtomicReference<RebuildJob> currentJob = new AtomicReference<>();
+
+    public StatsRebuildStatusDto start() {
+        RebuildJob job = begin();
+        Thread coordinator = new Thread(() -> run(job), "stats-rebuild");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return toDto(job);
+    }
+
+    /**
+     * Same as {@link #start} on the calling thread; throws if the rebuild fails
+     */
+    public StatsRebuildStatusDto rebuild() {
+        return runToEnd(begin());
+    }
+
+    private StatsRebuildStatusDto runToEnd(RebuildJob job) {
+        run(job);
+        if (job.state.get() == State.FAILED) {
+            throw new IllegalStateException("Stats rebuild failed: " + job.error);
+        }
+        return toDto(job);
+    }
+
+    @Override
+    public String type() {
+        return JOB_TYPE;
+    }
+
+    @Override
+    public Map<String, Object> handle(JobContext context) {
+        if (hasArchivedAttempts()) {
+            // Fails the job for good; retrying cannot help
+            throw new IllegalArgumentException(ARCHIVED_MESSAGE);
+        }
+        RebuildJob job = begin();
+        // Registered on this job itself; a cancel that came in while begin() ran is applied right away
+        context.onCancel(() -> job.cancelled = true);
+        StatsRebuildStatusDto status = runToEnd(job);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", status.getState());
+        result.put("studentsRebuilt", status.getStudentsRebuilt());
+        result.put("attemptsScanned", status.getAttemptsScanned());
+        return result;
+    }
+
+    private RebuildJob begin() {
+        RebuildJob running = currentJob.get();
+        if (running != null && running.state.get() == State.RUNNING) {
+            throw new IllegalStateException("A stats rebuild is already running");
+        }
+        if (hasArchivedAttempts()) {
+            throw new IllegalStateException(ARCHIVED_MESSAGE);
+        }
+
+        List<long[]> partitions = partitions();
+        RebuildJob job = new RebuildJob(partitions);
+        if (!currentJob.compareAndSet(running, job)) {
+            throw new IllegalStateException("A stats rebuild is already running");
+        }
+        log.info("Started student stats rebuild over {} partitions with parallelism {}", partitions.size(), parallelism);
+        return job;
+    }
+
+    public StatsRebuildStatusDto getStatus() {
+        RebuildJob job = currentJob.get();
+        if (job == null) {
+            throw new IllegalArgumentException("No stats rebuild has been started");
+        }
+        return toDto(job);
+    }
+
+    public StatsRebuildStatusDto cancel() {
+        RebuildJob job = currentJob.get();
+        if (job == null || job.state.get() != State.RUNNING) {
+            throw new IllegalArgumentException("No stats rebuild is running");
+        }
+        job.cancelled = true;
+        return toDto(job);
+    }
+
+    private boolean hasArchivedAttempts() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(ARCHIVED_SQL, Boolean.class));
+    }
+
+    private List<long[]> partitions() {
+        long[] bounds = {Long.MAX_VALUE, Long.MIN_VALUE};
+        for (String sql : List.of(RANGE_SQL, STATS_RANGE_SQL)) {
+            jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                long min = rs.getLong(1);
+                if (!rs.wasNull()) {
+                    bounds[0] = Math.min(bounds[0], min);
+                    bounds[1] = Math.max(bounds[1], rs.getLong(2));
+                }
+            });
+        }
+        long min = bounds[0];
+        long max = bounds[1];
+
+        List<long[]> partitions = new ArrayList<>();
+        if (min > max) {
+            return partitions;
+        }
+        for (long from = min; from <= max; from += partitionSize) {
+            partitions.add(new long[]{from, Math.min(from + partitionSize, max + 1)});
+        }
+        return partitions;
+    }
+
+    private void run(RebuildJob job) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            if (!job.partitions.isEmpty()) {
+                pool.invoke(new PartitionTask(job, job.partitions, 0, job.partitions.size()));
+            }
+            job.state.set(job.cancelled ? State.CANCELLED : State.COMPLETED);
+            log.info("Student stats rebuild {}: {} students, {} attempts",
+                    job.state.get(), job.studentsRebuilt.get(), job.attemptsScanned.get());
+        } catch (CancellationException e) {
+            job.state.set(State.CANCELLED);
+            log.info("Student stats rebuild cancelled after {} students", job.studentsRebuilt.get());
+        } catch (Exception e) {
+            job.error = e.getMessage();
+            job.state.set(State.FAILED);
+            log.error("Student stats rebuild failed: {}", e.getMessage(), e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            pool.shutdown();
+            eventPublisher.publishEvent(StudentStatsChangedEvent.all());
+        }
+    }
+
+    private void rebuildPartition(RebuildJob job, long fromStudentId, long toStudentId) {
+        if (job.cancelled) {
+            throw new CancellationException();
+        }
+
+        // The cut: nothing graded here is half way between the attempt log and student_stats
+        long highWaterMark = attemptIngestionService.paused(() -> {
+            attemptWriteBuffer.flush();
+            liveStatsAccumulator.flush();
+            Long maxId = jdbcTemplate.queryForObject(HIGH_WATER_MARK_SQL, Long.class);
+            liveStatsAccumulator.hold(fromStudentId, toStudentId);
+            return maxId;
+        });
+        try {
+            // Stream rows instead of loading the whole partition (MySQL streams with fetch size Integer.MIN_VALUE)
+            JdbcTemplate streaming = new JdbcTemplate(dataSource);
+            streaming.setFetchSize(Integer.MIN_VALUE);
+
+            StudentAggregator aggregator = new StudentAggregator(job);
+            streaming.query(PARTITION_SQL, (RowCallbackHandler) rs -> {
+                if (job.cancelled) {
+                    throw new CancellationException();
+                }
+                aggregator.accept(GradedAttempt.builder()
+                        .studentId(rs.getLong(1))
+                        .correct(rs.getBoolean(2))
+                        .conceptId(rs.getObject(3, Long.class))
+                        .subUnitId(rs.getObject(4, Long.class))
+                        .unitId(rs.getObject(5, Long.class))
+                        .gradeId(rs.getObject(6, Long.class))
+                        .levelId(rs.getObject(7, Long.class))
+                        .build());
+            }, fromStudentId, toStudentId, highWaterMark);
+            aggregator.finish();
+
+            jdbcTemplate.update(DELETE_ORPHANS_SQL, fromStudentId, toStudentId);
+        } finally {
+            // Deltas graded since the cut go on top of the rebuilt rows with the next flush
+            liveStatsAccumulator.release(fromStudentId, toStudentId);
+        }
+        job.completedPartitions.incrementAndGet();
+    }
+
+    private void swap(Long studentId, Map<StatsKey, StatsDelta> stats) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DELETE_STUDENT_SQL, studentId);
+            statsRollupEngine.apply(stats);
+        });
+    }
+
+    private StatsRebuildStatusDto toDto(RebuildJob job) {
+        LocalDateTime end = job.finishedAt != null ? job.finishedAt : LocalDateTime.now();
+        long elapsedMs = Math.max(1, ChronoUnit.MILLIS.between(job.startedAt, end));
+        return StatsRebuildStatusDto.builder()
+                .state(job.state.get().name())
+                .totalPartitions(job.totalPartitions)
+                .completedPartitions(job.completedPartitions.get())
+                .studentsRebuilt(job.studentsRebuilt.get())
+                .attemptsScanned(job.attemptsScanned.get())
+                .attemptsPerSecond(job.attemptsScanned.get() * 1000.0 / elapsedMs)
+                .startedAt(job.startedAt)
+                .finishedAt(job.finishedAt)
+                .error(job.error)
+                .build();
+    }
+
+    private enum State {
+        RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    private static class RebuildJob {
+        private final List<long[]> partitions;
+        private final int totalPartitions;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
+        private final AtomicInteger completedPartitions = new AtomicInteger();
+        private final AtomicLong studentsRebuilt = new AtomicLong();
+        private final AtomicLong attemptsScanned = new AtomicLong();
+        private volatile boolean cancelled;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        RebuildJob(List<long[]> partitions) {
+            this.partitions = partitions;
+            this.totalPartitions = partitions.size();
+        }
+    }
+
+    /**
+     * Splits the partition list in halves until a single partition remains, then rebuilds it
+     */
+    private class PartitionTask extends RecursiveAction {
+        private final RebuildJob job;
+        private final List<long[]> partitions;
+        private final int from;
+        private final int to;
+
+        PartitionTask(RebuildJob job, List<long[]> partitions, int from, int to) {
+            this.job = job;
+            this.partitions = partitions;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                long[] range = partitions.get(from);
+                rebuildPartition(job, range[0], range[1]);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new PartitionTask(job, partitions, from, mid), new PartitionTask(job, partitions, mid, to));
+        }
+    }
+
+    /**
+     * Aggregates the rows of one student at a time; rows arrive ordered by student id
+     */
+    private class StudentAggregator {
+        private final RebuildJob job;
+        private Long studentId;
+        private Map<StatsKey, StatsDelta> stats = new TreeMap<>();
+
+        StudentAggregator(RebuildJob job) {
+            this.job = job;
+        }
+
+        void accept(GradedAttempt attempt) {
+            if (studentId != null && !studentId.equals(attempt.getStudentId())) {
+                finish();
+            }
+            studentId = attempt.getStudentId();
+            long correct = attempt.isCorrect() ? 1 : 0;
+            StatsRollupEngine.forEachKey(attempt, key -> stats.computeIfAbsent(key, k -> new StatsDelta()).add(1, correct));
+            job.attemptsScanned.incrementAndGet();
+        }
+
+        void finish() {
+            if (studentId != null) {
+                swap(studentId, stats);
+                job.studentsRebuilt.incrementAndGet();
+            }
+            studentId = null;
+            stats = new TreeMap<>();
+        }
+    }
+}
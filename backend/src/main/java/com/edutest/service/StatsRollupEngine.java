@@ -0,0 +1,124 @@
+package com.edutest.service;
+
+import com.edutest.entity.StudentStats;
+import com.edutest.entity.StudentStats.StatsType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Rolls attempts up into student_stats at every hierarchy level.
+ *
+ * A batch of attempts is first aggregated in memory into one delta per (student, statsType, entityId);
+ * the deltas are then applied with multi-row INSERT ... ON DUPLICATE KEY UPDATE against the
+ * (student_id, stats_type, entity_id) unique key. Increments happen inside MySQL, so concurrent
+ * writers never lose counts, and correct_rate is recomputed from the updated counters in the same statement.
+ *
+ * Live attempts reach this engine through {@link LiveStatsAccumulator}, which applies one delta map per flush interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatsRollupEngine {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String UPSERT_PREFIX =
+            "INSERT INTO student_stats " +
+            "(student_id, stats_type, entity_id, attempt_count, correct_count, correct_rate, last_updated) VALUES ";
+
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?, NOW())";
+
+    // MySQL applies assignments left to right, so correct_rate sees the already incremented counters
+    private static final String UPSERT_SUFFIX =
+            " ON DUPLICATE KEY UPDATE " +
+            "attempt_count = attempt_count + VALUES(attempt_count), " +
+            "correct_count = correct_count + VALUES(correct_count), " +
+            "correct_rate = correct_count * 100.0 / attempt_count, " +
+            "last_updated = VALUES(last_updated)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sum attempts into one delta per stats row. The returned map is sorted in unique-key order.
+     */
+    public Map<StatsKey, StatsDelta> aggregate(Collection<GradedAttempt> attempts) {
+        Map<StatsKey, StatsDelta> deltas = new TreeMap<>();
+        for (GradedAttempt attempt : attempts) {
+            long correct = attempt.isCorrect() ? 1 : 0;
+            forEachKey(attempt, key -> deltas.computeIfAbsent(key, k -> new StatsDelta()).add(1, correct));
+        }
+        return deltas;
+    }
+
+    /**
+     * Emit the stats row of every hierarchy level the attempt counts toward.
+     * Levels whose id is unknown (e.g. a question without a concept) are skipped.
+     */
+    public static void forEachKey(GradedAttempt attempt, Consumer<StatsKey> consumer) {
+        Long studentId = attempt.getStudentId();
+        emit(studentId, StatsType.CONCEPT, attempt.getConceptId(), consumer);
+        emit(studentId, StatsType.SUB_UNIT, attempt.getSubUnitId(), consumer);
+        emit(studentId, StatsType.UNIT, attempt.getUnitId(), consumer);
+        emit(studentId, StatsType.GRADE, attempt.getGradeId(), consumer);
+        emit(studentId, StatsType.LEVEL, attempt.getLevelId(), consumer);
+        emit(studentId, StatsType.OVERALL, StudentStats.OVERALL_ENTITY_ID, consumer);
+    }
+
+    private static void emit(Long studentId, StatsType type, Long entityId, Consumer<StatsKey> consumer) {
+        if (entityId != null) {
+            consumer.accept(new StatsKey(studentId, type, entityId));
+        }
+    }
+
+    /**
+     * Add the deltas to student_stats, creating missing rows.
+     * Rows are written in unique-key order so that concurrent appliers lock rows in the same order.
+     */
+    public void apply(Map<StatsKey, StatsDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<StatsKey, StatsDelta>> entries = new ArrayList<>(deltas.entrySet());
+        if (!(deltas instanceof TreeMap)) {
+            entries.sort(Map.Entry.comparingByKey());
+        }
+
+        for (int from = 0; from < entries.size(); from += ROWS_PER_STATEMENT) {
+            List<Map.Entry<StatsKey, StatsDelta>> chunk =
+                    entries.subList(from, Math.min(from + ROWS_PER_STATEMENT, entries.size()));
+
+            StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+            Object[] params = new Object[chunk.size() * 6];
+            int p = 0;
+            for (int i = 0; i < chunk.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(UPSERT_ROW);
+
+                StatsKey key = chunk.get(i).getKey();
+                StatsDelta delta = chunk.get(i).getValue();
+                params[p++] = key.getStudentId();
+                params[p++] = key.getStatsType().name();
+                params[p++] = key.getEntityId();
+                params[p++] = delta.getAttempts();
+                params[p++] = delta.getCorrect();
+                params[p++] = delta.correctRate();
+            }
+            sql.append(UPSERT_SUFFIX);
+
+            jdbcTemplate.update(sql.toString(), params);
+        }
+        log.debug("Applied {} student stats deltas", entries.size());
+    }
+}
@@ -0,0 +1,123 @@
+package com.edutest.service;
+
+import com.edutest.config.ReplicaRoutingDataSource;
+import com.edutest.dto.StudentStatsBreakdownDto;
+import com.edutest.dto.StudentStatsDto;
+import com.edutest.entity.StudentStats;
+import com.edutest.entity.StudentStats.StatsType;
+import com.edutest.event.StudentStatsChangedEvent;
+import com.edutest.repository.StudentStatsRepository;
+import com.edutest.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class StudentStatsService {
+
+    public static final String BREAKDOWN_CACHE = "studentStatsBreakdown";
+
+    private final StudentStatsRepository studentStatsRepository;
+    private final UserRepository userRepository;
+    private final LiveStatsAccumulator liveStatsAccumulator;
+    private final CacheManager cacheManager;
+
+    @Transactional(readOnly = true)
+    public Long getStudentId(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"))
+                .getId();
+    }
+
+    /**
+     * Stats of a student at every hierarchy level: flushed student_stats rows merged with
+     * deltas still held by the live accumulator
+     */
+    @Transactional(readOnly = true)
+    public List<StudentStatsDto> getLiveStats(Long studentId) {
+        Map<StatsKey, StatsDelta> merged = liveStatsAccumulator.withPending(studentId,
+                () -> studentStatsRepository.findByStudentId(studentId));
+
+        return merged.entrySet().stream()
+                .map(entry -> toDto(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Full breakdown of a student's attempts across all hierarchy levels, from the flushed student_stats rows.
+     * The rows keep the totals of archived months, which are no longer in the attempt log. Cached per student
+     * (see CacheConfig) until that student's stats change on any node; it is read from the primary so a lagging
+     * replica is never cached.
+     */
+    @Cacheable(cacheNames = BREAKDOWN_CACHE, key = "#studentId")
+    @Transactional(readOnly = true)
+    public StudentStatsBreakdownDto getBreakdown(Long studentId) {
+        return ReplicaRoutingDataSource.onPrimary(() -> loadBreakdown(studentId));
+    }
+
+    private StudentStatsBreakdownDto loadBreakdown(Long studentId) {
+        Map<StatsType, Map<StatsKey, StatsDelta>> byType = new EnumMap<>(StatsType.class);
+        for (StatsType type : StatsType.values()) {
+            byType.put(type, new TreeMap<>());
+        }
+        for (StudentStats stats : studentStatsRepository.findByStudentId(studentId)) {
+            byType.get(stats.getStatsType()).put(new StatsKey(studentId, stats.getStatsType(), stats.getEntityId()),
+                    new StatsDelta(stats.getAttemptCount(), stats.getCorrectCount()));
+        }
+
+        List<StudentStatsDto> overall = toDtos(byType.get(StatsType.OVERALL));
+        return StudentStatsBreakdownDto.builder()
+                .studentId(studentId)
+                .overall(overall.isEmpty()
+                        ? toDto(new StatsKey(studentId, StatsType.OVERALL, StudentStats.OVERALL_ENTITY_ID), new StatsDelta())
+                        : overall.get(0))
+                .levels(toDtos(byType.get(StatsType.LEVEL)))
+                .grades(toDtos(byType.get(StatsType.GRADE)))
+                .units(toDtos(byType.get(StatsType.UNIT)))
+                .subUnits(toDtos(byType.get(StatsType.SUB_UNIT)))
+                .concepts(toDtos(byType.get(StatsType.CONCEPT)))
+                .build();
+    }
+
+    // Also replayed from other nodes through the change log
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentStatsChanged(StudentStatsChangedEvent event) {
+        Cache cache = cacheManager.getCache(BREAKDOWN_CACHE);
+        if (cache == null) {
+            return;
+        }
+        if (event.isFullReload()) {
+            cache.clear();
+        } else {
+            event.getStudentIds().forEach(cache::evict);
+        }
+    }
+
+    private List<StudentStatsDto> toDtos(Map<StatsKey, StatsDelta> stats) {
+        List<StudentStatsDto> dtos = new ArrayList<>(stats.size());
+        stats.forEach((key, delta) -> dtos.add(toDto(key, delta)));
+        return dtos;
+    }
+
+    private StudentStatsDto toDto(StatsKey key, StatsDelta delta) {
+        return StudentStatsDto.builder()
+                .statsType(key.getStatsType().name())
+                .entityId(key.getEntityId())
+                .attemptCount(delta.getAttempts())
+                .correctCount(delta.getCorrect())
+                .correctRate(delta.correctRate())
+                .build();
+    }
+}
@@ -3,9 +3,11 @@ package com.edutest.service;
 import com.edutest.dto.SubUnitDto;
 import com.edutest.entity.SubUnit;
 import com.edutest.entity.Unit;
+import com.edutest.event.CurriculumChangedEvent;
 import com.edutest.repository.SubUnitRepository;
 import com.edutest.repository.UnitRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,8 @@ public class SubUnitService {
 
     private final SubUnitRepository subUnitRepository;
     private final UnitRepository unitRepository;
+    private final SiblingOrderService siblingOrderService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<SubUnitDto> getAllSubUnits() {
@@ -28,7 +32,7 @@ public class SubUnitService {
 
     @Transactional(readOnly = true)
     public List<SubUnitDto> getSubUnitsByUnit(Long unitId) {
-        return subUnitRepository.findByUnitIdOrderByOrderIndexAsc(unitId).stream()
+        return subUnitRepository.findByUnitIdOrderByOrderIndexAscIdAsc(unitId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -50,7 +54,8 @@ public class SubUnitService {
                 .name(dto.getName())
                 .displayName(dto.getDisplayName() != null ? dto.getDisplayName() : dto.getName())
                 .description(dto.getDescription())
-                .orderIndex(dto.getOrderIndex() != null ? dto.getOrderIndex() : 0)
+                .orderIndex(dto.getOrderIndex() != null ? dto.getOrderIndex()
+                        : siblingOrderService.nextKey(SiblingOrderService.Scope.SUB_UNIT, unit.getId()))
                 .build();
 
         SubUnit saved = subUnitRepository.save(subUnit);
@@ -76,6 +81,7 @@ public class SubUnitService {
         }
 
         SubUnit updated = subUnitRepository.save(subUnit);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.SUB_UNIT, List.of(id)));
         return convertToDto(updated);
     }
 
@@ -85,42 +91,20 @@ public class SubUnitService {
             throw new IllegalArgumentException("SubUnit not found with id: " + id);
         }
         subUnitRepository.deleteById(id);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.SUB_UNIT, List.of(id)));
     }
 
     @Transactional
     public void reorderSubUnit(Long id, String direction) {
-        SubUnit currentSubUnit = subUnitRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("SubUnit not found with id: " + id));
-
-        List<SubUnit> subUnitsInUnit = subUnitRepository.findByUnitIdOrderByOrderIndexAsc(currentSubUnit.getUnit().getId());
-        int currentIndex = -1;
-
-        for (int i = 0; i < subUnitsInUnit.size(); i++) {
-            if (subUnitsInUnit.get(i).getId().equals(id)) {
-                currentIndex = i;
-                break;
-            }
-        }
-
-        if (currentIndex == -1) {
-            throw new IllegalArgumentException("SubUnit not found in ordered list");
-        }
-
-        SubUnit swapSubUnit = null;
-        if ("up".equals(direction) && currentIndex > 0) {
-            swapSubUnit = subUnitsInUnit.get(currentIndex - 1);
-        } else if ("down".equals(direction) && currentIndex < subUnitsInUnit.size() - 1) {
-            swapSubUnit = subUnitsInUnit.get(currentIndex + 1);
-        }
-
-        if (swapSubUnit != null) {
-            Integer tempOrder = currentSubUnit.getOrderIndex();
-            currentSubUnit.setOrderIndex(swapSubUnit.getOrderIndex());
-            swapSubUnit.setOrderIndex(tempOrder);
+        siblingOrderService.step(SiblingOrderService.Scope.SUB_UNIT, id, direction);
+    }
 
-            subUnitRepository.save(currentSubUnit);
-            subUnitRepository.save(swapSubUnit);
-        }
+    /**
+     * Move a sub unit before/after a sibling or to a position; only the moved row is written
+     */
+    @Transactional
+    public void moveSubUnit(Long id, Long beforeId, Long afterId, Integer index) {
+        siblingOrderService.move(SiblingOrderService.Scope.SUB_UNIT, id, beforeId, afterId, index);
     }
 
     private SubUnitDto convertToDto(SubUnit subUnit) {
@@ -0,0 +1,188 @@
+package com.edutest.service;
+
+import com.edutest.dto.AssembledTestDto;
+import com.edutest.dto.ConceptDto;
+import com.edutest.dto.QuestionDto;
+import com.edutest.dto.QuestionOptionDto;
+import com.edutest.dto.TestBlueprintRequest;
+import com.edutest.entity.Question;
+import com.edutest.entity.QuestionOption;
+import com.edutest.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Assembles a practice test from a blueprint by sampling {@link QuestionPoolIndex} pools.
+ * Each difficulty is drawn without replacement with a sparse Fisher-Yates shuffle over the
+ * concatenated pools, so drawing k questions costs O(k log pools) regardless of the bank size.
+ */
+@Service
+@RequiredArgsConstructor
+public class TestAssemblyService {
+
+    private static final int MAX_QUESTIONS = 100;
+
+    private final QuestionPoolIndex questionPoolIndex;
+    private final QuestionRepository questionRepository;
+
+    @Transactional(readOnly = true)
+    public AssembledTestDto assemble(TestBlueprintRequest blueprint) {
+        List<Long> subUnitIds = blueprint.getSubUnitIds() != null ? blueprint.getSubUnitIds() : List.of();
+        List<Long> conceptIds = blueprint.getConceptIds() != null ? blueprint.getConceptIds() : List.of();
+        if (subUnitIds.isEmpty() && conceptIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one sub-unit or concept is required");
+        }
+        if (blueprint.getDifficultyCounts() == null || blueprint.getDifficultyCounts().isEmpty()) {
+            throw new IllegalArgumentException("difficultyCounts is required");
+        }
+
+        Set<Question.QuestionType> types = new HashSet<>();
+        if (blueprint.getQuestionTypes() != null) {
+            for (String type : blueprint.getQuestionTypes()) {
+                try {
+                    types.add(Question.QuestionType.valueOf(type));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown question type: " + type);
+                }
+            }
+        }
+
+        int total = 0;
+        for (Integer count : blueprint.getDifficultyCounts().values()) {
+            if (count == null || count < 0) {
+                throw new IllegalArgumentException("Question counts must not be negative");
+            }
+            total += count;
+        }
+        if (total == 0 || total > MAX_QUESTIONS) {
+            throw new IllegalArgumentException("A test must have between 1 and " + MAX_QUESTIONS + " questions");
+        }
+
+        long seed = blueprint.getSeed() != null ? blueprint.getSeed() : ThreadLocalRandom.current().nextLong();
+        Random random = new Random(seed);
+
+        List<Long> drawn = new ArrayList<>(total);
+        // Difficulties in a fixed order, so the same seed draws the same test whatever the key order of the request
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(blueprint.getDifficultyCounts()).entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+            List<long[]> pools = questionPoolIndex.select(subUnitIds, conceptIds, entry.getKey(), types);
+            for (long id : draw(pools, entry.getValue(), random)) {
+                drawn.add(id);
+            }
+        }
+        Collections.shuffle(drawn, random);
+
+        Map<Long, Question> questions = new HashMap<>();
+        for (Question question : questionRepository.findAllWithOptionsByIdIn(drawn)) {
+            questions.put(question.getId(), question);
+        }
+
+        List<QuestionDto> items = new ArrayList<>(drawn.size());
+        for (Long id : drawn) {
+            Question question = questions.get(id);
+            // Deleted after the pools were built
+            if (question != null) {
+                items.add(toTestDto(question, random));
+            }
+        }
+
+        return AssembledTestDto.builder()
+                .seed(seed)
+                .totalQuestions(items.size())
+                .questions(items)
+                .build();
+    }
+
+    /**
+     * Draws k distinct ids from the concatenation of the pools.
+     * Only swapped positions are remembered, so nothing proportional to the pool sizes is allocated.
+     */
+    static long[] draw(List<long[]> pools, int k, Random random) {
+        int[] offsets = new int[pools.size() + 1];
+        for (int i = 0; i < pools.size(); i++) {
+            offsets[i + 1] = offsets[i] + pools.get(i).length;
+        }
+        int n = offsets[pools.size()];
+        if (k > n) {
+            throw new IllegalArgumentException("Not enough questions: requested " + k + ", available " + n);
+        }
+
+        Map<Integer, Integer> swapped = new HashMap<>();
+        long[] result = new long[k];
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int picked = swapped.getOrDefault(j, j);
+            swapped.put(j, swapped.getOrDefault(i, i));
+            result[i] = idAt(pools, offsets, picked);
+        }
+        return result;
+    }
+
+    private static long idAt(List<long[]> pools, int[] offsets, int position) {
+        int pool = Arrays.binarySearch(offsets, position);
+        // Exact hit is the first element of that pool (skipping empty pools); otherwise the insertion point - 1
+        if (pool >= 0) {
+            while (offsets[pool + 1] == position) {
+                pool++;
+            }
+        } else {
+            pool = -pool - 2;
+        }
+        return pools.get(pool)[position - offsets[pool]];
+    }
+
+    // No answers or statistics: the test is graded server-side on submission
+    private QuestionDto toTestDto(Question question, Random random) {
+        List<QuestionOption> options = new ArrayList<>(question.getOptions());
+        Collections.shuffle(options, random);
+
+        List<QuestionOptionDto> optionDtos = new ArrayList<>(options.size());
+        for (int i = 0; i < options.size(); i++) {
+            optionDtos.add(QuestionOptionDto.builder()
+                    .id(options.get(i).getId())
+                    .optionText(options.get(i).getOptionText())
+                    .optionOrder(i + 1)
+                    .build());
+        }
+
+        List<ConceptDto> concepts = new ArrayList<>();
+        if (question.getConcept() != null) {
+            concepts.add(ConceptDto.builder()
+                    .id(question.getConcept().getId())
+                    .name(question.getConcept().getName())
+                    .displayName(question.getConcept().getDisplayName())
+                    .build());
+        }
+
+        return QuestionDto.builder()
+                .id(question.getId())
+                .levelId(question.getLevel().getId())
+                .levelName(question.getLevel().getName())
+                .subUnitId(question.getSubUnit() != null ? question.getSubUnit().getId() : null)
+                .subUnitName(question.getSubUnit() != null ? question.getSubUnit().getName() : null)
+                .difficulty(question.getDifficulty())
+                .evalDomain(question.getEvalDomain())
+                .questionText(question.getContent())
+                .questionType(question.getQuestionType().name())
+                .points(question.getPoints())
+                .referenceImage(question.getReferenceImage())
+                .options(optionDtos)
+                .concepts(concepts)
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package com.edutest.service;
+
+import com.edutest.dto.AttemptResultDto;
+import com.edutest.dto.AttemptSubmitRequest;
+import com.edutest.dto.TestResultDto;
+import com.edutest.dto.TestSubmitRequest;
+import com.edutest.entity.Level;
+import com.edutest.entity.Subject;
+import com.edutest.entity.User;
+import com.edutest.entity.UserAttempt;
+import com.edutest.event.AttemptsGradedEvent;
+import com.edutest.repository.LevelRepository;
+import com.edutest.repository.SubjectRepository;
+import com.edutest.repository.UserAttemptRepository;
+import com.edutest.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grades a whole test submission at once.
+ * Answer keys come from {@link AnswerKeyIndex} (misses are loaded in one query), answers are graded in memory,
+ * the UserAttempt totals are computed from the key and all UserAnswers go to the database in one JDBC batch.
+ */
+@Service
+@RequiredArgsConstructor
+public class TestSubmissionService {
+
+    private static final String INSERT_ANSWER_SQL =
+            "INSERT INTO user_answers " +
+            "(attempt_id, question_id, selected_option_id, answer_text, is_correct, points_earned, time_spent, answered_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final SubjectRepository subjectRepository;
+    private final LevelRepository levelRepository;
+    private final UserAttemptRepository userAttemptRepository;
+    private final AnswerKeyIndex answerKeyIndex;
+    private final QuestionPlacementLookup placementLookup;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public TestResultDto submitTest(String username, TestSubmitRequest request) {
+        List<AttemptSubmitRequest> answers = request.getAnswers();
+        if (answers == null || answers.isEmpty()) {
+            throw new IllegalArgumentException("At least one answer is required");
+        }
+
+        Set<Long> questionIds = new HashSet<>();
+        for (AttemptSubmitRequest answer : answers) {
+            if (answer.getQuestionId() == null) {
+                throw new IllegalArgumentException("questionId is required");
+            }
+            if (!questionIds.add(answer.getQuestionId())) {
+                throw new IllegalArgumentException("Duplicate answer for question: " + answer.getQuestionId());
+            }
+        }
+
+        if (request.getSubjectId() == null || request.getLevelId() == null) {
+            throw new IllegalArgumentException("subjectId and levelId are required");
+        }
+
+        User student = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        Subject subject = subjectRepository.findById(request.getSubjectId())
+                .orElseThrow(() -> new IllegalArgumentException("Subject not found with id: " + request.getSubjectId()));
+        Level level = levelRepository.findById(request.getLevelId())
+                .orElseThrow(() -> new IllegalArgumentException("Level not found with id: " + request.getLevelId()));
+
+        Map<Long, AnswerKey> answerKeys = answerKeyIndex.getAll(questionIds);
+        for (Long questionId : questionIds) {
+            if (!answerKeys.containsKey(questionId)) {
+                throw new IllegalArgumentException("Question not found with id: " + questionId);
+            }
+        }
+        Map<Long, QuestionPlacement> placements = placementLookup.getAll(questionIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> answerRows = new ArrayList<>(answers.size());
+        List<GradedAttempt> attempts = new ArrayList<>(answers.size());
+        List<AttemptResultDto> results = new ArrayList<>(answers.size());
+        int correctAnswers = 0;
+        int totalPoints = 0;
+        int earnedPoints = 0;
+
+        for (AttemptSubmitRequest answer : answers) {
+            AnswerKey key = answerKeys.get(answer.getQuestionId());
+            boolean correct = key.isCorrect(answer.getSelectedOptionId(), answer.getAnswerText());
+            int pointsEarned = correct ? key.getPoints() : 0;
+            Long selectedOptionId = key.isChoice()
+                    ? key.resolveOptionId(answer.getSelectedOptionId(), answer.getAnswerText())
+                    : null;
+
+            totalPoints += key.getPoints();
+            earnedPoints += pointsEarned;
+            if (correct) {
+                correctAnswers++;
+            }
+
+            // attempt_id is filled in once the UserAttempt row exists
+            answerRows.add(new Object[]{
+                    null, answer.getQuestionId(), selectedOptionId, answer.getAnswerText(),
+                    correct, pointsEarned, answer.getTimeSpentSeconds(), Timestamp.valueOf(now)
+            });
+
+            QuestionPlacement placement = placements.get(answer.getQuestionId());
+            if (placement != null) {
+                attempts.add(GradedAttempt.of(student.getId(), placement, correct,
+                        selectedOptionId != null && answer.getAnswerText() == null
+                                ? String.valueOf(selectedOptionId)
+                                : answer.getAnswerText(),
+                        answer.getTimeSpentSeconds(), now));
+            }
+
+            results.add(AttemptResultDto.builder()
+                    .questionId(answer.getQuestionId())
+                    .isCorrect(correct)
+                    .correctAnswer(key.displayAnswer())
+                    .build());
+        }
+
+        UserAttempt attempt = UserAttempt.builder()
+                .user(student)
+                .subject(subject)
+                .level(level)
+                .completedAt(now)
+                .totalQuestions(answers.size())
+                .correctAnswers(correctAnswers)
+                .totalPoints(totalPoints)
+                .earnedPoints(earnedPoints)
+                .build();
+        attempt = userAttemptRepository.saveAndFlush(attempt);
+
+        for (Object[] row : answerRows) {
+            row[0] = attempt.getId();
+        }
+        int[] argTypes = {
+                Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.LONGVARCHAR,
+                Types.BOOLEAN, Types.INTEGER, Types.INTEGER, Types.TIMESTAMP
+        };
+        jdbcTemplate.batchUpdate(INSERT_ANSWER_SQL, answerRows, argTypes);
+
+        // Per-question attempts feed the same statistics pipeline as single answers
+        eventPublisher.publishEvent(new AttemptsGradedEvent(attempts));
+
+        return TestResultDto.builder()
+                .attemptId(attempt.getId())
+                .totalQuestions(answers.size())
+                .correctAnswers(correctAnswers)
+                .totalPoints(totalPoints)
+                .earnedPoints(earnedPoints)
+                .results(results)
+                .build();
+    }
+}
@@ -1,13 +1,16 @@
 package com.edutest.service;
 
+import com.edutest.dto.CurriculumDeleteResultDto;
 import com.edutest.dto.UnitDto;
 import com.edutest.entity.Grade;
 import com.edutest.entity.Subject;
 import com.edutest.entity.Unit;
+import com.edutest.event.CurriculumChangedEvent;
 import com.edutest.repository.GradeRepository;
 import com.edutest.repository.SubjectRepository;
 import com.edutest.repository.UnitRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +24,9 @@ public class UnitService {
     private final UnitRepository unitRepository;
     private final GradeRepository gradeRepository;
     private final SubjectRepository subjectRepository;
+    private final SiblingOrderService siblingOrderService;
+    private final CurriculumDeleteService curriculumDeleteService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<UnitDto> getAllUnits() {
@@ -31,7 +37,7 @@ public class UnitService {
 
     @Transactional(readOnly = true)
     public List<UnitDto> getUnitsByGrade(Long gradeId) {
-        return unitRepository.findByGradeIdOrderByOrderIndexAsc(gradeId).stream()
+        return unitRepository.findByGradeIdOrderByOrderIndexAscIdAsc(gradeId).stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
     }
@@ -58,7 +64,8 @@ public class UnitService {
                 .name(dto.getName())
                 .displayName(dto.getDisplayName() != null ? dto.getDisplayName() : dto.getName())
                 .description(dto.getDescription())
-                .orderIndex(dto.getOrderIndex() != null ? dto.getOrderIndex() : 0)
+                .orderIndex(dto.getOrderIndex() != null ? dto.getOrderIndex()
+                        : siblingOrderService.nextKey(SiblingOrderService.Scope.UNIT, grade.getId()))
                 .build();
 
         Unit saved = unitRepository.save(unit);
@@ -84,51 +91,28 @@ public class UnitService {
         }
 
         Unit updated = unitRepository.save(unit);
+        eventPublisher.publishEvent(new CurriculumChangedEvent(CurriculumChangedEvent.NodeType.UNIT, List.of(id)));
         return convertToDto(updated);
     }
 
-    @Transactional
-    public void deleteUnit(Long id) {
-        if (!unitRepository.existsById(id)) {
-            throw new IllegalArgumentException("Unit not found with id: " + id);
-        }
-        unitRepository.deleteById(id);
+    /**
+     * Delete the unit with everything below it; dryRun only reports what would be deleted
+     */
+    public CurriculumDeleteResultDto deleteUnit(Long id, boolean dryRun) {
+        return curriculumDeleteService.deleteUnit(id, dryRun);
     }
 
     @Transactional
     public void reorderUnit(Long id, String direction) {
-        Unit currentUnit = unitRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Unit not found with id: " + id));
-
-        List<Unit> unitsInGrade = unitRepository.findByGradeIdOrderByOrderIndexAsc(currentUnit.getGrade().getId());
-        int currentIndex = -1;
-
-        for (int i = 0; i < unitsInGrade.size(); i++) {
-            if (unitsInGrade.get(i).getId().equals(id)) {
-                currentIndex = i;
-                break;
-            }
-        }
-
-        if (currentIndex == -1) {
-            throw new IllegalArgumentException("Unit not found in ordered list");
-        }
-
-        Unit swapUnit = null;
-        if ("up".equals(direction) && currentIndex > 0) {
-            swapUnit = unitsInGrade.get(currentIndex - 1);
-        } else if ("down".equals(direction) && currentIndex < unitsInGrade.size() - 1) {
-            swapUnit = unitsInGrade.get(currentIndex + 1);
-        }
-
-        if (swapUnit != null) {
-            Integer tempOrder = currentUnit.getOrderIndex();
-            currentUnit.setOrderIndex(swapUnit.getOrderIndex());
-            swapUnit.setOrderIndex(tempOrder);
+        siblingOrderService.step(SiblingOrderService.Scope.UNIT, id, direction);
+    }
 
-            unitRepository.save(currentUnit);
-            unitRepository.save(swapUnit);
-        }
+    /**
+     * Move a unit before/after a sibling or to a position; only the moved row is written
+     */
+    @Transactional
+    public void moveUnit(Long id, Long beforeId, Long afterId, Integer index) {
+        siblingOrderService.move(SiblingOrderService.Scope.UNIT, id, beforeId, afterId, index);
     }
 
     private UnitDto convertToDto(Unit unit) {
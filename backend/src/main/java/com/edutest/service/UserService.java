@@ -11,6 +11,7 @@ import com.edutest.entity.Subject;
 import com.edutest.entity.Unit;
 import com.edutest.entity.SubUnit;
 import com.edutest.entity.User;
+import com.edutest.event.UserChangedEvent;
 import com.edutest.repository.GradeRepository;
 import com.edutest.repository.LevelRepository;
 import com.edutest.repository.SubjectRepository;
@@ -19,6 +20,7 @@ import com.edutest.repository.SubUnitRepository;
 import com.edutest.repository.UserRepository;
 import com.edutest.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -38,6 +40,7 @@ public class UserService {
     private final SubjectRepository subjectRepository;
     private final UnitRepository unitRepository;
     private final SubUnitRepository subUnitRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -78,11 +81,11 @@ public class UserService {
             if (!subjects.isEmpty()) {
                 subject = subjects.get(0);
 
-                List<Unit> units = unitRepository.findByGradeIdOrderByOrderIndexAsc(grade.getId());
+                List<Unit> units = unitRepository.findByGradeIdOrderByOrderIndexAscIdAsc(grade.getId());
                 if (!units.isEmpty()) {
                     unit = units.get(0);
 
-                    List<SubUnit> subUnits = subUnitRepository.findByUnitIdOrderByOrderIndexAsc(unit.getId());
+                    List<SubUnit> subUnits = subUnitRepository.findByUnitIdOrderByOrderIndexAscIdAsc(unit.getId());
                     if (!subUnits.isEmpty()) {
                         subUnit = subUnits.get(0);
                     }
@@ -219,12 +222,12 @@ public class UserService {
                 needsUpdate = true;
             }
 
-            List<Unit> units = unitRepository.findByGradeIdOrderByOrderIndexAsc(user.getGrade().getId());
+            List<Unit> units = unitRepository.findByGradeIdOrderByOrderIndexAscIdAsc(user.getGrade().getId());
             if (!units.isEmpty() && user.getUnit() == null) {
                 user.setUnit(units.get(0));
                 needsUpdate = true;
 
-                List<SubUnit> subUnits = subUnitRepository.findByUnitIdOrderByOrderIndexAsc(units.get(0).getId());
+                List<SubUnit> subUnits = subUnitRepository.findByUnitIdOrderByOrderIndexAscIdAsc(units.get(0).getId());
                 if (!subUnits.isEmpty() && user.getSubUnit() == null) {
                     user.setSubUnit(subUnits.get(0));
                     needsUpdate = true;
@@ -311,6 +314,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(List.of(user.getId())));
 
         return buildUserResponse(user);
     }
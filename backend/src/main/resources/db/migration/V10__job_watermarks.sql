@@ -0,0 +1,9 @@
+-- Last source row processed by incremental batch jobs.
+-- IF NOT EXISTS: development databases may already have it from ddl-auto: update.
+
+CREATE TABLE IF NOT EXISTS job_watermarks (
+    job_name VARCHAR(50) NOT NULL,
+    last_id BIGINT NOT NULL,
+    updated_at DATETIME(6),
+    PRIMARY KEY (job_name)
+) ENGINE = InnoDB;
@@ -0,0 +1,13 @@
+-- Attempt log partitions moved to object storage (AttemptArchiveService).
+-- IF NOT EXISTS: development databases may already have it from ddl-auto: update.
+
+CREATE TABLE IF NOT EXISTS attempt_archives (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    partition_name VARCHAR(20) NOT NULL,
+    storage_key VARCHAR(500) NOT NULL,
+    row_count BIGINT NOT NULL,
+    compressed_bytes BIGINT NOT NULL,
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_attempt_archive_partition UNIQUE (partition_name)
+) ENGINE = InnoDB;
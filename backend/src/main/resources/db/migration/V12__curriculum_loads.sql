@@ -0,0 +1,12 @@
+-- Applied curriculum files and their checksums (CurriculumLoader).
+-- IF NOT EXISTS: development databases may already have it from ddl-auto: update.
+
+CREATE TABLE IF NOT EXISTS curriculum_loads (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    version INT NOT NULL,
+    checksum VARCHAR(64) NOT NULL,
+    rows_inserted INT NOT NULL,
+    rows_updated INT NOT NULL,
+    loaded_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
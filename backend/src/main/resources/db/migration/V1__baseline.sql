@@ -0,0 +1,250 @@
+-- Baseline: the schema as created by Hibernate (ddl-auto: update) before Flyway took over.
+-- Existing databases are baselined at this version and skip this script, so it must stay exactly that
+-- schema; every table or column added since goes into a later migration.
+
+CREATE TABLE levels (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(50) NOT NULL,
+    display_name VARCHAR(100) NOT NULL,
+    description TEXT,
+    order_index INT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_level_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE grades (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    level_id BIGINT NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    display_name VARCHAR(100) NOT NULL,
+    description TEXT,
+    order_index INT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_grade_name UNIQUE (name),
+    CONSTRAINT fk_grade_level FOREIGN KEY (level_id) REFERENCES levels (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE subjects (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    grade_id BIGINT,
+    name VARCHAR(50) NOT NULL,
+    display_name VARCHAR(100) NOT NULL,
+    description TEXT,
+    icon_url VARCHAR(255),
+    color VARCHAR(20),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_subject_grade FOREIGN KEY (grade_id) REFERENCES grades (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE units (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    grade_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    display_name VARCHAR(150) NOT NULL,
+    description TEXT,
+    order_index INT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_unit_grade FOREIGN KEY (grade_id) REFERENCES grades (id),
+    CONSTRAINT fk_unit_subject FOREIGN KEY (subject_id) REFERENCES subjects (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE sub_units (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    unit_id BIGINT NOT NULL,
+    name VARCHAR(150) NOT NULL,
+    display_name VARCHAR(200) NOT NULL,
+    description TEXT,
+    order_index INT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_sub_unit_unit FOREIGN KEY (unit_id) REFERENCES units (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE concepts (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    sub_unit_id BIGINT,
+    name VARCHAR(100) NOT NULL,
+    display_name VARCHAR(150) NOT NULL,
+    description TEXT,
+    order_index INT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_concept_name UNIQUE (name),
+    CONSTRAINT fk_concept_sub_unit FOREIGN KEY (sub_unit_id) REFERENCES sub_units (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    full_name VARCHAR(100),
+    active BIT(1) NOT NULL,
+    role VARCHAR(20) NOT NULL,
+    level_id BIGINT,
+    grade_id BIGINT,
+    subject_id BIGINT,
+    unit_id BIGINT,
+    sub_unit_id BIGINT,
+    concept_id BIGINT,
+    proficiency_level VARCHAR(20),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_user_username UNIQUE (username),
+    CONSTRAINT uk_user_email UNIQUE (email),
+    CONSTRAINT fk_user_level FOREIGN KEY (level_id) REFERENCES levels (id),
+    CONSTRAINT fk_user_grade FOREIGN KEY (grade_id) REFERENCES grades (id),
+    CONSTRAINT fk_user_subject FOREIGN KEY (subject_id) REFERENCES subjects (id),
+    CONSTRAINT fk_user_unit FOREIGN KEY (unit_id) REFERENCES units (id),
+    CONSTRAINT fk_user_sub_unit FOREIGN KEY (sub_unit_id) REFERENCES sub_units (id),
+    CONSTRAINT fk_user_concept FOREIGN KEY (concept_id) REFERENCES concepts (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE student_profiles (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    level_id BIGINT,
+    grade_id BIGINT,
+    subject_id BIGINT,
+    unit_id BIGINT,
+    sub_unit_id BIGINT,
+    concept_id BIGINT,
+    proficiency_level VARCHAR(20),
+    total_attempts INT,
+    total_correct INT,
+    overall_correct_rate FLOAT(53),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_profile_user UNIQUE (user_id),
+    CONSTRAINT fk_student_profile_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_student_profile_level FOREIGN KEY (level_id) REFERENCES levels (id),
+    CONSTRAINT fk_student_profile_grade FOREIGN KEY (grade_id) REFERENCES grades (id),
+    CONSTRAINT fk_student_profile_subject FOREIGN KEY (subject_id) REFERENCES subjects (id),
+    CONSTRAINT fk_student_profile_unit FOREIGN KEY (unit_id) REFERENCES units (id),
+    CONSTRAINT fk_student_profile_sub_unit FOREIGN KEY (sub_unit_id) REFERENCES sub_units (id),
+    CONSTRAINT fk_student_profile_concept FOREIGN KEY (concept_id) REFERENCES concepts (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE questions (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    level_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    sub_unit_id BIGINT,
+    concept_id BIGINT,
+    difficulty VARCHAR(20),
+    eval_domain VARCHAR(100),
+    title VARCHAR(255),
+    content TEXT,
+    question_type ENUM ('MULTIPLE_CHOICE', 'TRUE_FALSE', 'SHORT_ANSWER', 'ESSAY') NOT NULL,
+    points INT,
+    time_limit INT,
+    reference_image VARCHAR(255),
+    reference_document VARCHAR(255),
+    correct_answer TEXT,
+    explanation TEXT,
+    created_by BIGINT,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_question_level FOREIGN KEY (level_id) REFERENCES levels (id),
+    CONSTRAINT fk_question_subject FOREIGN KEY (subject_id) REFERENCES subjects (id),
+    CONSTRAINT fk_question_sub_unit FOREIGN KEY (sub_unit_id) REFERENCES sub_units (id),
+    CONSTRAINT fk_question_concept FOREIGN KEY (concept_id) REFERENCES concepts (id),
+    CONSTRAINT fk_question_created_by FOREIGN KEY (created_by) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE question_options (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    question_id BIGINT NOT NULL,
+    option_text TEXT NOT NULL,
+    is_correct BIT(1),
+    option_order INT NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_option_question FOREIGN KEY (question_id) REFERENCES questions (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_attempts (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    level_id BIGINT NOT NULL,
+    started_at DATETIME(6),
+    completed_at DATETIME(6),
+    total_questions INT,
+    correct_answers INT,
+    total_points INT,
+    earned_points INT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_user_attempt_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_user_attempt_subject FOREIGN KEY (subject_id) REFERENCES subjects (id),
+    CONSTRAINT fk_user_attempt_level FOREIGN KEY (level_id) REFERENCES levels (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE user_answers (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    attempt_id BIGINT NOT NULL,
+    question_id BIGINT NOT NULL,
+    selected_option_id BIGINT,
+    answer_text TEXT,
+    is_correct BIT(1),
+    points_earned INT,
+    time_spent INT,
+    answered_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_answer_attempt FOREIGN KEY (attempt_id) REFERENCES user_attempts (id),
+    CONSTRAINT fk_answer_question FOREIGN KEY (question_id) REFERENCES questions (id),
+    CONSTRAINT fk_answer_option FOREIGN KEY (selected_option_id) REFERENCES question_options (id)
+) ENGINE = InnoDB;
+
+-- AttemptPartitionManager drops the foreign keys when it partitions the table by month
+CREATE TABLE student_question_attempts (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    question_id BIGINT NOT NULL,
+    is_correct BIT(1) NOT NULL,
+    user_answer TEXT,
+    time_spent_seconds INT,
+    attempted_at DATETIME(6) NOT NULL,
+    concept_id BIGINT,
+    sub_unit_id BIGINT,
+    unit_id BIGINT,
+    grade_id BIGINT,
+    level_id BIGINT,
+    difficulty VARCHAR(20),
+    PRIMARY KEY (id),
+    INDEX idx_student_question (student_id, question_id),
+    INDEX idx_student_attempted (student_id, attempted_at),
+    INDEX idx_question_attempted (question_id, attempted_at),
+    CONSTRAINT fk_attempt_log_student FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fk_attempt_log_question FOREIGN KEY (question_id) REFERENCES questions (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE student_stats (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    stats_type ENUM ('CONCEPT', 'SUB_UNIT', 'UNIT', 'GRADE', 'LEVEL', 'OVERALL') NOT NULL,
+    entity_id BIGINT,
+    attempt_count INT NOT NULL,
+    correct_count INT NOT NULL,
+    correct_rate FLOAT(53) NOT NULL,
+    last_updated DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_stats UNIQUE (student_id, stats_type, entity_id),
+    INDEX idx_student_stats_type (student_id, stats_type),
+    INDEX idx_stats_type_entity (stats_type, entity_id),
+    CONSTRAINT fk_student_stats_student FOREIGN KEY (student_id) REFERENCES users (id)
+) ENGINE = InnoDB;
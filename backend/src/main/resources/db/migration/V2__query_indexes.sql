@@ -0,0 +1,28 @@
+-- Composite indexes for the repository and JDBC queries (checked with EXPLAIN by QueryPlanVerifier).
+-- Where an index leads with a foreign key column, MySQL drops the implicit single-column FK index.
+
+-- findByLevelId / findByLevelIdWithConcepts, keyset pages by id within a level
+CREATE INDEX idx_question_level_id ON questions (level_id, id);
+-- countQuestionsGroupedByConceptAndDifficulty, test assembly by concept and difficulty
+CREATE INDEX idx_question_concept_difficulty ON questions (concept_id, difficulty);
+-- Questions of a sub unit (bulk filters, cascading delete)
+CREATE INDEX idx_question_sub_unit ON questions (sub_unit_id, id);
+
+-- findByQuestionIdOrderByOptionOrderAsc and answer keys ordered by option
+CREATE INDEX idx_option_question_order ON question_options (question_id, option_order);
+
+-- countDistinctUsersByQuestionId / countCorrectUsersByQuestionId read the index only
+CREATE INDEX idx_answer_question_correct_attempt ON user_answers (question_id, is_correct, attempt_id);
+
+-- findByUserIdOrderByStartedAtDesc
+CREATE INDEX idx_user_attempt_user_started ON user_attempts (user_id, started_at);
+
+-- Sibling lists ordered by order_index (SiblingOrderService)
+CREATE INDEX idx_level_order ON levels (order_index);
+CREATE INDEX idx_grade_level_order ON grades (level_id, order_index);
+CREATE INDEX idx_unit_grade_order ON units (grade_id, order_index);
+CREATE INDEX idx_sub_unit_unit_order ON sub_units (unit_id, order_index);
+CREATE INDEX idx_concept_sub_unit_order ON concepts (sub_unit_id, order_index);
+
+-- findByName (curriculum loader, default subject lookup)
+CREATE INDEX idx_subject_name ON subjects (name);
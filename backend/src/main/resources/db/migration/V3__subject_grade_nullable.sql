@@ -0,0 +1,4 @@
+-- Subjects may exist without a grade (e.g. the default "Science" subject).
+-- ddl-auto: update never relaxed this column on databases created before the change.
+
+ALTER TABLE subjects MODIFY COLUMN grade_id BIGINT NULL;
@@ -0,0 +1,12 @@
+-- Cross-node cache invalidation (ChangeLogService): one row per changed entity, written in the
+-- transaction of the change and polled by every node. entity_id is NULL for whole-curriculum changes.
+
+CREATE TABLE change_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT,
+    node_id VARCHAR(64) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_change_log_changed_at (changed_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,37 @@
+-- Background job queue (JobQueueService / JobWorker). Workers on every node claim due QUEUED rows with
+-- SELECT ... FOR UPDATE SKIP LOCKED and hold a lease on them that they renew while the job runs.
+
+CREATE TABLE jobs (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    job_type VARCHAR(50) NOT NULL,
+    state VARCHAR(20) NOT NULL,
+    payload TEXT,
+    result TEXT,
+    attempts INT NOT NULL DEFAULT 0,
+    max_attempts INT NOT NULL,
+    run_after DATETIME(6) NOT NULL,
+    lease_owner VARCHAR(64),
+    lease_expires_at DATETIME(6),
+    cancel_requested BIT NOT NULL DEFAULT 0,
+    dedupe_key VARCHAR(100),
+    last_error TEXT,
+    created_by VARCHAR(50),
+    created_at DATETIME(6) NOT NULL,
+    started_at DATETIME(6),
+    finished_at DATETIME(6),
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_job_dedupe_key (dedupe_key),
+    -- Claim (due jobs of a type in run_after order) and running counts per type
+    INDEX idx_job_type_state_run_after (job_type, state, run_after),
+    -- Expired leases
+    INDEX idx_job_state_lease (state, lease_expires_at),
+    -- Pruning finished jobs
+    INDEX idx_job_finished (finished_at)
+) ENGINE = InnoDB;
+
+-- One row per registered job type; claimers lock it to enforce the cluster-wide concurrency limit
+CREATE TABLE job_types (
+    job_type VARCHAR(50) NOT NULL,
+    max_concurrency INT NOT NULL,
+    PRIMARY KEY (job_type)
+) ENGINE = InnoDB;
@@ -0,0 +1,17 @@
+-- Daily attempt roll-ups per student and hierarchy entity (DailyProgressService).
+-- IF NOT EXISTS: development databases may already have it from ddl-auto: update.
+
+CREATE TABLE IF NOT EXISTS student_daily_progress (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    stats_type ENUM ('CONCEPT', 'SUB_UNIT', 'UNIT', 'GRADE', 'LEVEL', 'OVERALL') NOT NULL,
+    entity_id BIGINT NOT NULL,
+    activity_date DATE NOT NULL,
+    attempt_count INT NOT NULL,
+    correct_count INT NOT NULL,
+    time_spent_seconds BIGINT NOT NULL,
+    last_updated DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_daily_progress UNIQUE (student_id, stats_type, entity_id, activity_date),
+    CONSTRAINT fk_daily_progress_student FOREIGN KEY (student_id) REFERENCES users (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,19 @@
+-- Spaced-repetition schedule per student and question (ReviewScheduler).
+-- IF NOT EXISTS: development databases may already have it from ddl-auto: update.
+
+CREATE TABLE IF NOT EXISTS review_items (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    student_id BIGINT NOT NULL,
+    question_id BIGINT NOT NULL,
+    repetitions INT NOT NULL,
+    interval_days INT NOT NULL,
+    ease_factor FLOAT(53) NOT NULL,
+    lapses INT NOT NULL,
+    due_at DATETIME(6) NOT NULL,
+    last_reviewed_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_review_student_question UNIQUE (student_id, question_id),
+    INDEX idx_review_student_due (student_id, due_at),
+    CONSTRAINT fk_review_student FOREIGN KEY (student_id) REFERENCES users (id),
+    CONSTRAINT fk_review_question FOREIGN KEY (question_id) REFERENCES questions (id)
+) ENGINE = InnoDB;
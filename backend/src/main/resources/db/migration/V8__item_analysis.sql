@@ -0,0 +1,18 @@
+-- Difficulty and discrimination per question (ItemAnalysisService).
+-- IF NOT EXISTS: development databases may already have it from ddl-auto: update.
+
+CREATE TABLE IF NOT EXISTS item_analysis (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    question_id BIGINT NOT NULL,
+    response_count BIGINT NOT NULL,
+    correct_count BIGINT NOT NULL,
+    score_sum FLOAT(53) NOT NULL,
+    score_sq_sum FLOAT(53) NOT NULL,
+    correct_score_sum FLOAT(53) NOT NULL,
+    p_value FLOAT(53),
+    point_biserial FLOAT(53),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_item_analysis_question UNIQUE (question_id),
+    CONSTRAINT fk_item_analysis_question FOREIGN KEY (question_id) REFERENCES questions (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,12 @@
+-- Selection counts per answer option (ItemAnalysisService).
+-- IF NOT EXISTS: development databases may already have it from ddl-auto: update.
+
+-- option_id is a plain column: counts of replaced options stay readable
+CREATE TABLE IF NOT EXISTS item_distractor_stats (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    question_id BIGINT NOT NULL,
+    option_id BIGINT NOT NULL,
+    selection_count BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_item_distractor UNIQUE (question_id, option_id)
+) ENGINE = InnoDB;
@@ -1,5 +1,5 @@
--- Clear all existing data to allow fresh initialization
--- Run this before restarting the backend
+-- Clear all educational content data to allow fresh initialization
+-- Run this before restarting the backend; the curriculum file is applied again on startup
 
 SET FOREIGN_KEY_CHECKS = 0;
 
@@ -9,5 +9,6 @@ TRUNCATE TABLE units;
 TRUNCATE TABLE grades;
 TRUNCATE TABLE levels;
 TRUNCATE TABLE subjects;
+TRUNCATE TABLE curriculum_loads;
 
 SET FOREIGN_KEY_CHECKS = 1;
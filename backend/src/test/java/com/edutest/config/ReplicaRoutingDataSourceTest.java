@@ -0,0 +1,211 @@
+package com.edutest.config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockCookie;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two embedded databases stand in for the primary and the replica; each answers with its own name.
+ * Two routers over them stand in for two application nodes.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long READ_YOUR_WRITES_MS = 5000;
+    private static final long MAX_LAG_SECONDS = 10;
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readsGoToTheReplicaWithoutARecentWrite() {
+        Node node = new Node();
+
+        assertThat(node.read(new MockHttpServletRequest())).isEqualTo("replica");
+    }
+
+    @Test
+    void writeSetsACrossSiteLastWriteCookie() {
+        Node node = new Node();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        node.write(new MockHttpServletRequest(), response);
+
+        Cookie cookie = response.getCookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE);
+        assertThat(cookie).isInstanceOf(MockCookie.class);
+        assertThat(Long.parseLong(cookie.getValue())).isLessThanOrEqualTo(System.currentTimeMillis());
+        assertThat(((MockCookie) cookie).getSameSite()).isEqualTo("None");
+        assertThat(cookie.getSecure()).isTrue();
+        assertThat(cookie.isHttpOnly()).isTrue();
+    }
+
+    @Test
+    void readAfterWriteOnAnotherNodeStaysOnThePrimary() {
+        Node writer = new Node();
+        Node reader = new Node();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        writer.write(new MockHttpServletRequest(), response);
+
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(response.getCookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE));
+
+        assertThat(reader.read(next)).isEqualTo("primary");
+    }
+
+    @Test
+    void readInTheWritingRequestStaysOnThePrimary() {
+        Node node = new Node();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        node.write(request, new MockHttpServletResponse());
+
+        assertThat(node.read(request)).isEqualTo("primary");
+    }
+
+    @Test
+    void expiredWriteReadsTheReplicaAgain() {
+        Node node = new Node();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        long wroteAt = System.currentTimeMillis() - READ_YOUR_WRITES_MS - 1000;
+        request.setCookies(new Cookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE, Long.toString(wroteAt)));
+
+        assertThat(node.read(request)).isEqualTo("replica");
+    }
+
+    @Test
+    void malformedCookieIsIgnored() {
+        Node node = new Node();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE, "not-a-time"));
+
+        assertThat(node.read(request)).isEqualTo("replica");
+    }
+
+    @Test
+    void primaryReadDoesNotMarkAWrite() {
+        Node node = new Node();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(ReplicaRoutingDataSource.onPrimary(() -> node.read(request, response))).isEqualTo("primary");
+        assertThat(response.getCookie(ReplicaRoutingDataSource.LAST_WRITE_COOKIE)).isNull();
+        assertThat(node.read(request)).isEqualTo("replica");
+    }
+
+    @Test
+    void replicaMarkedDownReadsThePrimary() {
+        Node node = new Node();
+        node.healthMonitor.markDown(new SQLException("connection refused"));
+
+        assertThat(node.read(new MockHttpServletRequest())).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaLaggingBeyondTheMaximumReadsThePrimary() {
+        Node node = new Node(new ReplicaHealthMonitor(replica, MAX_LAG_SECONDS, true) {
+            @Override
+            long readLag(Connection connection) {
+                return MAX_LAG_SECONDS + 1;
+            }
+        });
+        node.healthMonitor.check();
+
+        assertThat(node.healthMonitor.isUsable()).isFalse();
+        assertThat(node.read(new MockHttpServletRequest())).isEqualTo("primary");
+    }
+
+    @Test
+    void replicaLaggingWithinTheMaximumIsRead() {
+        Node node = new Node(new ReplicaHealthMonitor(replica, MAX_LAG_SECONDS, true) {
+            @Override
+            long readLag(Connection connection) {
+                return MAX_LAG_SECONDS;
+            }
+        });
+        node.healthMonitor.check();
+
+        assertThat(node.read(new MockHttpServletRequest())).isEqualTo("replica");
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return database;
+    }
+
+    /**
+     * One application node: its own router, proxy and transaction manager over the shared databases
+     */
+    private class Node {
+        private final ReplicaHealthMonitor healthMonitor;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+
+        Node() {
+            this(new ReplicaHealthMonitor(replica, MAX_LAG_SECONDS, false));
+        }
+
+        Node(ReplicaHealthMonitor healthMonitor) {
+            this.healthMonitor = healthMonitor;
+            ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                    primary, replica, healthMonitor, READ_YOUR_WRITES_MS, "None", true);
+            routing.afterPropertiesSet();
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+            proxy.setDefaultAutoCommit(true);
+            proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            jdbcTemplate = new JdbcTemplate(proxy);
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(proxy));
+        }
+
+        void write(MockHttpServletRequest request, MockHttpServletResponse response) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+        }
+
+        String read(MockHttpServletRequest request) {
+            return read(request, new MockHttpServletResponse());
+        }
+
+        String read(MockHttpServletRequest request, MockHttpServletResponse response) {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+            TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+            readOnly.setReadOnly(true);
+            return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.edutest.repository;
+
+import com.edutest.entity.StudentStats.StatsType;
+import com.edutest.service.ChangeLogService;
+import com.edutest.service.ItemAnalysisService;
+import com.edutest.service.JobWorker;
+import com.edutest.service.LeaderboardService;
+import com.edutest.service.StatsRebuildService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL the application actually sends: repository methods are called against a MySQL
+ * migrated by Flyway and their statements are captured from the connection with the bound values, and the
+ * JdbcTemplate queries are read from their SQL constants. Every table is filled with {@link #SEED_ROWS}
+ * generated rows and analyzed first, so the plans come from real statistics rather than an empty schema.
+ * A lookup fails when it scans a whole table or does not use the index it was written for.
+ * Add the method here when adding a repository method, a JDBC query or an index in a migration.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    private static final int SEED_ROWS = 2000;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    // Statements executed through the application's data source, in order
+    private static final List<Executed> EXECUTED = new CopyOnWriteArrayList<>();
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @Autowired private QuestionRepository questionRepository;
+    @Autowired private QuestionOptionRepository questionOptionRepository;
+    @Autowired private UserAnswerRepository userAnswerRepository;
+    @Autowired private UserAttemptRepository userAttemptRepository;
+    @Autowired private GradeRepository gradeRepository;
+    @Autowired private UnitRepository unitRepository;
+    @Autowired private SubUnitRepository subUnitRepository;
+    @Autowired private ConceptRepository conceptRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private StudentProfileRepository studentProfileRepository;
+    @Autowired private StudentQuestionAttemptRepository attemptRepository;
+    @Autowired private StudentStatsRepository studentStatsRepository;
+    @Autowired private StudentDailyProgressRepository dailyProgressRepository;
+    @Autowired private ReviewItemRepository reviewItemRepository;
+    @Autowired private ItemAnalysisRepository itemAnalysisRepository;
+    @Autowired private ItemDistractorStatsRepository distractorStatsRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+                .dataSource(new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword()))
+                .load()
+                .migrate();
+        // One connection: the session settings below must hold for every seeding statement
+        jdbcTemplate = new JdbcTemplate(
+                new SingleConnectionDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword(), true));
+        seed();
+    }
+
+    static Stream<Arguments> queries() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 20);
+        List<Long> ids = List.of(1L, 2L, 3L);
+        return Stream.of(
+                repository("QuestionRepository.findByLevelId",
+                        t -> t.questionRepository.findByLevelId(1L), 0, "idx_question_level_id"),
+                repository("QuestionRepository.countQuestionsGroupedByConceptAndDifficulty",
+                        t -> t.questionRepository.countQuestionsGroupedByConceptAndDifficulty(ids), 0,
+                        "idx_question_concept_difficulty"),
+                // Warms the whole placement lookup: the one full scan of questions is the point
+                repository("QuestionRepository.findAllPlacements",
+                        t -> t.questionRepository.findAllPlacements(), 1, "PRIMARY"),
+                repository("QuestionRepository.findPlacementsByIdIn",
+                        t -> t.questionRepository.findPlacementsByIdIn(ids), 0, "PRIMARY"),
+                repository("QuestionRepository.findAnswerKeyRows",
+                        t -> t.questionRepository.findAnswerKeyRows(ids), 0, "idx_option_question_order"),
+                // Warms the whole answer-key index, so it reads every question once
+                repository("QuestionRepository.findAllAnswerKeyRows",
+                        t -> t.questionRepository.findAllAnswerKeyRows(), 1, "idx_option_question_order"),
+                repository("QuestionOptionRepository.findByQuestionIdOrderByOptionOrderAsc",
+                        t -> t.questionOptionRepository.findByQuestionIdOrderByOptionOrderAsc(1L), 0,
+                        "idx_option_question_order"),
+                repository("UserAnswerRepository.findByAttemptId",
+                        t -> t.userAnswerRepository.findByAttemptId(1L), 0, "fk_answer_attempt"),
+                repository("UserAnswerRepository.countCorrectUsersByQuestionId",
+                        t -> t.userAnswerRepository.countCorrectUsersByQuestionId(1L), 0,
+                        "idx_answer_question_correct_attempt"),
+                repository("UserAttemptRepository.findByUserIdOrderByStartedAtDesc",
+                        t -> t.userAttemptRepository.findByUserIdOrderByStartedAtDesc(1L), 0,
+                        "idx_user_attempt_user_started"),
+                repository("GradeRepository.findByLevelIdOrderByOrderIndexAscIdAsc",
+                        t -> t.gradeRepository.findByLevelIdOrderByOrderIndexAscIdAsc(1L), 0, "idx_grade_level_order"),
+                repository("UnitRepository.findByGradeIdOrderByOrderIndexAscIdAsc",
+                        t -> t.unitRepository.findByGradeIdOrderByOrderIndexAscIdAsc(1L), 0, "idx_unit_grade_order"),
+                repository("SubUnitRepository.findByUnitIdOrderByOrderIndexAscIdAsc",
+                        t -> t.subUnitRepository.findByUnitIdOrderByOrderIndexAscIdAsc(1L), 0,
+                        "idx_sub_unit_unit_order"),
+                repository("ConceptRepository.findBySubUnitIdOrderByOrderIndexAscIdAsc",
+                        t -> t.conceptRepository.findBySubUnitIdOrderByOrderIndexAscIdAsc(1L), 0,
+                        "idx_concept_sub_unit_order"),
+                repository("ConceptRepository.findByName",
+                        t -> t.conceptRepository.findByName("v1"), 0, "uk_concept_name"),
+                repository("UserRepository.findByUsername",
+                        t -> t.userRepository.findByUsername("v1"), 0, "uk_user_username"),
+                repository("UserRepository.findLegacyProficiencyLevel",
+                        t -> t.userRepository.findLegacyProficiencyLevel(1L), 0, "PRIMARY"),
+                repository("StudentProfileRepository.findByUserId",
+                        t -> t.studentProfileRepository.findByUserId(1L), 0, "uk_student_profile_user"),
+                repository("StudentQuestionAttemptRepository.findStudentHistory",
+                        t -> t.attemptRepository.findStudentHistory(1L, now.minusDays(90), page), 0,
+                        "idx_student_attempted"),
+                repository("StudentQuestionAttemptRepository.findQuestionHistory",
+                        t -> t.attemptRepository.findQuestionHistory(1L, now.minusDays(90), page), 0,
+                        "idx_question_attempted"),
+                repository("StudentStatsRepository.findByStudentId",
+                        t -> t.studentStatsRepository.findByStudentId(1L), 0,
+                        "uk_student_stats", "idx_student_stats_type"),
+                repository("StudentStatsRepository.findByStudentIdAndStatsType",
+                        t -> t.studentStatsRepository.findByStudentIdAndStatsType(1L, StatsType.CONCEPT), 0,
+                        "uk_student_stats", "idx_student_stats_type"),
+                repository("StudentStatsRepository.findByStatsTypeAndEntityId",
+                        t -> t.studentStatsRepository.findByStatsTypeAndEntityId(StatsType.CONCEPT, 1L), 0,
+                        "idx_stats_type_entity"),
+                repository("StudentDailyProgressRepository.findBy...ActivityDateBetween",
+                        t -> t.dailyProgressRepository
+                                .findByStudentIdAndStatsTypeAndEntityIdAndActivityDateBetweenOrderByActivityDateAsc(
+                                        1L, StatsType.OVERALL, 0L, LocalDate.now().minusDays(90), LocalDate.now()), 0,
+                        "uk_student_daily_progress"),
+                repository("ReviewItemRepository.findDueBefore",
+                        t -> t.reviewItemRepository.findDueBefore(1L, now, page), 0, "idx_review_student_due"),
+                repository("ItemAnalysisRepository.findByQuestionId",
+                        t -> t.itemAnalysisRepository.findByQuestionId(1L), 0, "uk_item_analysis_question"),
+                repository("ItemDistractorStatsRepository.findByQuestionId",
+                        t -> t.distractorStatsRepository.findByQuestionId(1L), 0, "uk_item_distractor"),
+
+                jdbc(JobWorker.class, "LOCK_TYPE_SQL", List.of("v1"), "PRIMARY"),
+                jdbc(JobWorker.class, "CLAIM_SQL", List.of("v1", 4), "idx_job_type_state_run_after"),
+                jdbc(JobWorker.class, "EXPIRED_SQL", List.of(), "idx_job_state_lease"),
+                jdbc(ChangeLogService.class, "POLL_SQL", List.of(SEED_ROWS / 2, 500), "PRIMARY"),
+                jdbc(ChangeLogService.class, "GAP_SQL_PREFIX", ids, "PRIMARY"),
+                jdbc(LeaderboardService.class, "ROWS_BY_STUDENT_PREFIX", ids, "uk_student_stats", "idx_student_stats_type"),
+                jdbc(StatsRebuildService.class, "PARTITION_SQL", List.of(1, 21, SEED_ROWS), "idx_student_question", "idx_student_attempted"),
+                jdbc(ItemAnalysisService.class, "ANSWERS_SQL", List.of(0, 20), "PRIMARY")
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void usesTheIntendedIndex(String name, Lookup lookup, int allowedFullScans, List<String> expectedKeys) {
+        List<Executed> statements = lookup.run(this);
+
+        assertThat(statements).as("%s: no SELECT executed", name).isNotEmpty();
+        for (int i = 0; i < statements.size(); i++) {
+            Executed statement = statements.get(i);
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + statement.sql, statement.params.toArray());
+            int fullScans = 0;
+            List<String> keys = new ArrayList<>();
+            for (Map<String, Object> row : plan) {
+                String table = (String) row.get("table");
+                if (table == null || table.startsWith("<")) {
+                    // No table access (e.g. no matching row in a const table) or a derived result
+                    continue;
+                }
+                if ("ALL".equals(row.get("type"))) {
+                    fullScans++;
+                }
+                if (row.get("key") != null) {
+                    keys.add((String) row.get("key"));
+                }
+            }
+
+            // The first statement is the query itself; the rest load associations by id
+            assertThat(fullScans)
+                    .as("%s: full table scans in %s%n%s", name, statement.sql, plan)
+                    .isLessThanOrEqualTo(i == 0 ? allowedFullScans : 0);
+            if (i == 0 && !keys.isEmpty()) {
+                assertThat(keys).as("%s: indexes used by %s%n%s", name, statement.sql, plan)
+                        .containsAnyElementsOf(expectedKeys);
+            }
+        }
+    }
+
+    private static Arguments repository(String name, RepositoryCall call, int allowedFullScans, String... expectedKeys) {
+        Lookup lookup = test -> {
+            EXECUTED.clear();
+            try {
+                call.run(test);
+            } catch (RuntimeException e) {
+                // Generated rows need not map to entities; only the statements sent matter here
+                if (EXECUTED.isEmpty()) {
+                    throw e;
+                }
+            }
+            return EXECUTED.stream()
+                    .filter(statement -> statement.sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                    .toList();
+        };
+        return Arguments.of(name, lookup, allowedFullScans, Arrays.asList(expectedKeys));
+    }
+
+    // A JdbcTemplate query from its SQL constant; an IN-list prefix gets one placeholder per value
+    private static Arguments jdbc(Class<?> owner, String field, List<?> params, String... expectedKeys) {
+        String sql = (String) ReflectionTestUtils.getField(owner, field);
+        if (sql.endsWith("(")) {
+            sql += String.join(", ", Collections.nCopies(params.size(), "?")) + ")";
+        }
+        Executed statement = new Executed(sql, new ArrayList<>(params));
+        Lookup lookup = test -> List.of(statement);
+        return Arguments.of(owner.getSimpleName() + "." + field, lookup, 0, Arrays.asList(expectedKeys));
+    }
+
+    /**
+     * Inserts SEED_ROWS rows into every table: row n gets n in integer columns (so ids and foreign keys
+     * line up), 'v' + n in strings, a cycling value in enums and a recent time in temporal columns
+     */
+    private static void seed() {
+        jdbcTemplate.execute("SET foreign_key_checks = 0");
+        jdbcTemplate.execute("SET cte_max_recursion_depth = " + SEED_ROWS);
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = DATABASE() " +
+                "AND table_type = 'BASE TABLE' AND table_name <> 'flyway_schema_history'", String.class);
+        for (String table : tables) {
+            List<String> columns = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            jdbcTemplate.query(
+                    "SELECT column_name, data_type, column_type, character_maximum_length, extra " +
+                    "FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = ? " +
+                    "ORDER BY ordinal_position",
+                    rs -> {
+                        String extra = rs.getString("extra");
+                        if (extra.contains("auto_increment") || extra.contains("VIRTUAL GENERATED")
+                                || extra.contains("STORED GENERATED")) {
+                            return;
+                        }
+                        columns.add("`" + rs.getString("column_name") + "`");
+                        values.add(sampleValue(rs.getString("data_type"), rs.getString("column_type"),
+                                rs.getLong("character_maximum_length")));
+                    },
+                    table);
+            // IGNORE skips rows that collide on a unique key
+            jdbcTemplate.execute("INSERT IGNORE INTO `" + table + "` (" + String.join(", ", columns) + ") " +
+                    "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + SEED_ROWS + ") " +
+                    "SELECT " + String.join(", ", values) + " FROM seq");
+            jdbcTemplate.execute("ANALYZE TABLE `" + table + "`");
+        }
+        jdbcTemplate.execute("SET foreign_key_checks = 1");
+    }
+
+    private static String sampleValue(String dataType, String columnType, long maxLength) {
+        switch (dataType.toLowerCase(Locale.ROOT)) {
+            case "tinyint":
+            case "bit":
+                return "n % 2";
+            case "smallint":
+            case "mediumint":
+            case "int":
+            case "bigint":
+                return "n";
+            case "decimal":
+            case "float":
+            case "double":
+                return "n % 100";
+            case "char":
+            case "varchar":
+            case "tinytext":
+            case "text":
+            case "mediumtext":
+            case "longtext":
+                return "LEFT(CONCAT('v', n), " + maxLength + ")";
+            case "enum":
+                // column_type is enum('A','B',...): cycle through the listed values
+                String listed = columnType.substring(columnType.indexOf('(') + 1, columnType.lastIndexOf(')'));
+                return "ELT(1 + n % " + listed.split("','").length + ", " + listed + ")";
+            case "date":
+                return "CURDATE() - INTERVAL n % 90 DAY";
+            case "datetime":
+            case "timestamp":
+                return "NOW() - INTERVAL n MINUTE";
+            case "json":
+                return "JSON_OBJECT()";
+            default:
+                return "'v'";
+        }
+    }
+
+    @FunctionalInterface
+    interface RepositoryCall {
+        void run(QueryPlanTest test);
+    }
+
+    @FunctionalInterface
+    interface Lookup {
+        List<Executed> run(QueryPlanTest test);
+    }
+
+    static class Executed {
+        private final String sql;
+        private final List<Object> params;
+
+        Executed(String sql, List<Object> params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    /**
+     * Wraps the application's data source so every prepared statement is recorded with its bound values
+     */
+    @TestConfiguration
+    static class StatementCapture {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? capturing(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource capturing(DataSource dataSource) {
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                Object result = invoke(dataSource, method, args);
+                return result instanceof Connection connection ? capturing(connection) : result;
+            });
+        }
+
+        private static Connection capturing(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement
+                        ? capturing(statement, (String) args[0]) : result;
+            });
+        }
+
+        private static PreparedStatement capturing(PreparedStatement statement, String sql) {
+            Map<Integer, Object> params = new TreeMap<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    params.put(index, name.equals("setNull") ? null : args[1]);
+                } else if (name.equals("clearParameters")) {
+                    params.clear();
+                } else if (name.startsWith("execute") && args == null) {
+                    EXECUTED.add(new Executed(sql, new ArrayList<>(params.values())));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.edutest.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatisticTreeTest {
+
+    // Score descending, then id ascending, like the leaderboard order
+    private static final Comparator<int[]> SCORE_THEN_ID = Comparator
+            .comparingInt((int[] e) -> -e[0])
+            .thenComparingInt(e -> e[1]);
+
+    @Test
+    void insertKeepsOrderAndRejectsDuplicates() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+
+        assertThat(tree.add(5)).isTrue();
+        assertThat(tree.add(1)).isTrue();
+        assertThat(tree.add(3)).isTrue();
+        assertThat(tree.add(3)).isFalse();
+
+        assertThat(tree.size()).isEqualTo(3);
+        assertThat(tree.slice(0, 10)).containsExactly(1, 3, 5);
+    }
+
+    @Test
+    void removeDropsOnlyPresentKeys() {
+        OrderStatisticTree<Integer> tree = tree(1, 2, 3, 4);
+
+        assertThat(tree.remove(2)).isTrue();
+        assertThat(tree.remove(2)).isFalse();
+        assertThat(tree.remove(9)).isFalse();
+
+        assertThat(tree.size()).isEqualTo(3);
+        assertThat(tree.contains(2)).isFalse();
+        assertThat(tree.slice(0, 10)).containsExactly(1, 3, 4);
+    }
+
+    @Test
+    void removeLastKeyEmptiesTheTree() {
+        OrderStatisticTree<Integer> tree = tree(7);
+
+        tree.remove(7);
+
+        assertThat(tree.size()).isZero();
+        assertThat(tree.slice(0, 10)).isEmpty();
+        assertThat(tree.rank(7)).isZero();
+    }
+
+    @Test
+    void rankBreaksScoreTiesById() {
+        OrderStatisticTree<int[]> tree = new OrderStatisticTree<>(SCORE_THEN_ID);
+        int[] first = {90, 3};
+        int[] tiedLow = {80, 1};
+        int[] tiedHigh = {80, 2};
+        int[] last = {70, 4};
+        tree.add(tiedHigh);
+        tree.add(last);
+        tree.add(first);
+        tree.add(tiedLow);
+
+        assertThat(tree.rank(first)).isZero();
+        assertThat(tree.rank(tiedLow)).isEqualTo(1);
+        assertThat(tree.rank(tiedHigh)).isEqualTo(2);
+        assertThat(tree.rank(last)).isEqualTo(3);
+    }
+
+    @Test
+    void rankOfAbsentKeyCountsSmallerKeys() {
+        OrderStatisticTree<Integer> tree = tree(10, 20, 30);
+
+        assertThat(tree.rank(5)).isZero();
+        assertThat(tree.rank(25)).isEqualTo(2);
+        assertThat(tree.rank(35)).isEqualTo(3);
+    }
+
+    @Test
+    void getSelectsAtTheEdges() {
+        OrderStatisticTree<Integer> tree = tree(4, 8, 15, 16, 23, 42);
+
+        assertThat(tree.get(0)).isEqualTo(4);
+        assertThat(tree.get(tree.size() - 1)).isEqualTo(42);
+        assertThatThrownBy(() -> tree.get(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> tree.get(tree.size())).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void getOnEmptyTreeThrows() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+
+        assertThatThrownBy(() -> tree.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void sliceClipsAtTheEnd() {
+        OrderStatisticTree<Integer> tree = tree(1, 2, 3, 4, 5);
+
+        assertThat(tree.slice(3, 10)).containsExactly(4, 5);
+        assertThat(tree.slice(5, 3)).isEmpty();
+        assertThat(tree.slice(0, 0)).isEmpty();
+    }
+
+    @Test
+    void matchesTreeSetUnderRandomUpdates() {
+        Random random = new Random(42);
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertThat(tree.add(key)).isEqualTo(expected.add(key));
+            } else {
+                assertThat(tree.remove(key)).isEqualTo(expected.remove(key));
+            }
+        }
+
+        List<Integer> ordered = new ArrayList<>(expected);
+        assertThat(tree.size()).isEqualTo(ordered.size());
+        assertThat(tree.slice(0, ordered.size())).isEqualTo(ordered);
+        for (int i = 0; i < ordered.size(); i++) {
+            assertThat(tree.get(i)).isEqualTo(ordered.get(i));
+            assertThat(tree.rank(ordered.get(i))).isEqualTo(i);
+        }
+    }
+
+    private static OrderStatisticTree<Integer> tree(Integer... keys) {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        for (Integer key : keys) {
+            tree.add(key);
+        }
+        return tree;
+    }
+}
@@ -4,6 +4,8 @@ const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8081
 
 const api = axios.create({
   baseURL: API_BASE_URL,
+  // Sends the server's last-write cookie back so reads after a write stay on the primary
+  withCredentials: true,
   headers: {
     'Content-Type': 'application/json',
   },